@@ -0,0 +1,97 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the publisher benchmarks with the allocation profiler and writes a report of their throughput and allocation.
+ * <p>
+ * Accepts the usual JMH command line, e.g. a benchmark regex or {@code -f 2}. Unless overridden, the GC profiler is
+ * enabled and the raw results are written to {@code target/jmh-result.json}. A summary with the throughput, allocation
+ * rate and allocation per operation of every benchmark is printed and written to {@code target/jmh-report.md}.
+ */
+public final class BenchmarkRunner {
+
+    private static final Path RESULT = Path.of("target", "jmh-result.json");
+    private static final Path REPORT = Path.of("target", "jmh-report.md");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(RESULT.getParent());
+            options.resultFormat(ResultFormatType.JSON).result(RESULT.toString());
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        String report = report(results);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        System.out.println();
+        System.out.println(report);
+    }
+
+    /**
+     * Formats the throughput and allocation of every benchmark as a Markdown table.
+     */
+    static String report(Collection<RunResult> results) throws IOException {
+        StringBuilder report = new StringBuilder()
+                .append("| Benchmark | Threads | Throughput | Allocation rate (MB/s) | Allocated (B/op) |\n")
+                .append("|-----------|---------|------------|------------------------|------------------|\n");
+        results.stream()
+                .sorted(Comparator.comparing((RunResult result) -> result.getParams().getBenchmark())
+                        .thenComparingInt(result -> result.getParams().getThreads()))
+                .forEach(result -> {
+                    Result<?> primary = result.getPrimaryResult();
+                    Map<String, Result> secondary = result.getSecondaryResults();
+                    report.append(String.format(Locale.ROOT, "| %s | %d | %.1f %s | %s | %s |%n",
+                            shortName(result.getParams().getBenchmark()),
+                            result.getParams().getThreads(),
+                            primary.getScore(), primary.getScoreUnit(),
+                            secondaryScore(secondary, "gc.alloc.rate"),
+                            secondaryScore(secondary, "gc.alloc.rate.norm")));
+                });
+        return report.toString();
+    }
+
+    private static String shortName(String benchmark) {
+        return benchmark.substring(BenchmarkRunner.class.getPackageName().length() + 1);
+    }
+
+    /**
+     * Returns the score of a profiler result, whose label is prefixed with a middle dot by older JMH versions.
+     */
+    private static String secondaryScore(Map<String, Result> secondary, String label) {
+        Result<?> result = secondary.containsKey(label) ? secondary.get(label) : secondary.get("·" + label);
+        return result == null ? "n/a" : String.format(Locale.ROOT, "%.1f", result.getScore());
+    }
+}
@@ -0,0 +1,89 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import com.toulios.githubanalyzer.dto.GithubRepositoryDto;
+import com.toulios.githubanalyzer.dto.LicenseDto;
+import com.toulios.githubanalyzer.dto.OwnerDto;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Representative values of the objects handled on the hot paths.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static ObservedRepo observedRepo() {
+        ObservedRepo repo = new ObservedRepo();
+        repo.setId(4242L);
+        repo.setOwner("spring-projects");
+        repo.setName("spring-boot");
+        repo.setUrl("https://github.com/spring-projects/spring-boot");
+        repo.setLicence("Apache License 2.0");
+        repo.setStars(73_512);
+        repo.setOpenIssues(512);
+        repo.setStatus(ObservedRepoStatus.ACTIVE);
+        repo.setCreatedAt(LocalDateTime.of(2024, 1, 10, 8, 30));
+        repo.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+        return repo;
+    }
+
+    static GithubRepositoryDto githubRepository() {
+        OwnerDto owner = new OwnerDto();
+        owner.setLogin("spring-projects");
+        LicenseDto license = new LicenseDto();
+        license.setName("Apache License 2.0");
+
+        GithubRepositoryDto dto = new GithubRepositoryDto();
+        dto.setName("spring-boot");
+        dto.setFullName("spring-projects/spring-boot");
+        dto.setUrl("https://github.com/spring-projects/spring-boot");
+        dto.setStars(73_512);
+        dto.setOpenIssues(512);
+        dto.setOwner(owner);
+        dto.setLicense(license);
+        return dto;
+    }
+
+    static RepoChangeEvent changeEvent() {
+        Instant now = Instant.now();
+        return RepoChangeEvent.builder()
+                .repoId(4242L)
+                .changes("\n - Stars: 73512 → 73524\n - Open Issues: 512 → 511\nRepository changes for id4242:")
+                .timestamp(LocalDateTime.now())
+                .owner("spring-projects")
+                .name("spring-boot")
+                .licence("Apache License 2.0")
+                .stars(73_524)
+                .previousStars(73_512)
+                .openIssues(511)
+                .status(ObservedRepoStatus.ACTIVE)
+                .previousStatus(ObservedRepoStatus.ACTIVE)
+                .fetchedAt(now)
+                .persistedAt(now)
+                .sentAt(now)
+                .build();
+    }
+
+    /**
+     * A repository as returned by the GitHub API, with all the fields the publisher ignores.
+     */
+    static byte[] githubRepositoryJson() {
+        try (InputStream input = Fixtures.class.getResourceAsStream("/github-repository.json")) {
+            if (input == null) {
+                throw new IllegalStateException("github-repository.json not found");
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import com.toulios.githubanalyzer.client.GithubProperties;
+import com.toulios.githubanalyzer.client.GithubRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention on the GitHub rate limiter, shared by every thread calling the GitHub API, from 1 to 64 threads.
+ * <p>
+ * The limit is high enough never to be reached within an iteration, and a new limiter is created for every
+ * iteration, so the benchmark measures the cost of admitting a request and never sleeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GithubRateLimiterBenchmark {
+
+    private GithubRateLimiter rateLimiter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        rateLimiter = new GithubRateLimiter(new GithubProperties(Integer.MAX_VALUE, 3600, 1, null, null),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void waitIfNeeded_01Thread() throws InterruptedException {
+        rateLimiter.waitIfNeeded();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void waitIfNeeded_04Threads() throws InterruptedException {
+        rateLimiter.waitIfNeeded();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void waitIfNeeded_16Threads() throws InterruptedException {
+        rateLimiter.waitIfNeeded();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void waitIfNeeded_64Threads() throws InterruptedException {
+        rateLimiter.waitIfNeeded();
+    }
+}
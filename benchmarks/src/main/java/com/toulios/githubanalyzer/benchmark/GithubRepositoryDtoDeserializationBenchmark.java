@@ -0,0 +1,45 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.dto.GithubRepositoryDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of a full GitHub API repository response, most of which is ignored, with the object mapper the
+ * message converters of the GitHub client's RestTemplate use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GithubRepositoryDtoDeserializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        json = Fixtures.githubRepositoryJson();
+    }
+
+    @Benchmark
+    public GithubRepositoryDto readValue() throws IOException {
+        return objectMapper.readValue(json, GithubRepositoryDto.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Kafka template that completes every send immediately without a broker, so benchmarks measure the publisher only.
+ */
+class NoOpKafkaTemplate extends KafkaTemplate<String, String> {
+
+    private static final CompletableFuture<SendResult<String, String>> SENT = CompletableFuture.completedFuture(null);
+
+    NoOpKafkaTemplate() {
+        super(new DefaultKafkaProducerFactory<>(Map.of()));
+    }
+
+    @Override
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String data) {
+        return SENT;
+    }
+}
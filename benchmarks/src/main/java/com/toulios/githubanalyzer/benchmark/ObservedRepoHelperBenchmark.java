@@ -0,0 +1,77 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.config.JacksonConfig;
+import com.toulios.githubanalyzer.dto.request.SseOverflowPolicy;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.service.MessageService;
+import com.toulios.githubanalyzer.service.ObservedRepoHelper;
+import com.toulios.githubanalyzer.service.RepoChangeBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change detection of a refreshed repository: comparing the old and new values and, when they differ, building
+ * the change event, serializing it for Kafka and offering it to the change stream, which has no subscribers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObservedRepoHelperBenchmark {
+
+    private ObservedRepoHelper helper;
+    private RepoChangeBroadcaster broadcaster;
+    private ObservedRepo oldValues;
+    private ObservedRepo changedValues;
+    private ObservedRepo unchangedValues;
+    private Instant fetchedAt;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        broadcaster = new RepoChangeBroadcaster(objectMapper, new SimpleMeterRegistry(), 256, 10_000,
+                Duration.ofMinutes(30), Duration.ofSeconds(15), 1, SseOverflowPolicy.DROP_OLDEST);
+        MessageService messageService =
+                new MessageService(objectMapper, new NoOpKafkaTemplate(), new SimpleMeterRegistry());
+        helper = new ObservedRepoHelper(messageService, broadcaster);
+
+        oldValues = Fixtures.observedRepo();
+        changedValues = Fixtures.observedRepo();
+        changedValues.setStars(oldValues.getStars() + 12);
+        changedValues.setOpenIssues(oldValues.getOpenIssues() - 1);
+        unchangedValues = Fixtures.observedRepo();
+        fetchedAt = Instant.now();
+    }
+
+    @TearDown
+    public void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Benchmark
+    public boolean handleChanges_Changed() {
+        return helper.handleChanges(oldValues, changedValues, fetchedAt, fetchedAt);
+    }
+
+    @Benchmark
+    public boolean handleChanges_Unchanged() {
+        return helper.handleChanges(oldValues, unchangedValues, fetchedAt, fetchedAt);
+    }
+}
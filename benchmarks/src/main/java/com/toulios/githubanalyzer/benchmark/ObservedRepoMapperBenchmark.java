@@ -0,0 +1,50 @@
+package com.toulios.githubanalyzer.benchmark;
+
+import com.toulios.githubanalyzer.dto.GithubRepositoryDto;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.util.ObservedRepoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a fetched GitHub repository to an entity, done for every refreshed repository, and an entity to a
+ * response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObservedRepoMapperBenchmark {
+
+    private GithubRepositoryDto githubRepository;
+    private ObservedRepo entity;
+
+    @Setup
+    public void setUp() {
+        githubRepository = Fixtures.githubRepository();
+        entity = Fixtures.observedRepo();
+    }
+
+    @Benchmark
+    public ObservedRepo toEntity() {
+        return ObservedRepoMapper.toEntity(githubRepository, 4242L);
+    }
+
+    @Benchmark
+    public ObservedRepoResponse toResponse() {
+        return ObservedRepoMapper.toResponse(entity);
+    }
+}
@@ -0,0 +1,26 @@
+package com.toulios.consumer.aggregation;
+
+import java.util.Arrays;
+
+/**
+ * Dimensions stars gained are aggregated by.
+ */
+public enum AggregationDimension {
+    REPO,
+    OWNER,
+    LICENCE;
+
+    /**
+     * Resolves a dimension from its case-insensitive name.
+     *
+     * @param name the name, e.g. "owner"
+     * @return the dimension
+     * @throws IllegalArgumentException if no dimension has the name
+     */
+    public static AggregationDimension fromName(String name) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown aggregation dimension: " + name));
+    }
+}
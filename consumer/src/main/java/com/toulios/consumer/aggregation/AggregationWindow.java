@@ -0,0 +1,72 @@
+package com.toulios.consumer.aggregation;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Windows the change stream is aggregated over.
+ * Tumbling windows advance by their own size; hopping windows advance by a fraction of it,
+ * so every event falls into several overlapping windows.
+ */
+public enum AggregationWindow {
+    MINUTE("1m", Duration.ofMinutes(1), Duration.ofMinutes(1), 60),
+    HOUR("1h", Duration.ofHours(1), Duration.ofHours(1), 24),
+    DAY("1d", Duration.ofDays(1), Duration.ofDays(1), 7),
+    HOUR_EVERY_5_MINUTES("1h-every-5m", Duration.ofHours(1), Duration.ofMinutes(5), 12);
+
+    private final String label;
+    private final long sizeMillis;
+    private final long advanceMillis;
+    private final int retainedWindows;
+
+    AggregationWindow(String label, Duration size, Duration advance, int retainedWindows) {
+        this.label = label;
+        this.sizeMillis = size.toMillis();
+        this.advanceMillis = advance.toMillis();
+        this.retainedWindows = retainedWindows;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getSizeMillis() {
+        return sizeMillis;
+    }
+
+    public long getAdvanceMillis() {
+        return advanceMillis;
+    }
+
+    /**
+     * Number of closed windows kept for querying before they are evicted.
+     */
+    public int getRetainedWindows() {
+        return retainedWindows;
+    }
+
+    /**
+     * Returns the start of the most recent window containing the given instant.
+     * Earlier windows containing it start {@link #getAdvanceMillis()} apart.
+     *
+     * @param epochMillis the instant
+     * @return the window start
+     */
+    public long lastWindowStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, advanceMillis) * advanceMillis;
+    }
+
+    /**
+     * Resolves a window from its label.
+     *
+     * @param label the label, e.g. "1h"
+     * @return the window
+     * @throws IllegalArgumentException if no window has the label
+     */
+    public static AggregationWindow fromLabel(String label) {
+        return Arrays.stream(values())
+                .filter(window -> window.label.equalsIgnoreCase(label) || window.name().equalsIgnoreCase(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown aggregation window: " + label));
+    }
+}
@@ -0,0 +1,15 @@
+package com.toulios.consumer.aggregation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Aggregates of a single window.
+ *
+ * @param start the window start, inclusive
+ * @param end the window end, exclusive
+ * @param closed whether the watermark has passed the window end, i.e. the values are final
+ * @param entries the aggregated values, largest first
+ */
+public record WindowAggregate(Instant start, Instant end, boolean closed, List<WindowCount> entries) {
+}
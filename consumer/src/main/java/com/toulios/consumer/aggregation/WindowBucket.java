@@ -0,0 +1,90 @@
+package com.toulios.consumer.aggregation;
+
+import org.agrona.collections.Long2LongCounterMap;
+import org.agrona.collections.Object2LongCounterMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Aggregates of a single window, held in primitive-valued counter maps.
+ * Not thread-safe; guarded by {@link WindowedAggregator}.
+ */
+final class WindowBucket {
+
+    private static final Comparator<WindowCount> BY_VALUE = Comparator.comparingLong(WindowCount::value);
+
+    private final long start;
+    private final long end;
+    private final Long2LongCounterMap starsByRepo = new Long2LongCounterMap(0);
+    private final Object2LongCounterMap<String> starsByOwner = new Object2LongCounterMap<>(0);
+    private final Object2LongCounterMap<String> starsByLicence = new Object2LongCounterMap<>(0);
+    private final Object2LongCounterMap<String> statusTransitions = new Object2LongCounterMap<>(0);
+
+    WindowBucket(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    long start() {
+        return start;
+    }
+
+    long end() {
+        return end;
+    }
+
+    void addStars(long repoId, String owner, String licence, long stars) {
+        starsByRepo.getAndAdd(repoId, stars);
+        if (owner != null) {
+            starsByOwner.getAndAdd(owner, stars);
+        }
+        if (licence != null) {
+            starsByLicence.getAndAdd(licence, stars);
+        }
+    }
+
+    void addTransition(String transition) {
+        statusTransitions.getAndAdd(transition, 1);
+    }
+
+    /**
+     * Returns the keys with the most stars gained in the given dimension.
+     */
+    List<WindowCount> topStars(AggregationDimension dimension, int limit) {
+        PriorityQueue<WindowCount> top = new PriorityQueue<>(limit + 1, BY_VALUE);
+        switch (dimension) {
+            case REPO -> starsByRepo.forEach((repoId, stars) -> offer(top, String.valueOf(repoId), stars, limit));
+            case OWNER -> starsByOwner.forEach((owner, stars) -> offer(top, owner, stars, limit));
+            case LICENCE -> starsByLicence.forEach((licence, stars) -> offer(top, licence, stars, limit));
+        }
+        return sortedDescending(top);
+    }
+
+    /**
+     * Returns the counts of every status transition.
+     */
+    List<WindowCount> statusTransitions() {
+        List<WindowCount> counts = new ArrayList<>(statusTransitions.size());
+        statusTransitions.forEach((transition, count) -> counts.add(new WindowCount(transition, count)));
+        counts.sort(BY_VALUE.reversed());
+        return counts;
+    }
+
+    private static void offer(PriorityQueue<WindowCount> top, String key, long value, int limit) {
+        if (top.size() < limit) {
+            top.add(new WindowCount(key, value));
+        } else if (!top.isEmpty() && value > top.peek().value()) {
+            top.poll();
+            top.add(new WindowCount(key, value));
+        }
+    }
+
+    private static List<WindowCount> sortedDescending(PriorityQueue<WindowCount> top) {
+        List<WindowCount> sorted = new ArrayList<>(top);
+        sorted.sort(BY_VALUE.reversed());
+        return sorted;
+    }
+}
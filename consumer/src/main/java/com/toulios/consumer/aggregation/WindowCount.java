@@ -0,0 +1,10 @@
+package com.toulios.consumer.aggregation;
+
+/**
+ * Aggregated value of one key within a window.
+ *
+ * @param key the key, e.g. a repository id, owner, licence or status transition
+ * @param value the aggregated value
+ */
+public record WindowCount(String key, long value) {
+}
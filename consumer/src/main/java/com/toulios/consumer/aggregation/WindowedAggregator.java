@@ -0,0 +1,275 @@
+package com.toulios.consumer.aggregation;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.AppliedChange;
+import com.toulios.consumer.state.RepoState;
+import com.toulios.consumer.state.RepoStateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Computes tumbling and hopping window aggregates over the change stream: stars gained per repository,
+ * owner and licence, and counts of status transitions.
+ * <p>
+ * Events are assigned to windows by event time. The watermark trails the latest event time by the allowed
+ * lateness; a window whose end is behind the watermark is closed, later events for it are dropped, and only
+ * the most recent {@link AggregationWindow#getRetainedWindows()} closed windows are kept.
+ * <p>
+ * Changes applied to the {@link RepoStateStore} are aggregated against the state of their repository before the
+ * change rather than the previous values they carry, so a redelivered or replayed event gains no stars and makes no
+ * transition.
+ * <p>
+ * While a replay reads several partitions in parallel, one partition can run far ahead of the others in event time.
+ * The watermark then trails the partition that is furthest behind, so the windows the other partitions are still
+ * replaying stay open.
+ */
+@Component
+public class WindowedAggregator {
+
+    private final long allowedLatenessMillis;
+    private final Map<AggregationWindow, NavigableMap<Long, WindowBucket>> windows = new EnumMap<>(AggregationWindow.class);
+    private final Counter lateEvents;
+    private long maxEventTime = Long.MIN_VALUE;
+    /** Latest event time of every partition still being replayed, or null when no replay is in progress */
+    private Map<TopicPartition, Long> replayEventTimes;
+
+    public WindowedAggregator(@Value("${app.aggregation.allowed-lateness-ms:60000}") long allowedLatenessMillis,
+                              MeterRegistry meterRegistry) {
+        this.allowedLatenessMillis = allowedLatenessMillis;
+        for (AggregationWindow window : AggregationWindow.values()) {
+            windows.put(window, new TreeMap<>());
+        }
+        this.lateEvents = Counter.builder("repo_changes.aggregation.late_events")
+                .description("Change events dropped from aggregation because their windows were already closed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a change applied to the state store to every window containing its event time.
+     *
+     * @param change the applied change
+     * @param recordTimestamp the Kafka record timestamp, used when the event carries no instant
+     */
+    public synchronized void apply(AppliedChange change, long recordTimestamp) {
+        apply(change.event(), change.previous(), recordTimestamp, null);
+    }
+
+    /**
+     * Adds a change event whose repository state is unknown to every window containing its event time,
+     * trusting the previous values it carries.
+     *
+     * @param event the change event
+     * @param recordTimestamp the Kafka record timestamp, used when the event carries no instant
+     */
+    public synchronized void apply(RepoChangeEvent event, long recordTimestamp) {
+        apply(event, null, recordTimestamp, null);
+    }
+
+    private void apply(RepoChangeEvent event, RepoState previous, long recordTimestamp, TopicPartition partition) {
+        long eventTime = eventTime(event, recordTimestamp);
+        if (replayEventTimes != null && partition != null) {
+            replayEventTimes.computeIfPresent(partition, (key, time) -> Math.max(time, eventTime));
+        }
+        long stars = starsGained(event, previous);
+        String transition = statusTransition(event, previous);
+        if (stars == 0 && transition == null) {
+            return;
+        }
+
+        maxEventTime = Math.max(maxEventTime, eventTime);
+        long watermark = watermark();
+        boolean late = false;
+        for (AggregationWindow window : AggregationWindow.values()) {
+            NavigableMap<Long, WindowBucket> buckets = windows.get(window);
+            for (long start = window.lastWindowStart(eventTime);
+                 start > eventTime - window.getSizeMillis();
+                 start -= window.getAdvanceMillis()) {
+                long end = start + window.getSizeMillis();
+                if (end <= watermark) {
+                    late = true;
+                    continue;
+                }
+                WindowBucket bucket = buckets.computeIfAbsent(start, key -> new WindowBucket(key, end));
+                if (stars != 0) {
+                    bucket.addStars(event.getRepoId(), event.getOwner(), event.getLicence(), stars);
+                }
+                if (transition != null) {
+                    bucket.addTransition(transition);
+                }
+            }
+            evict(window, buckets, watermark);
+        }
+        if (late) {
+            lateEvents.increment();
+        }
+    }
+
+    /**
+     * Adds the changes of a list of records applied to the state store under a single lock acquisition.
+     *
+     * @param records the records, in partition order
+     * @param changes the changes the state store applied for the records, null for the records it did not apply
+     * @see RepoStateStore#applyRecords(List)
+     */
+    public synchronized void applyRecords(List<? extends ConsumerRecord<?, RepoChangeEvent>> records,
+                                          List<AppliedChange> changes) {
+        for (int i = 0; i < records.size(); i++) {
+            AppliedChange change = changes.get(i);
+            ConsumerRecord<?, RepoChangeEvent> record = records.get(i);
+            if (change != null) {
+                apply(change.event(), change.previous(), record.timestamp(),
+                        new TopicPartition(record.topic(), record.partition()));
+            }
+        }
+    }
+
+    /**
+     * Starts a replay of the given partitions. Until each of them is reported as replayed, the watermark trails the
+     * latest event time of the partition that is furthest behind instead of the latest event time overall.
+     *
+     * @param partitions the partitions that will be replayed
+     */
+    public synchronized void beginReplay(Collection<TopicPartition> partitions) {
+        replayEventTimes = new HashMap<>();
+        partitions.forEach(partition -> replayEventTimes.put(partition, Long.MIN_VALUE));
+    }
+
+    /**
+     * Reports that a partition has been replayed up to its end, so it no longer holds the watermark back.
+     *
+     * @param partition the replayed partition
+     */
+    public synchronized void partitionReplayed(TopicPartition partition) {
+        if (replayEventTimes != null) {
+            replayEventTimes.remove(partition);
+        }
+    }
+
+    /**
+     * Ends the replay: the watermark trails the latest event time overall again, and the windows it closes are
+     * evicted beyond their retention.
+     */
+    public synchronized void endReplay() {
+        replayEventTimes = null;
+        long watermark = watermark();
+        windows.forEach((window, buckets) -> evict(window, buckets, watermark));
+    }
+
+    /**
+     * Removes every window and resets the watermark.
+     */
+    public synchronized void clear() {
+        windows.values().forEach(Map::clear);
+        maxEventTime = Long.MIN_VALUE;
+        replayEventTimes = null;
+    }
+
+    /**
+     * Returns the keys with the most stars gained in every retained window, most recent window first.
+     *
+     * @param window the window
+     * @param dimension the dimension to aggregate by
+     * @param limit the maximum number of keys per window
+     * @return the window aggregates
+     */
+    public synchronized List<WindowAggregate> getStarsGained(AggregationWindow window, AggregationDimension dimension, int limit) {
+        return collect(window, bucket -> bucket.topStars(dimension, limit));
+    }
+
+    /**
+     * Returns the status transition counts of every retained window, most recent window first.
+     *
+     * @param window the window
+     * @return the window aggregates
+     */
+    public synchronized List<WindowAggregate> getStatusTransitions(AggregationWindow window) {
+        return collect(window, WindowBucket::statusTransitions);
+    }
+
+    private List<WindowAggregate> collect(AggregationWindow window, Function<WindowBucket, List<WindowCount>> entries) {
+        long watermark = watermark();
+        List<WindowAggregate> aggregates = new ArrayList<>();
+        for (WindowBucket bucket : windows.get(window).descendingMap().values()) {
+            aggregates.add(new WindowAggregate(
+                    Instant.ofEpochMilli(bucket.start()),
+                    Instant.ofEpochMilli(bucket.end()),
+                    bucket.end() <= watermark,
+                    entries.apply(bucket)));
+        }
+        return aggregates;
+    }
+
+    /**
+     * Drops the closed windows beyond the retention of the window type.
+     */
+    private void evict(AggregationWindow window, NavigableMap<Long, WindowBucket> buckets, long watermark) {
+        int closed = 0;
+        for (WindowBucket bucket : buckets.values()) {
+            if (bucket.end() <= watermark) {
+                closed++;
+            }
+        }
+        while (closed > window.getRetainedWindows()) {
+            buckets.pollFirstEntry();
+            closed--;
+        }
+    }
+
+    private long watermark() {
+        long eventTime = maxEventTime;
+        if (replayEventTimes != null && !replayEventTimes.isEmpty()) {
+            eventTime = Math.min(eventTime, Collections.min(replayEventTimes.values()));
+        }
+        return eventTime == Long.MIN_VALUE ? Long.MIN_VALUE : eventTime - allowedLatenessMillis;
+    }
+
+    /**
+     * Prefers the instant the change was observed at GitHub, then the instant it was sent.
+     */
+    private static long eventTime(RepoChangeEvent event, long recordTimestamp) {
+        if (event.getFetchedAt() != null) {
+            return event.getFetchedAt().toEpochMilli();
+        }
+        if (event.getSentAt() != null) {
+            return event.getSentAt().toEpochMilli();
+        }
+        return recordTimestamp;
+    }
+
+    /**
+     * Measures the gain from the stars of the repository before the change when known, so re-applying the same
+     * change gains nothing.
+     */
+    private static long starsGained(RepoChangeEvent event, RepoState previous) {
+        Integer previousStars = previous != null && previous.stars() != null ? previous.stars() : event.getPreviousStars();
+        if (event.getRepoId() == null || event.getStars() == null || previousStars == null) {
+            return 0;
+        }
+        return (long) event.getStars() - previousStars;
+    }
+
+    private static String statusTransition(RepoChangeEvent event, RepoState previous) {
+        String previousStatus = previous != null && previous.status() != null ? previous.status() : event.getPreviousStatus();
+        if (event.getStatus() == null || previousStatus == null || Objects.equals(event.getStatus(), previousStatus)) {
+            return null;
+        }
+        return previousStatus + "->" + event.getStatus();
+    }
+}
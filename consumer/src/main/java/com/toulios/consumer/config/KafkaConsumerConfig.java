@@ -0,0 +1,139 @@
+package com.toulios.consumer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+/**
+ * Configuration class for the Kafka consumer.
+ * Records are deserialized into {@link RepoChangeEvent} by the consumer itself and delivered to the
+ * listener in batches. Offsets are committed manually once a batch has been processed.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Number of concurrent consumers. Values above the partition count leave consumers idle.
+     */
+    @Value("${app.kafka.listener.concurrency:1}")
+    private int concurrency;
+
+    /**
+     * Delay between redeliveries of a record whose forwarding to the retry topics failed. Such a record is
+     * redelivered until forwarding succeeds: skipping it would commit its offset and lose the change.
+     */
+    @Value("${app.kafka.listener.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    /**
+     * Whether the derived state is rebuilt from the change topic on startup. The listener containers are then
+     * started by the replayer once the rebuild completes instead of on application startup.
+     */
+    @Value("${app.replay.enabled:false}")
+    private boolean replayEnabled;
+
+    /**
+     * Consumer factory deserializing values into {@link RepoChangeEvent} with the application ObjectMapper.
+     * Records that cannot be deserialized are delivered with a null value instead of failing the whole poll.
+     * The Kafka client metrics of every consumer, including the per-partition {@code records-lag}, are bound
+     * to the meter registry.
+     *
+     * @param kafkaProperties the Spring Boot Kafka properties
+     * @param objectMapper the application ObjectMapper
+     * @param meterRegistry the meter registry
+     * @return the consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, RepoChangeEvent> repoChangeConsumerFactory(KafkaProperties kafkaProperties,
+                                                                             ObjectMapper objectMapper,
+                                                                             MeterRegistry meterRegistry) {
+        JsonDeserializer<RepoChangeEvent> jsonDeserializer = new JsonDeserializer<>(RepoChangeEvent.class, objectMapper, false);
+        DefaultKafkaConsumerFactory<String, RepoChangeEvent> factory = new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
+    }
+
+    /**
+     * Batch listener container factory with manual acknowledgement and configurable concurrency.
+     *
+     * @param repoChangeConsumerFactory the consumer factory
+     * @return the listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RepoChangeEvent> kafkaListenerContainerFactory(
+            ConsumerFactory<String, RepoChangeEvent> repoChangeConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, RepoChangeEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(repoChangeConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.setAutoStartup(!replayEnabled);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(errorHandler());
+        return factory;
+    }
+
+    /**
+     * Record listener container factory for the retry topics.
+     * Records are acknowledged manually so a record that is not due yet can be negatively acknowledged
+     * with the remaining delay.
+     *
+     * @param repoChangeConsumerFactory the consumer factory
+     * @return the listener container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RepoChangeEvent> retryListenerContainerFactory(
+            ConsumerFactory<String, RepoChangeEvent> repoChangeConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, RepoChangeEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(repoChangeConsumerFactory);
+        factory.setAutoStartup(!replayEnabled);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(errorHandler());
+        return factory;
+    }
+
+    /**
+     * Error handler redelivering a failed record until it succeeds. Records that fail processing are forwarded to
+     * the retry topics by the listeners, so only a failed forward reaches this handler; the default recoverer
+     * would then log and skip the record, so the back-off never runs out.
+     *
+     * @return the error handler
+     */
+    DefaultErrorHandler errorHandler() {
+        return new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, FixedBackOff.UNLIMITED_ATTEMPTS));
+    }
+
+    /**
+     * Consumer factory reading raw dead-letter records so they can be replayed unchanged.
+     *
+     * @param kafkaProperties the Spring Boot Kafka properties
+     * @return the consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, String> deadLetterConsumerFactory(KafkaProperties kafkaProperties) {
+        return new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null),
+                new StringDeserializer(),
+                new StringDeserializer()
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.toulios.consumer.config;
+
+import com.toulios.consumer.retry.RetryTier;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+
+/**
+ * Configuration class declaring the retry and dead-letter topics of the repository change stream.
+ * The topics are created on startup if they do not exist yet.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.kafka.topics.repo-changes}")
+    private String repoChangesTopic;
+
+    /**
+     * Number of partitions of each retry and dead-letter topic.
+     */
+    @Value("${app.kafka.retry.partitions:1}")
+    private int partitions;
+
+    /**
+     * Retry and dead-letter topics, one per {@link RetryTier}.
+     *
+     * @return the topics to create
+     */
+    @Bean
+    public KafkaAdmin.NewTopics repoChangeRetryTopics() {
+        NewTopic[] topics = new NewTopic[RetryTier.values().length];
+        for (RetryTier tier : RetryTier.values()) {
+            topics[tier.ordinal()] = TopicBuilder.name(tier.topic(repoChangesTopic))
+                    .partitions(partitions)
+                    .build();
+        }
+        return new KafkaAdmin.NewTopics(topics);
+    }
+}
@@ -0,0 +1,26 @@
+package com.toulios.consumer.config;
+
+import com.toulios.consumer.aggregation.AggregationDimension;
+import com.toulios.consumer.aggregation.AggregationWindow;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for Spring MVC.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Registers converters for request parameters.
+     * Aggregation windows are accepted by label (e.g. "1h") as well as by name, dimensions case-insensitively.
+     *
+     * @param registry the formatter registry
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, AggregationWindow.class, AggregationWindow::fromLabel);
+        registry.addConverter(String.class, AggregationDimension.class, AggregationDimension::fromName);
+    }
+}
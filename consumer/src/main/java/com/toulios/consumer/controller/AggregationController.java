@@ -0,0 +1,53 @@
+package com.toulios.consumer.controller;
+
+import com.toulios.consumer.aggregation.AggregationDimension;
+import com.toulios.consumer.aggregation.AggregationWindow;
+import com.toulios.consumer.aggregation.WindowAggregate;
+import com.toulios.consumer.aggregation.WindowedAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the windowed aggregates of the change stream.
+ */
+@RestController
+@RequestMapping("/api/v1/aggregations")
+@RequiredArgsConstructor
+public class AggregationController {
+
+    private final WindowedAggregator aggregator;
+
+    /**
+     * Returns the keys with the most stars gained in every retained window, most recent window first.
+     *
+     * @param window the window: 1m, 1h, 1d or 1h-every-5m
+     * @param by the dimension: repo, owner or licence
+     * @param limit the maximum number of keys per window
+     * @return the window aggregates
+     */
+    @GetMapping("/stars")
+    public ResponseEntity<List<WindowAggregate>> getStarsGained(
+            @RequestParam(defaultValue = "1h") AggregationWindow window,
+            @RequestParam(defaultValue = "repo") AggregationDimension by,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(aggregator.getStarsGained(window, by, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Returns the status transition counts of every retained window, most recent window first.
+     *
+     * @param window the window: 1m, 1h, 1d or 1h-every-5m
+     * @return the window aggregates
+     */
+    @GetMapping("/status-transitions")
+    public ResponseEntity<List<WindowAggregate>> getStatusTransitions(
+            @RequestParam(defaultValue = "1h") AggregationWindow window) {
+        return ResponseEntity.ok(aggregator.getStatusTransitions(window));
+    }
+}
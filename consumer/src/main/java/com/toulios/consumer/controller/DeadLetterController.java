@@ -0,0 +1,31 @@
+package com.toulios.consumer.controller;
+
+import com.toulios.consumer.service.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * REST controller for operating on the dead-letter topic of the repository change stream.
+ */
+@RestController
+@RequestMapping("/api/v1/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private final DeadLetterReplayService replayService;
+
+    /**
+     * Replays every record currently in the dead-letter topic onto the main topic.
+     *
+     * @return the number of replayed records
+     */
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Integer>> replay() {
+        return ResponseEntity.ok(Map.of("replayed", replayService.replay()));
+    }
+}
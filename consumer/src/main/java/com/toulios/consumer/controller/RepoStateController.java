@@ -0,0 +1,32 @@
+package com.toulios.consumer.controller;
+
+import com.toulios.consumer.state.RepoState;
+import com.toulios.consumer.state.RepoStateStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing the materialized repository state.
+ */
+@RestController
+@RequestMapping("/api/v1/repo-states")
+@RequiredArgsConstructor
+public class RepoStateController {
+
+    private final RepoStateStore stateStore;
+
+    /**
+     * Returns the latest known state of a repository.
+     *
+     * @param repoId the repository id
+     * @return the state, or 404 if no change event was seen for the repository
+     */
+    @GetMapping("/{repoId}")
+    public ResponseEntity<RepoState> getById(@PathVariable long repoId) {
+        return ResponseEntity.of(stateStore.get(repoId));
+    }
+}
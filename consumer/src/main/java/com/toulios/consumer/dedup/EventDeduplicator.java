@@ -0,0 +1,223 @@
+package com.toulios.consumer.dedup;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Detects change events that were already processed, in fixed memory.
+ * <p>
+ * Every event is identified by a 64-bit hash of its repository id and content, excluding the send timestamps,
+ * so a re-sent event has the same identity as the original. Identities are kept in two places:
+ * <ul>
+ *     <li>an exact LRU of the most recent identities, which is the only source of confirmed duplicates</li>
+ *     <li>a Bloom filter split in two generations that rotate every window, which remembers every identity of the
+ *     last one to two windows in a fixed number of bits and lets unseen events skip the LRU lookup</li>
+ * </ul>
+ * An event the Bloom filter reports as seen but the LRU does not know is either older than the LRU horizon or a
+ * false positive. It is processed and counted, because applying a full-state event twice is harmless while dropping
+ * a new one is not.
+ */
+@Slf4j
+@Component
+public class EventDeduplicator {
+    private static final String LOG_PREFIX = "[EventDeduplicator]";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int bits;
+    private final int hashFunctions;
+    private final Map<Long, Boolean> recent;
+    private final Counter duplicates;
+    private final Counter bloomFalsePositives;
+
+    private volatile AtomicLongArray currentGeneration;
+    private volatile AtomicLongArray previousGeneration;
+
+    public EventDeduplicator(@Value("${app.dedup.expected-events-per-window:2000000}") int expectedEvents,
+                             @Value("${app.dedup.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${app.dedup.exact-capacity:100000}") int exactCapacity,
+                             MeterRegistry meterRegistry) {
+        long optimalBits = (long) Math.ceil(-expectedEvents * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Integer.MAX_VALUE - Long.SIZE, Math.max(Long.SIZE, optimalBits));
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedEvents * Math.log(2)));
+        this.currentGeneration = new AtomicLongArray(words());
+        this.previousGeneration = new AtomicLongArray(words());
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > exactCapacity;
+            }
+        };
+        this.duplicates = Counter.builder("repo_changes.dedup.duplicates")
+                .description("Change events skipped because they were already processed")
+                .register(meterRegistry);
+        this.bloomFalsePositives = Counter.builder("repo_changes.dedup.bloom_false_positives")
+                .description("Change events the Bloom filter reported as seen but the exact LRU did not confirm")
+                .register(meterRegistry);
+        Gauge.builder("repo_changes.dedup.exact_size", this, EventDeduplicator::exactSize)
+                .description("Identities held in the exact LRU")
+                .register(meterRegistry);
+        log.info("{} Bloom filter of {} bits per generation with {} hash functions, exact LRU of {} entries",
+                LOG_PREFIX, bits, hashFunctions, exactCapacity);
+    }
+
+    /**
+     * Checks whether an event with the given identity was already processed.
+     *
+     * @param identity the event identity, see {@link #identity(RepoChangeEvent)}
+     * @return true if the event is a confirmed duplicate
+     */
+    public boolean isDuplicate(long identity) {
+        if (!mightContain(identity)) {
+            return false;
+        }
+        boolean confirmed;
+        synchronized (recent) {
+            confirmed = recent.get(identity) != null;
+        }
+        if (confirmed) {
+            duplicates.increment();
+        } else {
+            bloomFalsePositives.increment();
+        }
+        return confirmed;
+    }
+
+    /**
+     * Remembers that an event was processed. Only called once processing succeeded, so a failed event
+     * is not mistaken for a duplicate when it is retried.
+     *
+     * @param identity the event identity
+     */
+    public void markProcessed(long identity) {
+        AtomicLongArray generation = currentGeneration;
+        long hash2 = mix(identity);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = bitIndex(identity, hash2, i);
+            generation.getAndUpdate(bit >>> 6, word -> word | (1L << bit));
+        }
+        synchronized (recent) {
+            recent.put(identity, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Starts a new Bloom filter generation and drops the oldest one, bounding the filter to the
+     * identities of the last one to two windows.
+     */
+    @Scheduled(fixedRateString = "${app.dedup.window-ms:3600000}", initialDelayString = "${app.dedup.window-ms:3600000}")
+    public void rotate() {
+        previousGeneration = currentGeneration;
+        currentGeneration = new AtomicLongArray(words());
+        log.debug("{} Rotated Bloom filter generation", LOG_PREFIX);
+    }
+
+    /**
+     * Computes the identity of an event: an FNV-1a hash of its repository id and content.
+     * The send timestamps are excluded so re-sent copies of an event share its identity, while the
+     * fetch and persist instants keep distinct refreshes with equal values apart.
+     *
+     * @param event the change event
+     * @return the event identity
+     */
+    public static long identity(RepoChangeEvent event) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, event.getRepoId());
+        hash = hash(hash, event.getChanges());
+        hash = hash(hash, event.getOwner());
+        hash = hash(hash, event.getName());
+        hash = hash(hash, event.getLicence());
+        hash = hash(hash, event.getStars());
+        hash = hash(hash, event.getPreviousStars());
+        hash = hash(hash, event.getOpenIssues());
+        hash = hash(hash, event.getStatus());
+        hash = hash(hash, event.getPreviousStatus());
+        hash = hash(hash, event.getFetchedAt());
+        hash = hash(hash, event.getPersistedAt());
+        return hash;
+    }
+
+    private boolean mightContain(long identity) {
+        AtomicLongArray current = currentGeneration;
+        AtomicLongArray previous = previousGeneration;
+        return contains(current, identity) || contains(previous, identity);
+    }
+
+    private boolean contains(AtomicLongArray generation, long identity) {
+        long hash2 = mix(identity);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = bitIndex(identity, hash2, i);
+            if ((generation.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Double hashing: the i-th index is derived from two independent hashes of the identity.
+     */
+    private int bitIndex(long hash1, long hash2, int i) {
+        return (int) Math.floorMod(hash1 + i * hash2, (long) bits);
+    }
+
+    private int words() {
+        return (bits + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private double exactSize() {
+        synchronized (recent) {
+            return recent.size();
+        }
+    }
+
+    /**
+     * Finalizer of SplitMix64, used to derive a second hash from the identity.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return (z ^ (z >>> 31)) | 1;
+    }
+
+    private static long hash(long hash, Object value) {
+        if (value == null) {
+            return (hash ^ 0xff) * FNV_PRIME;
+        }
+        if (value instanceof Long number) {
+            return hash(hash, number.longValue());
+        }
+        if (value instanceof Integer number) {
+            return hash(hash, number.longValue());
+        }
+        if (value instanceof Instant instant) {
+            return hash(hash(hash, instant.getEpochSecond()), instant.getNano());
+        }
+        for (byte b : Objects.toString(value).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        // Separator so ("ab", "c") and ("a", "bc") hash differently
+        return (hash ^ 0xfe) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -1,19 +1,35 @@
 package com.toulios.consumer.event;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 /**
  * Event class representing a repository change.
+ * Carries the state of the repository after the change and the previous values of stars and status,
+ * plus the instants at which the publisher fetched, persisted and sent the change.
  */
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class RepoChangeEvent {
     private Long repoId;
     private String changes;
     private LocalDateTime timestamp;
-} 
\ No newline at end of file
+    private String owner;
+    private String name;
+    private String licence;
+    private Integer stars;
+    private Integer previousStars;
+    private Integer openIssues;
+    private String status;
+    private String previousStatus;
+    private Instant fetchedAt;
+    private Instant persistedAt;
+    private Instant sentAt;
+}
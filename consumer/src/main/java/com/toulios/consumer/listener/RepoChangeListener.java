@@ -1,37 +1,109 @@
 package com.toulios.consumer.listener;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.metrics.PropagationMetrics;
+import com.toulios.consumer.processing.BatchResult;
+import com.toulios.consumer.processing.RepoChangeDispatcher;
+import com.toulios.consumer.retry.RetryForwarder;
+import com.toulios.consumer.service.RepoChangeProcessor;
+import com.toulios.consumer.state.RepoStateStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 /**
  * Listener class for handling repository change events.
+ * Events are received in batches and the offsets of a batch are committed once all of its records are processed.
+ * On partition assignment the listener seeks to the offsets the materialized state store is consistent with,
+ * so a restart replays only the records that are missing from the restored snapshot. Partitions the store has no
+ * offset for, e.g. partitions moved from another instance by a rebalance, resume from the committed group offset.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class RepoChangeListener {
+public class RepoChangeListener implements ConsumerSeekAware {
     private static final String LOG_PREFIX = "[RepoChangeListener]";
-    private final ObjectMapper objectMapper;
+
+    private final RepoChangeDispatcher dispatcher;
+    private final RepoChangeProcessor processor;
+    private final RepoStateStore stateStore;
+    private final RetryForwarder retryForwarder;
+    private final PropagationMetrics propagationMetrics;
+
+    @Value("${app.state.rebuild-unknown-partitions:false}")
+    private boolean rebuildUnknownPartitions;
+
     /**
-     * Handles a repository change event.
+     * Handles a batch of repository change events.
+     * A record that cannot be deserialized or processed is forwarded to the retry topics without holding up
+     * the rest of the partition. Only when forwarding itself fails does the batch fail at that record, so the
+     * records before it are committed and the rest are redelivered by the container's error handler.
      *
-     * @param event the repository change event
+     * @param records the batch of records
+     * @param acknowledgment the acknowledgment used to commit the batch
      */
-    @KafkaListener(topics = "${app.kafka.topics.repo-changes}", 
+    @KafkaListener(topics = "${app.kafka.topics.repo-changes}",
                   groupId = "analysis-group",
                   containerFactory = "kafkaListenerContainerFactory")
-    public void handleRepoChange(String event) {
-        try {
-            RepoChangeEvent repoChangeEvent = objectMapper.readValue(event, RepoChangeEvent.class);
+    public void handleRepoChanges(List<ConsumerRecord<String, RepoChangeEvent>> records, Acknowledgment acknowledgment) {
+        Instant receivedAt = Instant.now();
+        BatchResult result = dispatcher.dispatch(records, record -> processOrForward(record, receivedAt));
+        if (result.failed()) {
+            stateStore.markProcessed(records.subList(0, result.failedIndex()));
+            ConsumerRecord<String, RepoChangeEvent> failed = records.get(result.failedIndex());
+            log.warn("{} Batch of {} records failed at {}-{}@{}",
+                    LOG_PREFIX, records.size(), failed.topic(), failed.partition(), failed.offset());
+            throw new BatchListenerFailedException("Failed to process record", result.cause(), result.failedIndex());
+        }
+        stateStore.markProcessed(records);
+        acknowledgment.acknowledge();
+    }
 
-            log.info("{} Received change event at:[{}] for repository {}: {}",
-                    LOG_PREFIX, repoChangeEvent.getTimestamp(), repoChangeEvent.getRepoId(), repoChangeEvent.getChanges());
+    /**
+     * Processes a record, forwarding it to the next retry tier if it fails.
+     */
+    private void processOrForward(ConsumerRecord<String, RepoChangeEvent> record, Instant receivedAt) {
+        try {
+            processor.process(record);
+            propagationMetrics.record(record, receivedAt);
         } catch (Exception e) {
-            log.error("{} Error deserializing event: {}", LOG_PREFIX, event, e);
+            retryForwarder.forward(record, e);
+        }
+    }
+
+    /**
+     * Positions newly assigned partitions at the offsets recorded in the state store.
+     * Partitions the store has never seen keep the committed group offset, so a rebalance does not replay their
+     * whole history, unless {@code app.state.rebuild-unknown-partitions} asks to read them from the beginning.
+     *
+     * @param assignments the assigned partitions and their current offsets
+     * @param callback the callback used to seek
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        int resumed = 0;
+        for (TopicPartition partition : assignments.keySet()) {
+            Optional<Long> offset = stateStore.resumeOffset(partition);
+            if (offset.isPresent()) {
+                callback.seek(partition.topic(), partition.partition(), offset.get());
+                resumed++;
+            } else if (rebuildUnknownPartitions) {
+                callback.seekToBeginning(partition.topic(), partition.partition());
+            }
         }
+        log.info("{} Resuming {} of {} assigned partitions from the state store offsets, the others from {}",
+                LOG_PREFIX, resumed, assignments.size(), rebuildUnknownPartitions ? "the beginning" : "the group offsets");
     }
-} 
\ No newline at end of file
+}
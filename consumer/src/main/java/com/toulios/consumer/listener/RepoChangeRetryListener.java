@@ -0,0 +1,89 @@
+package com.toulios.consumer.listener;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.retry.RetryForwarder;
+import com.toulios.consumer.retry.RetryHeaders;
+import com.toulios.consumer.retry.RetryTier;
+import com.toulios.consumer.service.RepoChangeProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Listener class re-processing repository change events from the retry topics.
+ * Every tier has its own container, so a record waiting for its retry time pauses only that tier.
+ * Records are consumed one at a time; a record that is not due yet is negatively acknowledged with the
+ * remaining delay, which pauses the container and redelivers it once it is due.
+ */
+@Slf4j
+@Component
+public class RepoChangeRetryListener {
+    private static final String LOG_PREFIX = "[RepoChangeRetryListener]";
+
+    private final RepoChangeProcessor processor;
+    private final RetryForwarder retryForwarder;
+    private final Map<RetryTier, Counter> recovered = new EnumMap<>(RetryTier.class);
+
+    public RepoChangeRetryListener(RepoChangeProcessor processor, RetryForwarder retryForwarder, MeterRegistry meterRegistry) {
+        this.processor = processor;
+        this.retryForwarder = retryForwarder;
+        for (RetryTier tier : new RetryTier[]{RetryTier.RETRY_1M, RetryTier.RETRY_10M}) {
+            recovered.put(tier, Counter.builder("repo_changes.retry.recovered")
+                    .description("Records processed successfully from a retry topic")
+                    .tag("tier", tier.getSuffix())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Handles records of the first retry tier.
+     *
+     * @param record the record
+     * @param acknowledgment the acknowledgment used to commit or delay the record
+     */
+    @KafkaListener(topics = "${app.kafka.topics.repo-changes}-retry-1m",
+                  groupId = "analysis-group-retry",
+                  containerFactory = "retryListenerContainerFactory")
+    public void handleFirstRetry(ConsumerRecord<String, RepoChangeEvent> record, Acknowledgment acknowledgment) {
+        retry(RetryTier.RETRY_1M, record, acknowledgment);
+    }
+
+    /**
+     * Handles records of the second retry tier.
+     *
+     * @param record the record
+     * @param acknowledgment the acknowledgment used to commit or delay the record
+     */
+    @KafkaListener(topics = "${app.kafka.topics.repo-changes}-retry-10m",
+                  groupId = "analysis-group-retry",
+                  containerFactory = "retryListenerContainerFactory")
+    public void handleSecondRetry(ConsumerRecord<String, RepoChangeEvent> record, Acknowledgment acknowledgment) {
+        retry(RetryTier.RETRY_10M, record, acknowledgment);
+    }
+
+    private void retry(RetryTier tier, ConsumerRecord<String, RepoChangeEvent> record, Acknowledgment acknowledgment) {
+        long remaining = RetryHeaders.getLong(record.headers(), RetryHeaders.DUE_AT, 0) - System.currentTimeMillis();
+        if (remaining > 0) {
+            acknowledgment.nack(Duration.ofMillis(remaining));
+            return;
+        }
+
+        try {
+            processor.process(record);
+            recovered.get(tier).increment();
+            log.info("{} Recovered record {}-{}@{} after {} attempts", LOG_PREFIX, record.topic(), record.partition(),
+                    record.offset(), RetryHeaders.get(record.headers(), RetryHeaders.ATTEMPTS));
+        } catch (Exception e) {
+            retryForwarder.forward(record, e);
+        }
+        acknowledgment.acknowledge();
+    }
+}
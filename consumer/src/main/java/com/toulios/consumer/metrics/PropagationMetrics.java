@@ -0,0 +1,80 @@
+package com.toulios.consumer.metrics;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Records how long a repository change took to propagate through each stage of the pipeline:
+ * GitHub fetch, database persist, producer send, broker append and consume.
+ * Every stage is published as a histogram timer tagged with the stage name.
+ * The broker stages are only recorded when the topic stamps records with the log append time.
+ */
+@Component
+public class PropagationMetrics {
+
+    static final String METRIC_NAME = "repo_changes.propagation";
+
+    private final Timer fetchToPersist;
+    private final Timer persistToSend;
+    private final Timer sendToBroker;
+    private final Timer brokerToConsume;
+    private final Timer sendToConsume;
+    private final Timer endToEnd;
+
+    public PropagationMetrics(MeterRegistry meterRegistry) {
+        this.fetchToPersist = timer(meterRegistry, "fetch_to_persist");
+        this.persistToSend = timer(meterRegistry, "persist_to_send");
+        this.sendToBroker = timer(meterRegistry, "send_to_broker");
+        this.brokerToConsume = timer(meterRegistry, "broker_to_consume");
+        this.sendToConsume = timer(meterRegistry, "send_to_consume");
+        this.endToEnd = timer(meterRegistry, "end_to_end");
+    }
+
+    /**
+     * Records the stage latencies of a consumed change.
+     *
+     * @param record the consumed record
+     * @param consumedAt when the record was received by the listener
+     */
+    public void record(ConsumerRecord<?, RepoChangeEvent> record, Instant consumedAt) {
+        RepoChangeEvent event = record.value();
+        if (event == null) {
+            return;
+        }
+        record(fetchToPersist, event.getFetchedAt(), event.getPersistedAt());
+        record(persistToSend, event.getPersistedAt(), event.getSentAt());
+        record(sendToConsume, event.getSentAt(), consumedAt);
+        record(endToEnd, event.getFetchedAt(), consumedAt);
+        if (record.timestampType() == TimestampType.LOG_APPEND_TIME) {
+            Instant appendedAt = Instant.ofEpochMilli(record.timestamp());
+            record(sendToBroker, event.getSentAt(), appendedAt);
+            record(brokerToConsume, appendedAt, consumedAt);
+        }
+    }
+
+    /**
+     * Stages with a missing timestamp (e.g. changes made through the API are never fetched) are skipped.
+     */
+    private static void record(Timer timer, Instant from, Instant to) {
+        if (from != null && to != null) {
+            timer.record(Duration.between(from, to));
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder(METRIC_NAME)
+                .description("Time a repository change took to propagate through a pipeline stage")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+    }
+}
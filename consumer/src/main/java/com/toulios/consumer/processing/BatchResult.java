@@ -0,0 +1,20 @@
+package com.toulios.consumer.processing;
+
+/**
+ * Outcome of processing a batch of records.
+ *
+ * @param failedIndex index of the first record in batch order that was not processed, or -1 if all succeeded
+ * @param cause the failure of that record, or null if all succeeded
+ */
+public record BatchResult(int failedIndex, Exception cause) {
+
+    private static final BatchResult SUCCESS = new BatchResult(-1, null);
+
+    public static BatchResult success() {
+        return SUCCESS;
+    }
+
+    public boolean failed() {
+        return failedIndex >= 0;
+    }
+}
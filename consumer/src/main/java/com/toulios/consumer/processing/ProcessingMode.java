@@ -0,0 +1,18 @@
+package com.toulios.consumer.processing;
+
+/**
+ * Enum representing how the records of a batch are processed.
+ */
+public enum ProcessingMode {
+    /**
+     * Records are processed one after the other on the listener thread, so parallelism is capped
+     * at one thread per assigned partition.
+     */
+    PARTITION,
+
+    /**
+     * Records are dispatched to a pool of workers by key hash. Records with the same key keep their order,
+     * while the records of a single partition are spread over all workers.
+     */
+    KEY_ORDERED
+}
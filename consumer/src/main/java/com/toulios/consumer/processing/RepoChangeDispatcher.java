@@ -0,0 +1,128 @@
+package com.toulios.consumer.processing;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches the records of a batch to their handler according to the configured {@link ProcessingMode}.
+ * In {@link ProcessingMode#KEY_ORDERED} mode every record is routed to one of a fixed number of
+ * single-threaded worker lanes by the hash of its key. Records sharing a key always land on the same lane,
+ * which keeps per-repository ordering while a single partition is processed on many cores.
+ * The dispatcher waits for the whole batch, so offsets are never committed past an unprocessed record.
+ */
+@Slf4j
+@Component
+public class RepoChangeDispatcher {
+    private static final String LOG_PREFIX = "[RepoChangeDispatcher]";
+
+    private final ProcessingMode mode;
+    private final ExecutorService[] lanes;
+
+    public RepoChangeDispatcher(@Value("${app.kafka.listener.processing-mode:PARTITION}") ProcessingMode mode,
+                                @Value("${app.kafka.listener.workers:8}") int workers) {
+        this.mode = mode;
+        this.lanes = mode == ProcessingMode.KEY_ORDERED ? createLanes(workers) : new ExecutorService[0];
+        log.info("{} Processing records in {} mode with {} worker lanes", LOG_PREFIX, mode, lanes.length);
+    }
+
+    /**
+     * Processes a batch of records.
+     * When a record fails, the records that follow it with the same key are skipped so they are redelivered
+     * in order together with the failed one.
+     *
+     * @param records the batch, in the order the records were polled
+     * @param handler the handler processing a single record
+     * @return the outcome of the batch
+     */
+    public <K, V> BatchResult dispatch(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        return mode == ProcessingMode.KEY_ORDERED
+                ? dispatchByKey(records, handler)
+                : dispatchSequentially(records, handler);
+    }
+
+    private <K, V> BatchResult dispatchSequentially(List<ConsumerRecord<K, V>> records,
+                                                    Consumer<ConsumerRecord<K, V>> handler) {
+        for (int index = 0; index < records.size(); index++) {
+            try {
+                handler.accept(records.get(index));
+            } catch (Exception e) {
+                return new BatchResult(index, e);
+            }
+        }
+        return BatchResult.success();
+    }
+
+    private <K, V> BatchResult dispatchByKey(List<ConsumerRecord<K, V>> records,
+                                             Consumer<ConsumerRecord<K, V>> handler) {
+        AtomicReferenceArray<Exception> failures = new AtomicReferenceArray<>(records.size());
+        Set<Object> failedKeys = ConcurrentHashMap.newKeySet();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[records.size()];
+
+        for (int index = 0; index < records.size(); index++) {
+            int recordIndex = index;
+            ConsumerRecord<K, V> record = records.get(index);
+            Object key = laneKey(record);
+            futures[index] = CompletableFuture.runAsync(() -> {
+                if (failedKeys.contains(key)) {
+                    failures.set(recordIndex, new IllegalStateException("Skipped after an earlier failure of key " + key));
+                    return;
+                }
+                try {
+                    handler.accept(record);
+                } catch (Exception e) {
+                    failedKeys.add(key);
+                    failures.set(recordIndex, e);
+                }
+            }, lanes[Math.floorMod(key.hashCode(), lanes.length)]);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        for (int index = 0; index < records.size(); index++) {
+            if (failures.get(index) != null) {
+                return new BatchResult(index, failures.get(index));
+            }
+        }
+        return BatchResult.success();
+    }
+
+    /**
+     * Records are produced with the repository id as key; records without a key keep their partition order.
+     */
+    private static Object laneKey(ConsumerRecord<?, ?> record) {
+        return Objects.requireNonNullElseGet(record.key(), () -> record.topic() + "-" + record.partition());
+    }
+
+    private static ExecutorService[] createLanes(int workers) {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService[] lanes = new ExecutorService[Math.max(1, workers)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "repo-change-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return lanes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
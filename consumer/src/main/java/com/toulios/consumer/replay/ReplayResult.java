@@ -0,0 +1,21 @@
+package com.toulios.consumer.replay;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a topic replay.
+ *
+ * @param records the number of records replayed
+ * @param elapsed the time the replay took
+ */
+public record ReplayResult(long records, Duration elapsed) {
+
+    /**
+     * Returns the average replay rate.
+     *
+     * @return records per second
+     */
+    public double recordsPerSecond() {
+        return elapsed.isZero() ? records : records * 1_000.0 / Math.max(1, elapsed.toMillis());
+    }
+}
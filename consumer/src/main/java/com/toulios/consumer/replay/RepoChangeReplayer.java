@@ -0,0 +1,266 @@
+package com.toulios.consumer.replay;
+
+import com.toulios.consumer.aggregation.WindowedAggregator;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.RepoStateCheckpointer;
+import com.toulios.consumer.state.RepoStateStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rebuilds the derived state (state store and windowed aggregates) from the full history of the change topic.
+ * <p>
+ * Every partition is read from the beginning up to its end offset at the start of the replay by a dedicated
+ * consumer that is assigned the partition directly, without joining the consumer group, and fetches in large
+ * batches. Partitions are replayed in parallel and each poll is applied to the derived state in bulk, skipping
+ * per-record processing and logging. Progress is logged with the current rate and an ETA. While the replay runs,
+ * the aggregation watermark trails the partition that is furthest behind in event time, so partitions replayed
+ * faster than the others do not close the windows the others are still filling.
+ * <p>
+ * With {@code app.replay.enabled} the replay runs on startup while the listener containers stay stopped.
+ * Once it completes, the state is checkpointed and the listeners are started; they resume from the offsets
+ * the replay reached. Checkpoints are suspended while the replay runs. A failed replay is retried up to
+ * {@code app.replay.max-attempts} times; if every attempt fails, the application is shut down without starting the
+ * listeners and without checkpointing, since the state is incomplete and the last snapshot must be kept.
+ */
+@Slf4j
+@Component
+public class RepoChangeReplayer {
+    private static final String LOG_PREFIX = "[RepoChangeReplayer]";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, RepoChangeEvent> consumerFactory;
+    private final RepoStateStore stateStore;
+    private final WindowedAggregator aggregator;
+    private final RepoStateCheckpointer checkpointer;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.kafka.topics.repo-changes}")
+    private String topic;
+
+    @Value("${app.replay.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.replay.threads:8}")
+    private int threads;
+
+    @Value("${app.replay.max-poll-records:10000}")
+    private int maxPollRecords;
+
+    @Value("${app.replay.max-partition-fetch-bytes:16777216}")
+    private int maxPartitionFetchBytes;
+
+    @Value("${app.replay.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    @Value("${app.replay.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.replay.retry-backoff-ms:10000}")
+    private long retryBackoffMs;
+
+    public RepoChangeReplayer(ConsumerFactory<String, RepoChangeEvent> repoChangeConsumerFactory,
+                              RepoStateStore stateStore,
+                              WindowedAggregator aggregator,
+                              RepoStateCheckpointer checkpointer,
+                              KafkaListenerEndpointRegistry listenerRegistry,
+                              ConfigurableApplicationContext applicationContext) {
+        this.consumerFactory = repoChangeConsumerFactory;
+        this.stateStore = stateStore;
+        this.aggregator = aggregator;
+        this.checkpointer = checkpointer;
+        this.listenerRegistry = listenerRegistry;
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Runs the replay in the background on startup when replay mode is enabled, then starts the listeners.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::replayAndStartListeners, "repo-change-replay");
+        thread.start();
+    }
+
+    /**
+     * Replays the topic, retrying failed attempts, and starts the listeners once a replay succeeds.
+     * If every attempt fails, the application is shut down instead.
+     */
+    void replayAndStartListeners() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                replay();
+                break;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts || e instanceof InterruptedException) {
+                    log.error("{} Replay failed after {} attempts, shutting down without starting the listeners",
+                            LOG_PREFIX, attempt, e);
+                    SpringApplication.exit(applicationContext, () -> 1);
+                    return;
+                }
+                log.warn("{} Replay attempt {} of {} failed, retrying in {} ms",
+                        LOG_PREFIX, attempt, maxAttempts, retryBackoffMs, e);
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    SpringApplication.exit(applicationContext, () -> 1);
+                    return;
+                }
+            }
+        }
+        listenerRegistry.start();
+        log.info("{} Listener containers started", LOG_PREFIX);
+    }
+
+    /**
+     * Clears the derived state and rebuilds it from the beginning of every partition of the change topic.
+     * The listener containers must not be running while the replay is in progress. Checkpoints are suspended from
+     * the start of the replay and only resumed once it succeeds.
+     *
+     * @return the outcome of the replay
+     * @throws InterruptedException if interrupted while waiting for the partitions
+     */
+    public synchronized ReplayResult replay() throws InterruptedException {
+        long start = System.nanoTime();
+        checkpointer.suspend();
+        List<TopicPartition> partitions;
+        Map<TopicPartition, Long> beginningOffsets;
+        Map<TopicPartition, Long> endOffsets;
+        try (Consumer<String, RepoChangeEvent> consumer = createConsumer("meta")) {
+            partitions = consumer.partitionsFor(topic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            beginningOffsets = consumer.beginningOffsets(partitions);
+            endOffsets = consumer.endOffsets(partitions);
+        }
+        long total = partitions.stream().mapToLong(p -> endOffsets.get(p) - beginningOffsets.get(p)).sum();
+        log.info("{} Replaying {} records from {} partitions of {}", LOG_PREFIX, total, partitions.size(), topic);
+
+        stateStore.clear();
+        aggregator.clear();
+        aggregator.beginReplay(partitions.stream()
+                .filter(partition -> endOffsets.get(partition) > beginningOffsets.get(partition))
+                .toList());
+        AtomicLong replayed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, partitions.size())),
+                replayThreadFactory());
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (TopicPartition partition : partitions) {
+                futures.add(CompletableFuture.runAsync(
+                        () -> replayPartition(partition, endOffsets.get(partition), replayed), executor));
+            }
+            CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+            waitWithProgress(all, replayed, total, start);
+        } finally {
+            executor.shutdownNow();
+            aggregator.endReplay();
+        }
+
+        checkpointer.resume();
+        checkpointer.checkpoint();
+        ReplayResult result = new ReplayResult(replayed.get(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("{} Replayed {} records in {} s ({} records/sec), {} repositories in the state store",
+                LOG_PREFIX, result.records(), result.elapsed().toSeconds(),
+                String.format("%.0f", result.recordsPerSecond()), stateStore.size());
+        return result;
+    }
+
+    private void replayPartition(TopicPartition partition, long endOffset, AtomicLong replayed) {
+        try (Consumer<String, RepoChangeEvent> consumer = createConsumer(String.valueOf(partition.partition()))) {
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+            while (consumer.position(partition) < endOffset) {
+                ConsumerRecords<String, RepoChangeEvent> polled = consumer.poll(POLL_TIMEOUT);
+                List<ConsumerRecord<String, RepoChangeEvent>> records = new ArrayList<>(polled.count());
+                for (ConsumerRecord<String, RepoChangeEvent> record : polled.records(partition)) {
+                    if (record.offset() < endOffset) {
+                        records.add(record);
+                    }
+                }
+                if (!records.isEmpty()) {
+                    aggregator.applyRecords(records, stateStore.applyRecords(records));
+                    replayed.addAndGet(records.size());
+                }
+            }
+        }
+        aggregator.partitionReplayed(partition);
+    }
+
+    private void waitWithProgress(CompletableFuture<Void> all, AtomicLong replayed, long total, long start)
+            throws InterruptedException {
+        long lastCount = 0;
+        long lastTime = start;
+        while (true) {
+            try {
+                all.get(progressIntervalMs, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                long now = System.nanoTime();
+                long count = replayed.get();
+                double rate = (count - lastCount) * 1_000_000_000.0 / Math.max(1, now - lastTime);
+                String eta = rate > 0 ? (long) ((total - count) / rate) + " s" : "unknown";
+                log.info("{} Progress: {}/{} records ({}%), {} records/sec, ETA {}", LOG_PREFIX, count, total,
+                        total == 0 ? 100 : count * 100 / total, String.format("%.0f", rate), eta);
+                lastCount = count;
+                lastTime = now;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to replay " + topic, e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Replay consumers are assigned partitions directly and never commit, so they do not affect the group offsets.
+     */
+    private Consumer<String, RepoChangeEvent> createConsumer(String clientIdSuffix) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        overrides.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(maxPartitionFetchBytes));
+        overrides.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, String.valueOf(Math.max(maxPartitionFetchBytes, 52_428_800)));
+        overrides.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, "1048576");
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return consumerFactory.createConsumer(null, "repo-change-replay-", clientIdSuffix, overrides);
+    }
+
+    private static ThreadFactory replayThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "repo-change-replay-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.toulios.consumer.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Forwards records that failed processing to the next {@link RetryTier}.
+ * Records that cannot be deserialized will never succeed and go straight to the dead-letter topic.
+ * Forwarding waits for the broker acknowledgement, so a failed record is never committed before it is parked.
+ */
+@Slf4j
+@Component
+public class RetryForwarder {
+    private static final String LOG_PREFIX = "[RetryForwarder]";
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String mainTopic;
+    private final Map<RetryTier, Duration> delays = new EnumMap<>(RetryTier.class);
+    private final Map<RetryTier, Counter> forwarded = new EnumMap<>(RetryTier.class);
+
+    public RetryForwarder(KafkaTemplate<String, String> kafkaTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.kafka.topics.repo-changes}") String mainTopic,
+                          @Value("${app.kafka.retry.first-delay-ms:60000}") long firstDelayMs,
+                          @Value("${app.kafka.retry.second-delay-ms:600000}") long secondDelayMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.mainTopic = mainTopic;
+        delays.put(RetryTier.RETRY_1M, Duration.ofMillis(firstDelayMs));
+        delays.put(RetryTier.RETRY_10M, Duration.ofMillis(secondDelayMs));
+        delays.put(RetryTier.DLT, Duration.ZERO);
+        for (RetryTier tier : RetryTier.values()) {
+            forwarded.put(tier, Counter.builder("repo_changes.retry.forwarded")
+                    .description("Records forwarded to a retry or dead-letter topic")
+                    .tag("tier", tier.getSuffix())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Forwards a failed record to the tier following the topic it was consumed from.
+     *
+     * @param record the failed record
+     * @param cause the failure
+     * @return the tier the record was forwarded to
+     * @throws KafkaException if the record could not be forwarded
+     */
+    public RetryTier forward(ConsumerRecord<String, RepoChangeEvent> record, Exception cause) {
+        RetryTier tier = cause instanceof DeserializationException
+                ? RetryTier.DLT
+                : RetryTier.next(mainTopic, record.topic());
+
+        RecordHeaders headers = new RecordHeaders(record.headers().toArray());
+        headers.remove(SerializationUtils.KEY_DESERIALIZER_EXCEPTION_HEADER);
+        headers.remove(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER);
+        if (RetryHeaders.get(headers, RetryHeaders.ORIGINAL_TOPIC) == null) {
+            RetryHeaders.set(headers, RetryHeaders.ORIGINAL_TOPIC, record.topic());
+            RetryHeaders.set(headers, RetryHeaders.ORIGINAL_PARTITION, record.partition());
+            RetryHeaders.set(headers, RetryHeaders.ORIGINAL_OFFSET, record.offset());
+        }
+        RetryHeaders.set(headers, RetryHeaders.ATTEMPTS, RetryHeaders.getLong(headers, RetryHeaders.ATTEMPTS, 0) + 1);
+        RetryHeaders.set(headers, RetryHeaders.DUE_AT, System.currentTimeMillis() + delays.get(tier).toMillis());
+        RetryHeaders.set(headers, RetryHeaders.EXCEPTION_CLASS, cause.getClass().getName());
+        RetryHeaders.set(headers, RetryHeaders.EXCEPTION_MESSAGE, cause.getMessage());
+
+        ProducerRecord<String, String> forward = new ProducerRecord<>(
+                tier.topic(mainTopic), null, record.key(), payload(record, cause), headers);
+        try {
+            kafkaTemplate.send(forward).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while forwarding record to " + forward.topic(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Failed to forward record to " + forward.topic(), e);
+        }
+
+        forwarded.get(tier).increment();
+        log.warn("{} Forwarded record {}-{}@{} to {}: {}",
+                LOG_PREFIX, record.topic(), record.partition(), record.offset(), forward.topic(), cause.getMessage());
+        return tier;
+    }
+
+    /**
+     * Returns the record value as sent by the publisher. Undeserializable values are forwarded byte for byte.
+     */
+    private String payload(ConsumerRecord<String, RepoChangeEvent> record, Exception cause) {
+        if (record.value() == null) {
+            byte[] data = cause instanceof DeserializationException deserializationException
+                    ? deserializationException.getData()
+                    : null;
+            return data == null ? null : new String(data, StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsString(record.value());
+        } catch (JsonProcessingException e) {
+            throw new KafkaException("Failed to serialize record value", e);
+        }
+    }
+}
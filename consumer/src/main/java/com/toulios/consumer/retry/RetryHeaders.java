@@ -0,0 +1,69 @@
+package com.toulios.consumer.retry;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Headers attached to records forwarded to a retry or dead-letter topic.
+ */
+public final class RetryHeaders {
+
+    /** Topic the record was originally published to */
+    public static final String ORIGINAL_TOPIC = "x-retry-original-topic";
+    /** Partition the record was originally published to */
+    public static final String ORIGINAL_PARTITION = "x-retry-original-partition";
+    /** Offset of the record in its original partition */
+    public static final String ORIGINAL_OFFSET = "x-retry-original-offset";
+    /** Number of failed processing attempts so far */
+    public static final String ATTEMPTS = "x-retry-attempts";
+    /** Epoch millis before which the record must not be retried */
+    public static final String DUE_AT = "x-retry-due-at";
+    /** Class of the last failure */
+    public static final String EXCEPTION_CLASS = "x-retry-exception-class";
+    /** Message of the last failure */
+    public static final String EXCEPTION_MESSAGE = "x-retry-exception-message";
+
+    private RetryHeaders() {
+    }
+
+    /**
+     * Returns the value of the last header with the given name as a string.
+     *
+     * @param headers the record headers
+     * @param name the header name
+     * @return the header value, or null if absent
+     */
+    public static String get(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the value of the last header with the given name as a long.
+     *
+     * @param headers the record headers
+     * @param name the header name
+     * @param defaultValue the value returned when the header is absent
+     * @return the header value
+     */
+    public static long getLong(Headers headers, String name, long defaultValue) {
+        String value = get(headers, name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Replaces the header with the given name.
+     *
+     * @param headers the record headers
+     * @param name the header name
+     * @param value the new value
+     */
+    public static void set(Headers headers, String name, Object value) {
+        headers.remove(name);
+        if (value != null) {
+            headers.add(name, String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.toulios.consumer.retry;
+
+/**
+ * Tiers a failed repository change record goes through before it is parked in the dead-letter topic.
+ * Each tier is a separate topic suffixed to the main topic, so waiting records never block the main partitions.
+ */
+public enum RetryTier {
+    RETRY_1M("retry-1m"),
+    RETRY_10M("retry-10m"),
+    DLT("dlt");
+
+    private final String suffix;
+
+    RetryTier(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Returns the topic of this tier for the given main topic.
+     *
+     * @param mainTopic the main topic
+     * @return the tier topic
+     */
+    public String topic(String mainTopic) {
+        return mainTopic + "-" + suffix;
+    }
+
+    /**
+     * Returns the tier a record goes to when it fails while consumed from the given topic.
+     *
+     * @param mainTopic the main topic
+     * @param topic the topic the record was consumed from
+     * @return the next tier
+     */
+    public static RetryTier next(String mainTopic, String topic) {
+        if (topic.equals(RETRY_1M.topic(mainTopic))) {
+            return RETRY_10M;
+        }
+        if (topic.equals(RETRY_10M.topic(mainTopic)) || topic.equals(DLT.topic(mainTopic))) {
+            return DLT;
+        }
+        return RETRY_1M;
+    }
+}
@@ -0,0 +1,117 @@
+package com.toulios.consumer.service;
+
+import com.toulios.consumer.retry.RetryHeaders;
+import com.toulios.consumer.retry.RetryTier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service class replaying the records parked in the dead-letter topic back onto the main topic.
+ * A replay reads the dead-letter partitions up to their end offsets at the time of the call and commits
+ * its position, so every parked record is replayed exactly once per call.
+ */
+@Slf4j
+@Service
+public class DeadLetterReplayService {
+    private static final String LOG_PREFIX = "[DeadLetterReplayService]";
+    private static final String REPLAY_GROUP_ID = "analysis-group-dlt-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    private final ConsumerFactory<String, String> deadLetterConsumerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String mainTopic;
+    private final Counter replayed;
+
+    public DeadLetterReplayService(ConsumerFactory<String, String> deadLetterConsumerFactory,
+                                   KafkaTemplate<String, String> kafkaTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.kafka.topics.repo-changes}") String mainTopic) {
+        this.deadLetterConsumerFactory = deadLetterConsumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.mainTopic = mainTopic;
+        this.replayed = Counter.builder("repo_changes.dlt.replayed")
+                .description("Dead-letter records replayed onto the main topic")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replays every record currently in the dead-letter topic onto the main topic.
+     * Retry headers are dropped so replayed records go through the full retry tiers again.
+     *
+     * @return the number of replayed records
+     */
+    public synchronized int replay() {
+        String deadLetterTopic = RetryTier.DLT.topic(mainTopic);
+        int count = 0;
+        try (Consumer<String, String> consumer = deadLetterConsumerFactory.createConsumer(REPLAY_GROUP_ID, null)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                consumer.seek(partition, offset == null ? 0 : offset.offset());
+            }
+
+            while (!caughtUp(consumer, endOffsets)) {
+                Map<TopicPartition, OffsetAndMetadata> positions = new HashMap<>();
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(mainTopic, record.key(), record.value())));
+                    positions.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    count++;
+                    log.info("{} Replaying record {}-{}@{} originally at {}-{}@{}", LOG_PREFIX,
+                            record.topic(), record.partition(), record.offset(),
+                            RetryHeaders.get(record.headers(), RetryHeaders.ORIGINAL_TOPIC),
+                            RetryHeaders.get(record.headers(), RetryHeaders.ORIGINAL_PARTITION),
+                            RetryHeaders.get(record.headers(), RetryHeaders.ORIGINAL_OFFSET));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                replayed.increment(sends.size());
+                if (!positions.isEmpty()) {
+                    consumer.commitSync(positions);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while replaying dead-letter records", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Failed to replay dead-letter records", e);
+        }
+        log.info("{} Replayed {} records from {}", LOG_PREFIX, count, deadLetterTopic);
+        return count;
+    }
+
+    private static boolean caughtUp(Consumer<String, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream().allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+    }
+}
@@ -0,0 +1,60 @@
+package com.toulios.consumer.service;
+
+import com.toulios.consumer.aggregation.WindowedAggregator;
+import com.toulios.consumer.dedup.EventDeduplicator;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.RepoStateStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service class processing a single repository change record.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RepoChangeProcessor {
+    private static final String LOG_PREFIX = "[RepoChangeProcessor]";
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(RepoChangeProcessor.class);
+
+    private final RepoStateStore stateStore;
+    private final EventDeduplicator deduplicator;
+    private final WindowedAggregator aggregator;
+
+    /**
+     * Processes a repository change record, applying it to the materialized repository state
+     * and the windowed aggregates. Events the state store ignores as older than the current state are not
+     * aggregated.
+     * Events that were already processed are skipped.
+     *
+     * @param record the record to process
+     * @throws DeserializationException if the record value could not be deserialized
+     */
+    public void process(ConsumerRecord<String, RepoChangeEvent> record) {
+        RepoChangeEvent event = record.value();
+        if (event == null) {
+            DeserializationException exception = SerializationUtils.getExceptionFromHeader(
+                    record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+            log.error("{} Error deserializing event at {}-{}@{}",
+                    LOG_PREFIX, record.topic(), record.partition(), record.offset(), exception);
+            throw exception != null ? exception : new DeserializationException("Record has no value", null, false, null);
+        }
+
+        long identity = EventDeduplicator.identity(event);
+        if (deduplicator.isDuplicate(identity)) {
+            log.debug("{} Skipping duplicate change event for repository {} at {}-{}@{}",
+                    LOG_PREFIX, event.getRepoId(), record.topic(), record.partition(), record.offset());
+            return;
+        }
+
+        log.info("{} Received change event at:[{}] for repository {}: {}",
+                LOG_PREFIX, event.getTimestamp(), event.getRepoId(), event.getChanges());
+        stateStore.apply(event).ifPresent(change -> aggregator.apply(change, record.timestamp()));
+        deduplicator.markProcessed(identity);
+    }
+}
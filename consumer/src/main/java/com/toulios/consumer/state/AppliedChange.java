@@ -0,0 +1,14 @@
+package com.toulios.consumer.state;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+
+/**
+ * A change event applied to the {@link RepoStateStore}, with the state of its repository before the event.
+ * Consumers derive the effect of the event from the previous state rather than from the previous values the event
+ * carries, so an event applied twice has no effect the second time.
+ *
+ * @param event the applied event
+ * @param previous the state of the repository before the event, or null if the repository was unknown
+ */
+public record AppliedChange(RepoChangeEvent event, RepoState previous) {
+}
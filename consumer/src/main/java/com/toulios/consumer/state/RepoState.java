@@ -0,0 +1,25 @@
+package com.toulios.consumer.state;
+
+import java.time.Instant;
+
+/**
+ * Latest known state of a repository, as materialized from its change events.
+ *
+ * @param repoId the repository id
+ * @param owner the repository owner
+ * @param name the repository name
+ * @param licence the repository licence
+ * @param stars the number of stars
+ * @param openIssues the number of open issues
+ * @param status the repository status
+ * @param updatedAt the instant the publisher persisted the last applied change
+ */
+public record RepoState(long repoId,
+                        String owner,
+                        String name,
+                        String licence,
+                        Integer stars,
+                        Integer openIssues,
+                        String status,
+                        Instant updatedAt) {
+}
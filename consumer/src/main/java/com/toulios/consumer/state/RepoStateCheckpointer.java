@@ -0,0 +1,106 @@
+package com.toulios.consumer.state;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Periodically checkpoints the {@link RepoStateStore} to a snapshot file and restores it on startup.
+ * The snapshot holds the partition offsets it is consistent with, so after a restart the listener
+ * only replays the records published since the last checkpoint.
+ * <p>
+ * Checkpoints are suspended while the state is rebuilt by a replay, so the last complete snapshot is never replaced
+ * by a partial one.
+ */
+@Slf4j
+@Component
+public class RepoStateCheckpointer {
+    private static final String LOG_PREFIX = "[RepoStateCheckpointer]";
+
+    private final RepoStateStore store;
+    private final Path snapshotPath;
+    private long checkpointedModifications = -1;
+    private boolean suspended;
+
+    public RepoStateCheckpointer(RepoStateStore store,
+                                 @Value("${app.state.snapshot-path:data/repo-state.snapshot}") Path snapshotPath) {
+        this.store = store;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Restores the store from the last snapshot, if any.
+     * An unreadable snapshot is ignored and the state is rebuilt from the beginning of the topic.
+     */
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(snapshotPath)) {
+            log.info("{} No snapshot found at {}, state will be rebuilt from the topic", LOG_PREFIX, snapshotPath);
+            return;
+        }
+        try {
+            RepoStateColumns columns = RepoStateSnapshot.read(snapshotPath);
+            store.restore(columns);
+            checkpointedModifications = store.modifications();
+            log.info("{} Restored {} repositories and {} partition offsets from {}",
+                    LOG_PREFIX, columns.size(), columns.offsets().size(), snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            log.error("{} Error reading snapshot {}, state will be rebuilt from the topic", LOG_PREFIX, snapshotPath, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the store if it changed since the last checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${app.state.checkpoint-interval-ms:60000}",
+               initialDelayString = "${app.state.checkpoint-interval-ms:60000}")
+    public synchronized void checkpoint() {
+        if (suspended) {
+            log.debug("{} Checkpoints are suspended, skipping", LOG_PREFIX);
+            return;
+        }
+        long modifications = store.modifications();
+        if (modifications == checkpointedModifications) {
+            return;
+        }
+        RepoStateColumns columns = store.copy();
+        try {
+            long start = System.nanoTime();
+            RepoStateSnapshot.write(snapshotPath, columns);
+            checkpointedModifications = modifications;
+            log.debug("{} Checkpointed {} repositories to {} in {} ms",
+                    LOG_PREFIX, columns.size(), snapshotPath, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("{} Error writing snapshot {}", LOG_PREFIX, snapshotPath, e);
+        }
+    }
+
+    /**
+     * Suspends checkpoints until {@link #resume()} is called. Waits for a checkpoint in progress to complete.
+     */
+    public synchronized void suspend() {
+        suspended = true;
+    }
+
+    /**
+     * Resumes checkpoints suspended by {@link #suspend()}.
+     */
+    public synchronized void resume() {
+        suspended = false;
+    }
+
+    /**
+     * Writes a final snapshot on shutdown so a restart replays as little as possible.
+     */
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+}
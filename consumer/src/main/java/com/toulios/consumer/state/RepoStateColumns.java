@@ -0,0 +1,21 @@
+package com.toulios.consumer.state;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the state store contents, used to write and load snapshots.
+ * Only the first {@code size} entries of every array are used.
+ */
+record RepoStateColumns(int size,
+                        long[] repoIds,
+                        int[] stars,
+                        int[] openIssues,
+                        long[] updatedAt,
+                        String[] owners,
+                        String[] names,
+                        String[] licences,
+                        String[] statuses,
+                        Map<TopicPartition, Long> offsets) {
+}
@@ -0,0 +1,176 @@
+package com.toulios.consumer.state;
+
+import org.apache.kafka.common.TopicPartition;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes state store snapshots as memory-mapped files.
+ * <p>
+ * Layout: a header (magic, version, entry count, partition count), the partition offsets the snapshot
+ * is consistent with, then every primitive column as a contiguous block followed by the string columns.
+ * Strings are stored as a length-prefixed UTF-8 sequence, with -1 marking a null value.
+ * Snapshots are written to a temporary file and atomically moved into place, so a crash never
+ * leaves a partially written snapshot behind.
+ */
+final class RepoStateSnapshot {
+
+    private static final int MAGIC = 0x52535331; // "RSS1"
+    // version 2 stores updatedAt as the persisted instant instead of the zone-less timestamp read as UTC
+    private static final int VERSION = 2;
+    private static final int NULL_STRING = -1;
+
+    private RepoStateSnapshot() {
+    }
+
+    /**
+     * Writes the store contents to the given path.
+     *
+     * @param path the snapshot file
+     * @param columns the contents to write
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(Path path, RepoStateColumns columns) throws IOException {
+        int size = columns.size();
+        long length = 4L * Integer.BYTES;
+        for (TopicPartition partition : columns.offsets().keySet()) {
+            length += stringLength(partition.topic()) + Integer.BYTES + Long.BYTES;
+        }
+        length += (long) size * (Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES);
+        for (int i = 0; i < size; i++) {
+            length += stringLength(columns.owners()[i]) + stringLength(columns.names()[i])
+                    + stringLength(columns.licences()[i]) + stringLength(columns.statuses()[i]);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(columns.offsets().size());
+            for (Map.Entry<TopicPartition, Long> offset : columns.offsets().entrySet()) {
+                putString(buffer, offset.getKey().topic());
+                buffer.putInt(offset.getKey().partition()).putLong(offset.getValue());
+            }
+            buffer.asLongBuffer().put(columns.repoIds(), 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            buffer.asIntBuffer().put(columns.stars(), 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asIntBuffer().put(columns.openIssues(), 0, size);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            buffer.asLongBuffer().put(columns.updatedAt(), 0, size);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            for (int i = 0; i < size; i++) {
+                putString(buffer, columns.owners()[i]);
+                putString(buffer, columns.names()[i]);
+                putString(buffer, columns.licences()[i]);
+                putString(buffer, columns.statuses()[i]);
+            }
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot from the given path.
+     *
+     * @param path the snapshot file
+     * @return the snapshot contents
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static RepoStateColumns read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a repository state snapshot: " + path);
+            }
+            int size = buffer.getInt();
+            int partitions = buffer.getInt();
+
+            Map<TopicPartition, Long> offsets = new HashMap<>();
+            for (int i = 0; i < partitions; i++) {
+                String topic = getString(buffer);
+                offsets.put(new TopicPartition(topic, buffer.getInt()), buffer.getLong());
+            }
+
+            long[] repoIds = new long[size];
+            buffer.asLongBuffer().get(repoIds);
+            buffer.position(buffer.position() + size * Long.BYTES);
+            int[] stars = new int[size];
+            buffer.asIntBuffer().get(stars);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            int[] openIssues = new int[size];
+            buffer.asIntBuffer().get(openIssues);
+            buffer.position(buffer.position() + size * Integer.BYTES);
+            long[] updatedAt = new long[size];
+            buffer.asLongBuffer().get(updatedAt);
+            buffer.position(buffer.position() + size * Long.BYTES);
+
+            String[] owners = new String[size];
+            String[] names = new String[size];
+            String[] licences = new String[size];
+            String[] statuses = new String[size];
+            for (int i = 0; i < size; i++) {
+                owners[i] = getString(buffer);
+                names[i] = getString(buffer);
+                licences[i] = getString(buffer);
+                statuses[i] = getString(buffer);
+            }
+            return new RepoStateColumns(size, repoIds, stars, openIssues, updatedAt, owners, names, licences, statuses, offsets);
+        }
+    }
+
+    private static long stringLength(String value) {
+        return Integer.BYTES + (value == null ? 0 : utf8Length(value));
+    }
+
+    private static void putString(MappedByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Computes the UTF-8 encoded length of a string without encoding it.
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,320 @@
+package com.toulios.consumer.state;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import org.agrona.collections.Long2LongHashMap;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory materialized view of the latest state of every repository seen in the change stream.
+ * Entries are stored column-wise in primitive arrays, indexed by a primitive repository id to slot map,
+ * so millions of repositories fit in a compact, garbage-free structure.
+ * The store also tracks, per partition, the offset up to which all records have been applied.
+ */
+@Component
+public class RepoStateStore {
+
+    /** Sentinel for a missing integer value */
+    static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long MISSING_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Long2LongHashMap slots = new Long2LongHashMap(MISSING_SLOT);
+    private final Map<TopicPartition, Long> offsets = new HashMap<>();
+
+    private long modifications;
+    private int size;
+    private long[] repoIds = new long[INITIAL_CAPACITY];
+    private int[] stars = new int[INITIAL_CAPACITY];
+    private int[] openIssues = new int[INITIAL_CAPACITY];
+    private long[] updatedAt = new long[INITIAL_CAPACITY];
+    private String[] owners = new String[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] licences = new String[INITIAL_CAPACITY];
+    private String[] statuses = new String[INITIAL_CAPACITY];
+
+    /**
+     * Applies a change event to the state of its repository.
+     * Events carry the full state after the change, so every field is replaced, and a field cleared upstream,
+     * such as a removed licence, is cleared here as well. Only an event without any timestamp keeps the current one.
+     *
+     * @param event the change event
+     * @return the applied change, or empty if the event has no repository id or is older than the current state
+     */
+    public Optional<AppliedChange> apply(RepoChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            return Optional.ofNullable(applyUnlocked(event));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the values of a list of records and records them as processed under a single lock acquisition.
+     * Used to rebuild the store in bulk; records without a value are skipped.
+     *
+     * @param records the records, in partition order
+     * @return the applied change of every record, in the same order, null for the records that were not applied
+     */
+    public List<AppliedChange> applyRecords(List<? extends ConsumerRecord<?, RepoChangeEvent>> records) {
+        lock.writeLock().lock();
+        try {
+            List<AppliedChange> changes = new ArrayList<>(records.size());
+            for (ConsumerRecord<?, RepoChangeEvent> record : records) {
+                changes.add(record.value() != null ? applyUnlocked(record.value()) : null);
+                offsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max);
+            }
+            modifications++;
+            return changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every repository and partition offset, e.g. before rebuilding the store from the beginning of the topic.
+     */
+    public void clear() {
+        restore(new RepoStateColumns(0, new long[0], new int[0], new int[0], new long[0],
+                new String[0], new String[0], new String[0], new String[0], Map.of()));
+    }
+
+    /**
+     * Records that every record of a batch has been applied, moving the partition offsets past them.
+     *
+     * @param records the processed records
+     */
+    public void markProcessed(List<? extends ConsumerRecord<?, ?>> records) {
+        lock.writeLock().lock();
+        try {
+            for (ConsumerRecord<?, ?> record : records) {
+                offsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset() + 1, Math::max);
+            }
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the next offset to read for a partition so that no applied change is missed,
+     * or empty if the store has never seen the partition.
+     *
+     * @param partition the partition
+     * @return the offset to resume from
+     */
+    public Optional<Long> resumeOffset(TopicPartition partition) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(offsets.get(partition));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the latest state of a repository.
+     *
+     * @param repoId the repository id
+     * @return the state, or empty if no event was seen for the repository
+     */
+    public Optional<RepoState> get(long repoId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(stateUnlocked(repoId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of repositories in the store.
+     *
+     * @return the number of repositories
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a counter that changes whenever the store is modified, used to skip unnecessary checkpoints.
+     *
+     * @return the modification counter
+     */
+    long modifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the store contents so they can be written without holding the lock.
+     *
+     * @return the copied contents
+     */
+    RepoStateColumns copy() {
+        lock.readLock().lock();
+        try {
+            return new RepoStateColumns(
+                    size,
+                    Arrays.copyOf(repoIds, size),
+                    Arrays.copyOf(stars, size),
+                    Arrays.copyOf(openIssues, size),
+                    Arrays.copyOf(updatedAt, size),
+                    Arrays.copyOf(owners, size),
+                    Arrays.copyOf(names, size),
+                    Arrays.copyOf(licences, size),
+                    Arrays.copyOf(statuses, size),
+                    new HashMap<>(offsets)
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the store contents, e.g. with a loaded snapshot.
+     *
+     * @param columns the new contents
+     */
+    void restore(RepoStateColumns columns) {
+        lock.writeLock().lock();
+        try {
+            int capacity = Math.max(INITIAL_CAPACITY, columns.size());
+            size = columns.size();
+            repoIds = Arrays.copyOf(columns.repoIds(), capacity);
+            stars = Arrays.copyOf(columns.stars(), capacity);
+            openIssues = Arrays.copyOf(columns.openIssues(), capacity);
+            updatedAt = Arrays.copyOf(columns.updatedAt(), capacity);
+            owners = Arrays.copyOf(columns.owners(), capacity);
+            names = Arrays.copyOf(columns.names(), capacity);
+            licences = Arrays.copyOf(columns.licences(), capacity);
+            statuses = Arrays.copyOf(columns.statuses(), capacity);
+            slots.clear();
+            for (int slot = 0; slot < size; slot++) {
+                slots.put(repoIds[slot], slot);
+            }
+            offsets.clear();
+            offsets.putAll(columns.offsets());
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private AppliedChange applyUnlocked(RepoChangeEvent event) {
+        if (event.getRepoId() == null) {
+            return null;
+        }
+        if (isStale(event)) {
+            return null;
+        }
+        RepoState previous = stateUnlocked(event.getRepoId());
+        int slot = slotFor(event.getRepoId());
+        owners[slot] = event.getOwner();
+        names[slot] = event.getName();
+        licences[slot] = event.getLicence();
+        stars[slot] = event.getStars() == null ? NULL_INT : event.getStars();
+        openIssues[slot] = event.getOpenIssues() == null ? NULL_INT : event.getOpenIssues();
+        statuses[slot] = event.getStatus();
+        long changedAt = changedAt(event);
+        if (changedAt != 0) {
+            updatedAt[slot] = changedAt;
+        }
+        return new AppliedChange(event, previous);
+    }
+
+    private RepoState stateUnlocked(long repoId) {
+        int slot = (int) slots.get(repoId);
+        if (slot == MISSING_SLOT) {
+            return null;
+        }
+        return new RepoState(
+                repoIds[slot],
+                owners[slot],
+                names[slot],
+                licences[slot],
+                stars[slot] == NULL_INT ? null : stars[slot],
+                openIssues[slot] == NULL_INT ? null : openIssues[slot],
+                statuses[slot],
+                updatedAt[slot] == 0 ? null : Instant.ofEpochMilli(updatedAt[slot])
+        );
+    }
+
+    /**
+     * Retried events can arrive after newer events of the same repository; they must not overwrite newer state.
+     */
+    private boolean isStale(RepoChangeEvent event) {
+        long slot = slots.get(event.getRepoId().longValue());
+        long changedAt = changedAt(event);
+        return slot != MISSING_SLOT && changedAt != 0 && updatedAt[(int) slot] > changedAt;
+    }
+
+    private int slotFor(long repoId) {
+        long existing = slots.get(repoId);
+        if (existing != MISSING_SLOT) {
+            return (int) existing;
+        }
+        if (size == repoIds.length) {
+            grow();
+        }
+        int slot = size++;
+        repoIds[slot] = repoId;
+        stars[slot] = NULL_INT;
+        openIssues[slot] = NULL_INT;
+        slots.put(repoId, slot);
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = repoIds.length * 2;
+        repoIds = Arrays.copyOf(repoIds, capacity);
+        stars = Arrays.copyOf(stars, capacity);
+        openIssues = Arrays.copyOf(openIssues, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        names = Arrays.copyOf(names, capacity);
+        licences = Arrays.copyOf(licences, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+
+    /**
+     * Orders changes by the instant the publisher persisted them, then the instant it sent them, or zero if the
+     * event has neither. The zone-less {@code timestamp} is the publisher's local time, which goes back when
+     * daylight saving time ends, so it is only read, as if it were UTC, for events published without the instants.
+     */
+    private static long changedAt(RepoChangeEvent event) {
+        if (event.getPersistedAt() != null) {
+            return event.getPersistedAt().toEpochMilli();
+        }
+        if (event.getSentAt() != null) {
+            return event.getSentAt().toEpochMilli();
+        }
+        if (event.getTimestamp() != null) {
+            return event.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        return 0;
+    }
+}
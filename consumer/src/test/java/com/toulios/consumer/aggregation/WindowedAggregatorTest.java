@@ -0,0 +1,187 @@
+package com.toulios.consumer.aggregation;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.AppliedChange;
+import com.toulios.consumer.state.RepoStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WindowedAggregatorTest {
+
+    private static final Instant HOUR_START = Instant.parse("2024-03-21T10:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private WindowedAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aggregator = new WindowedAggregator(Duration.ofMinutes(1).toMillis(), meterRegistry);
+    }
+
+    @Test
+    void apply_ShouldAggregateStarsGainedPerDimensionInTumblingWindows() {
+        // Given
+        aggregator.apply(stars(1L, "octo", "MIT", 10, 15, HOUR_START.plusSeconds(60)), 0);
+        aggregator.apply(stars(2L, "octo", "Apache-2.0", 0, 3, HOUR_START.plusSeconds(120)), 0);
+        aggregator.apply(stars(1L, "octo", "MIT", 15, 16, HOUR_START.plusSeconds(1800)), 0);
+
+        // When
+        List<WindowAggregate> byRepo = aggregator.getStarsGained(AggregationWindow.HOUR, AggregationDimension.REPO, 10);
+        List<WindowAggregate> byOwner = aggregator.getStarsGained(AggregationWindow.HOUR, AggregationDimension.OWNER, 10);
+        List<WindowAggregate> byMinute = aggregator.getStarsGained(AggregationWindow.MINUTE, AggregationDimension.REPO, 10);
+
+        // Then
+        assertEquals(1, byRepo.size());
+        assertEquals(HOUR_START, byRepo.get(0).start());
+        assertFalse(byRepo.get(0).closed());
+        assertEquals(List.of(new WindowCount("1", 6), new WindowCount("2", 3)), byRepo.get(0).entries());
+        assertEquals(List.of(new WindowCount("octo", 9)), byOwner.get(0).entries());
+        assertEquals(3, byMinute.size());
+        assertTrue(byMinute.get(2).closed());
+    }
+
+    @Test
+    void apply_ShouldAddEventToEveryOverlappingHoppingWindow() {
+        // Given
+        aggregator.apply(stars(1L, "octo", "MIT", 0, 5, HOUR_START.plus(Duration.ofMinutes(12))), 0);
+
+        // When
+        List<WindowAggregate> windows =
+                aggregator.getStarsGained(AggregationWindow.HOUR_EVERY_5_MINUTES, AggregationDimension.REPO, 10);
+
+        // Then
+        assertEquals(12, windows.size());
+        assertEquals(HOUR_START.plus(Duration.ofMinutes(10)), windows.get(0).start());
+        assertEquals(HOUR_START.minus(Duration.ofMinutes(45)), windows.get(11).start());
+        assertTrue(windows.stream().allMatch(window -> window.entries().equals(List.of(new WindowCount("1", 5)))));
+    }
+
+    @Test
+    void apply_ShouldCountStatusTransitions() {
+        // Given
+        aggregator.apply(transition(1L, "ACTIVE", "INVALID", HOUR_START), 0);
+        aggregator.apply(transition(2L, "ACTIVE", "INVALID", HOUR_START), 0);
+        aggregator.apply(transition(3L, "INVALID", "ACTIVE", HOUR_START), 0);
+        aggregator.apply(transition(4L, "ACTIVE", "ACTIVE", HOUR_START), 0);
+
+        // When
+        List<WindowAggregate> windows = aggregator.getStatusTransitions(AggregationWindow.DAY);
+
+        // Then
+        assertEquals(List.of(new WindowCount("ACTIVE->INVALID", 2), new WindowCount("INVALID->ACTIVE", 1)),
+                windows.get(0).entries());
+    }
+
+    @Test
+    void apply_ShouldDropLateEventsAndEvictWindowsBeyondRetention() {
+        // Given
+        for (int minute = 0; minute < 90; minute++) {
+            aggregator.apply(stars(1L, "octo", "MIT", 0, 1, HOUR_START.plus(Duration.ofMinutes(minute))), 0);
+        }
+
+        // When
+        aggregator.apply(stars(2L, "octo", "MIT", 0, 1, HOUR_START.plusSeconds(30)), 0);
+
+        // Then
+        List<WindowAggregate> minutes = aggregator.getStarsGained(AggregationWindow.MINUTE, AggregationDimension.REPO, 10);
+        assertEquals(AggregationWindow.MINUTE.getRetainedWindows() + 2, minutes.size());
+        assertEquals(1.0, meterRegistry.counter("repo_changes.aggregation.late_events").count());
+        List<WindowAggregate> hours = aggregator.getStarsGained(AggregationWindow.HOUR, AggregationDimension.REPO, 10);
+        assertEquals(List.of(new WindowCount("1", 60)), hours.get(1).entries());
+    }
+
+    @Test
+    void apply_WithRedeliveredChanges_ShouldAggregateThemOnce() {
+        // Given
+        RepoStateStore store = new RepoStateStore();
+        RepoChangeEvent gain = stars(1L, "octo", "MIT", 10, 15, HOUR_START.plusSeconds(60));
+        gain.setStatus("ACTIVE");
+        gain.setTimestamp(LocalDateTime.of(2024, 3, 21, 10, 1));
+        RepoChangeEvent invalidation = transition(1L, "ACTIVE", "INVALID", HOUR_START.plusSeconds(120));
+        invalidation.setStars(15);
+        invalidation.setTimestamp(LocalDateTime.of(2024, 3, 21, 10, 2));
+
+        // When
+        for (RepoChangeEvent event : List.of(gain, invalidation, gain, invalidation)) {
+            store.apply(event).ifPresent(change -> aggregator.apply(change, 0));
+        }
+
+        // Then
+        assertEquals(List.of(new WindowCount("1", 5)),
+                aggregator.getStarsGained(AggregationWindow.HOUR, AggregationDimension.REPO, 10).get(0).entries());
+        assertEquals(List.of(new WindowCount("ACTIVE->INVALID", 1)),
+                aggregator.getStatusTransitions(AggregationWindow.HOUR).get(0).entries());
+    }
+
+    @Test
+    void applyRecords_WhileReplayingPartitionsSkewedInEventTime_ShouldNotDropTheSlowerPartition() {
+        // Given
+        TopicPartition ahead = new TopicPartition("repo-changes", 0);
+        TopicPartition behind = new TopicPartition("repo-changes", 1);
+        aggregator.beginReplay(List.of(ahead, behind));
+
+        // When
+        replay(ahead, 1L, 0, 180);
+        replay(behind, 2L, 0, 30);
+        aggregator.partitionReplayed(ahead);
+        replay(behind, 2L, 30, 60);
+        aggregator.partitionReplayed(behind);
+        aggregator.endReplay();
+
+        // Then
+        List<WindowAggregate> hours = aggregator.getStarsGained(AggregationWindow.HOUR, AggregationDimension.REPO, 10);
+        assertEquals(3, hours.size());
+        assertEquals(HOUR_START, hours.get(2).start());
+        assertEquals(List.of(new WindowCount("1", 60), new WindowCount("2", 60)), hours.get(2).entries());
+        assertEquals(0.0, meterRegistry.counter("repo_changes.aggregation.late_events").count());
+        List<WindowAggregate> minutes = aggregator.getStarsGained(AggregationWindow.MINUTE, AggregationDimension.REPO, 10);
+        assertEquals(AggregationWindow.MINUTE.getRetainedWindows() + 2, minutes.size());
+    }
+
+    /**
+     * Replays a star gained by a repository every minute between two minutes past the start of the hour, one poll of records at a time.
+     */
+    private void replay(TopicPartition partition, long repoId, int fromMinute, int toMinute) {
+        List<ConsumerRecord<String, RepoChangeEvent>> records = new ArrayList<>();
+        List<AppliedChange> changes = new ArrayList<>();
+        for (int minute = fromMinute; minute < toMinute; minute++) {
+            RepoChangeEvent event = stars(repoId, "octo", "MIT", 0, 1, HOUR_START.plus(Duration.ofMinutes(minute)));
+            records.add(new ConsumerRecord<>(partition.topic(), partition.partition(), minute, null, event));
+            changes.add(new AppliedChange(event, null));
+        }
+        aggregator.applyRecords(records, changes);
+    }
+
+    private RepoChangeEvent stars(long repoId, String owner, String licence, int previousStars, int stars, Instant fetchedAt) {
+        return RepoChangeEvent.builder()
+                .repoId(repoId)
+                .owner(owner)
+                .licence(licence)
+                .previousStars(previousStars)
+                .stars(stars)
+                .fetchedAt(fetchedAt)
+                .build();
+    }
+
+    private RepoChangeEvent transition(long repoId, String previousStatus, String status, Instant fetchedAt) {
+        return RepoChangeEvent.builder()
+                .repoId(repoId)
+                .previousStatus(previousStatus)
+                .status(status)
+                .fetchedAt(fetchedAt)
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.toulios.consumer.dedup;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventDeduplicatorTest {
+
+    private static final Instant FETCHED_AT = Instant.parse("2024-03-21T10:15:30.123Z");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EventDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        deduplicator = new EventDeduplicator(10_000, 0.01, 1_000, meterRegistry);
+    }
+
+    @Test
+    void identity_ShouldIgnoreSendTimestamps() {
+        // Given
+        RepoChangeEvent original = event(1L, 10, FETCHED_AT);
+        RepoChangeEvent resent = event(1L, 10, FETCHED_AT);
+        resent.setTimestamp(LocalDateTime.now().plusSeconds(5));
+        resent.setSentAt(Instant.now().plusSeconds(5));
+
+        // When & Then
+        assertEquals(EventDeduplicator.identity(original), EventDeduplicator.identity(resent));
+        assertNotEquals(EventDeduplicator.identity(original), EventDeduplicator.identity(event(1L, 11, FETCHED_AT)));
+        assertNotEquals(EventDeduplicator.identity(original), EventDeduplicator.identity(event(2L, 10, FETCHED_AT)));
+        assertNotEquals(EventDeduplicator.identity(original),
+                EventDeduplicator.identity(event(1L, 10, FETCHED_AT.plusSeconds(300))));
+    }
+
+    @Test
+    void isDuplicate_ShouldOnlyReportProcessedEvents() {
+        // Given
+        long identity = EventDeduplicator.identity(event(1L, 10, FETCHED_AT));
+
+        // When & Then
+        assertFalse(deduplicator.isDuplicate(identity));
+        deduplicator.markProcessed(identity);
+        assertTrue(deduplicator.isDuplicate(identity));
+        assertEquals(1.0, meterRegistry.counter("repo_changes.dedup.duplicates").count());
+    }
+
+    @Test
+    void rotate_ShouldForgetIdentitiesAfterTwoWindows() {
+        // Given
+        long identity = EventDeduplicator.identity(event(1L, 10, FETCHED_AT));
+        deduplicator.markProcessed(identity);
+
+        // When
+        deduplicator.rotate();
+        boolean afterOneWindow = deduplicator.isDuplicate(identity);
+        deduplicator.rotate();
+        boolean afterTwoWindows = deduplicator.isDuplicate(identity);
+
+        // Then
+        assertTrue(afterOneWindow);
+        assertFalse(afterTwoWindows);
+    }
+
+    @Test
+    void isDuplicate_BeyondExactCapacity_ShouldProcessAndCountBloomHits() {
+        // Given
+        for (long repoId = 0; repoId < 5_000; repoId++) {
+            deduplicator.markProcessed(EventDeduplicator.identity(event(repoId, 10, FETCHED_AT)));
+        }
+
+        // When
+        boolean evicted = deduplicator.isDuplicate(EventDeduplicator.identity(event(0L, 10, FETCHED_AT)));
+        boolean recent = deduplicator.isDuplicate(EventDeduplicator.identity(event(4_999L, 10, FETCHED_AT)));
+        int falsePositives = 0;
+        for (long repoId = 5_000; repoId < 15_000; repoId++) {
+            if (deduplicator.isDuplicate(EventDeduplicator.identity(event(repoId, 10, FETCHED_AT)))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertFalse(evicted);
+        assertTrue(recent);
+        assertEquals(0, falsePositives);
+        double bloomHits = meterRegistry.counter("repo_changes.dedup.bloom_false_positives").count();
+        assertTrue(bloomHits >= 1 && bloomHits < 200, "unexpected Bloom hits: " + bloomHits);
+    }
+
+    private RepoChangeEvent event(long repoId, int stars, Instant fetchedAt) {
+        return RepoChangeEvent.builder()
+                .repoId(repoId)
+                .owner("owner")
+                .name("repo" + repoId)
+                .stars(stars)
+                .status("ACTIVE")
+                .fetchedAt(fetchedAt)
+                .timestamp(LocalDateTime.of(2024, 3, 21, 10, 15, 30))
+                .build();
+    }
+}
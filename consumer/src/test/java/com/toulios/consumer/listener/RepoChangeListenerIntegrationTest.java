@@ -1,50 +1,201 @@
 package com.toulios.consumer.listener;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.toulios.consumer.config.KafkaTestConfig;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.retry.RetryForwarder;
+import com.toulios.consumer.retry.RetryTier;
+import com.toulios.consumer.service.DeadLetterReplayService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 
+@Slf4j
 @SpringBootTest(properties = {
-    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration"
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+    "app.kafka.listener.concurrency=3",
+    "app.kafka.listener.retry-interval-ms=100",
+    "logging.level.com.toulios.consumer.listener=WARN",
+    "logging.level.com.toulios.consumer.service=WARN",
+    "app.kafka.retry.first-delay-ms=500",
+    "app.kafka.retry.second-delay-ms=1000",
+    "app.state.snapshot-path=target/test-state/${random.uuid}.snapshot"
 })
 @DirtiesContext
 @Import(KafkaTestConfig.class)
-@EmbeddedKafka(partitions = 1, brokerProperties = {"listeners=PLAINTEXT://localhost:9092", "port=9092"})
+@EmbeddedKafka(partitions = 3, topics = RepoChangeListenerIntegrationTest.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
 class RepoChangeListenerIntegrationTest {
 
-    private static final String TOPIC = "repo-changes";
+    static final String TOPIC = "repo-changes";
+    private static final String GROUP_ID = "analysis-group";
+    private static final int THROUGHPUT_RECORDS = 20_000;
 
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
 
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DeadLetterReplayService deadLetterReplayService;
+
+    @SpyBean
+    private RetryForwarder retryForwarder;
+
+    private AdminClient adminClient;
+
     @BeforeEach
     void setUp() {
-        // Clear any messages from previous tests
+        adminClient = AdminClient.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminClient.close();
+    }
+
+    @Test
+    void whenSendingMessages_thenBatchesAreProcessedAndCommitted() throws Exception {
+        // Given
+        long committedBefore = committedOffsets();
+
+        // When
+        for (long repoId = 1; repoId <= 10; repoId++) {
+            kafkaTemplate.send(TOPIC, String.valueOf(repoId), toJson(repoId));
+        }
+        kafkaTemplate.send(TOPIC, "poison", "{not json");
+        kafkaTemplate.flush();
+
+        // Then
+        await()
+                .atMost(30, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(committedBefore + 11, committedOffsets()));
+    }
+
+    @Test
+    void whenRecordCannotBeDeserialized_thenItIsParkedInDeadLetterTopicAndCanBeReplayed() throws Exception {
+        // Given
+        long parkedBefore = deadLetterEndOffset();
+
+        // When
+        kafkaTemplate.send(TOPIC, "poison", "{not json");
+        kafkaTemplate.flush();
+
+        // Then
+        await()
+                .atMost(30, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(parkedBefore + 1, deadLetterEndOffset()));
+
+        int replayed = deadLetterReplayService.replay();
+        assertTrue(replayed >= 1);
+        await()
+                .atMost(30, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(parkedBefore + 1 + replayed, deadLetterEndOffset()));
     }
 
     @Test
-    void whenSendingMessage_thenMessageIsReceived() {
+    void whenForwardingFails_thenRecordIsRedeliveredUntilItIsParked() throws Exception {
         // Given
+        long parkedBefore = deadLetterEndOffset();
+        doThrow(new KafkaException("Broker unavailable"))
+                .doThrow(new KafkaException("Broker unavailable"))
+                .doThrow(new KafkaException("Broker unavailable"))
+                .doThrow(new KafkaException("Broker unavailable"))
+                .doCallRealMethod()
+                .when(retryForwarder).forward(argThat(record -> "unreachable".equals(record.key())), any());
+
+        // When
+        kafkaTemplate.send(TOPIC, "unreachable", "{not json");
+        kafkaTemplate.flush();
+
+        // Then
+        await()
+                .atMost(30, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(parkedBefore + 1, deadLetterEndOffset()));
+        verify(retryForwarder, atLeast(5)).forward(argThat(record -> "unreachable".equals(record.key())), any());
+    }
 
+    @Test
+    void measureThroughput() throws Exception {
+        // Given
+        long committedBefore = committedOffsets();
+        String[] payloads = new String[THROUGHPUT_RECORDS];
+        for (int i = 0; i < THROUGHPUT_RECORDS; i++) {
+            payloads[i] = toJson(i);
+        }
 
         // When
-        kafkaTemplate.send(TOPIC, "{}");
+        long start = System.nanoTime();
+        for (int i = 0; i < THROUGHPUT_RECORDS; i++) {
+            kafkaTemplate.send(TOPIC, String.valueOf(i % 1000), payloads[i]);
+        }
+        kafkaTemplate.flush();
 
         // Then
         await()
-                .atMost(5, TimeUnit.SECONDS)
-                .untilAsserted(() -> {
-                    
-                });
+                .atMost(60, TimeUnit.SECONDS)
+                .pollInterval(50, TimeUnit.MILLISECONDS)
+                .untilAsserted(() -> assertEquals(committedBefore + THROUGHPUT_RECORDS, committedOffsets()));
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        log.warn("Consumed and committed {} records in {} s ({} records/sec)",
+                THROUGHPUT_RECORDS, String.format("%.2f", seconds), String.format("%.0f", THROUGHPUT_RECORDS / seconds));
+    }
+
+    private String toJson(long repoId) throws Exception {
+        return objectMapper.writeValueAsString(RepoChangeEvent.builder()
+                .repoId(repoId)
+                .changes("\n - Stars: 1 → 2")
+                .timestamp(LocalDateTime.now())
+                .stars(2)
+                .build());
+    }
+
+    private long deadLetterEndOffset() throws Exception {
+        TopicPartition partition = new TopicPartition(RetryTier.DLT.topic(TOPIC), 0);
+        return adminClient.listOffsets(Map.of(partition, OffsetSpec.latest()))
+                .partitionResult(partition)
+                .get(10, TimeUnit.SECONDS)
+                .offset();
+    }
+
+    private long committedOffsets() throws Exception {
+        return adminClient.listConsumerGroupOffsets(GROUP_ID)
+                .partitionsToOffsetAndMetadata()
+                .get(10, TimeUnit.SECONDS)
+                .values().stream()
+                .mapToLong(OffsetAndMetadata::offset)
+                .sum();
     }
-} 
\ No newline at end of file
+}
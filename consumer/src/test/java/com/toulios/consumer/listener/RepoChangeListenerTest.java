@@ -1,28 +1,144 @@
 package com.toulios.consumer.listener;
 
+import com.toulios.consumer.aggregation.WindowedAggregator;
+import com.toulios.consumer.dedup.EventDeduplicator;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.metrics.PropagationMetrics;
+import com.toulios.consumer.processing.ProcessingMode;
+import com.toulios.consumer.processing.RepoChangeDispatcher;
+import com.toulios.consumer.retry.RetryForwarder;
+import com.toulios.consumer.retry.RetryTier;
+import com.toulios.consumer.service.RepoChangeProcessor;
+import com.toulios.consumer.state.RepoStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.serializer.DeserializationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class RepoChangeListenerTest {
 
-    @InjectMocks
+    private static final String TOPIC = "repo-changes";
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Mock
+    private RetryForwarder retryForwarder;
+
+    private RepoStateStore stateStore;
+
     private RepoChangeListener repoChangeListener;
 
+    private RepoChangeEvent event;
+
     @BeforeEach
     void setUp() {
-        // Add any setup if needed in the future
+        stateStore = new RepoStateStore();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RepoChangeProcessor processor = new RepoChangeProcessor(stateStore,
+                new EventDeduplicator(1000, 0.01, 100, meterRegistry), new WindowedAggregator(60_000, meterRegistry));
+        repoChangeListener = new RepoChangeListener(new RepoChangeDispatcher(ProcessingMode.PARTITION, 1), processor,
+                stateStore, retryForwarder, new PropagationMetrics(meterRegistry));
+        event = RepoChangeEvent.builder()
+                .repoId(1L)
+                .changes("\n - Stars: 1 → 2")
+                .timestamp(LocalDateTime.now())
+                .stars(2)
+                .build();
     }
 
     @Test
-    void handleRepoChange_ShouldProcessEventSuccessfully() {
+    void handleRepoChanges_ShouldProcessBatchAndAcknowledge() {
         // Given
+        List<ConsumerRecord<String, RepoChangeEvent>> records = Arrays.asList(
+                new ConsumerRecord<>(TOPIC, 0, 0L, "1", event),
+                new ConsumerRecord<>(TOPIC, 0, 1L, "1", event)
+        );
+
         // When & Then
-        assertDoesNotThrow(() -> repoChangeListener.handleRepoChange("event"));
+        assertDoesNotThrow(() -> repoChangeListener.handleRepoChanges(records, acknowledgment));
+        verify(acknowledgment).acknowledge();
+        assertEquals(2, stateStore.get(1L).orElseThrow().stars());
+        assertEquals(2L, stateStore.resumeOffset(new TopicPartition(TOPIC, 0)).orElseThrow());
+    }
+
+    @Test
+    void handleRepoChanges_WhenRecordCannotBeDeserialized_ShouldForwardItAndAcknowledgeBatch() {
+        // Given
+        ConsumerRecord<String, RepoChangeEvent> poison = new ConsumerRecord<>(TOPIC, 0, 1L, "2", null);
+        List<ConsumerRecord<String, RepoChangeEvent>> records = Arrays.asList(
+                new ConsumerRecord<>(TOPIC, 0, 0L, "1", event),
+                poison,
+                new ConsumerRecord<>(TOPIC, 0, 2L, "1", event)
+        );
+        when(retryForwarder.forward(eq(poison), any())).thenReturn(RetryTier.DLT);
+
+        // When
+        repoChangeListener.handleRepoChanges(records, acknowledgment);
+
+        // Then
+        verify(retryForwarder).forward(eq(poison), any(DeserializationException.class));
+        verify(acknowledgment).acknowledge();
+        assertEquals(3L, stateStore.resumeOffset(new TopicPartition(TOPIC, 0)).orElseThrow());
+    }
+
+    @Test
+    void handleRepoChanges_WhenForwardingFails_ShouldFailBatchAtThatRecord() {
+        // Given
+        List<ConsumerRecord<String, RepoChangeEvent>> records = Arrays.asList(
+                new ConsumerRecord<>(TOPIC, 0, 0L, "1", event),
+                new ConsumerRecord<>(TOPIC, 0, 1L, "2", null)
+        );
+        when(retryForwarder.forward(any(), any())).thenThrow(new KafkaException("Broker unavailable"));
+
+        // When
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> repoChangeListener.handleRepoChanges(records, acknowledgment));
+
+        // Then
+        assertEquals(1, exception.getIndex());
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(1L, stateStore.resumeOffset(new TopicPartition(TOPIC, 0)).orElseThrow());
+    }
+
+    @Test
+    void onPartitionsAssigned_ShouldOnlySeekPartitionsKnownToTheStateStore() {
+        // Given
+        stateStore.markProcessed(List.of(new ConsumerRecord<>(TOPIC, 0, 41L, "1", event)));
+        ConsumerSeekAware.ConsumerSeekCallback callback = mock(ConsumerSeekAware.ConsumerSeekCallback.class);
+
+        // When
+        repoChangeListener.onPartitionsAssigned(
+                Map.of(new TopicPartition(TOPIC, 0), 10L, new TopicPartition(TOPIC, 1), 20L), callback);
+
+        // Then
+        verify(callback).seek(TOPIC, 0, 42L);
+        verifyNoMoreInteractions(callback);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.toulios.consumer.metrics;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PropagationMetricsTest {
+
+    private static final String TOPIC = "repo-changes";
+    private static final Instant FETCHED_AT = Instant.parse("2024-03-21T10:15:30.000Z");
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PropagationMetrics propagationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        propagationMetrics = new PropagationMetrics(meterRegistry);
+    }
+
+    @Test
+    void record_WithLogAppendTime_ShouldRecordEveryStage() {
+        // Given
+        RepoChangeEvent event = RepoChangeEvent.builder()
+                .repoId(1L)
+                .fetchedAt(FETCHED_AT)
+                .persistedAt(FETCHED_AT.plusMillis(40))
+                .sentAt(FETCHED_AT.plusMillis(50))
+                .build();
+        ConsumerRecord<String, RepoChangeEvent> record = record(TimestampType.LOG_APPEND_TIME, FETCHED_AT.plusMillis(60), event);
+
+        // When
+        propagationMetrics.record(record, FETCHED_AT.plusMillis(100));
+
+        // Then
+        assertEquals(40, stageMillis("fetch_to_persist"));
+        assertEquals(10, stageMillis("persist_to_send"));
+        assertEquals(10, stageMillis("send_to_broker"));
+        assertEquals(40, stageMillis("broker_to_consume"));
+        assertEquals(50, stageMillis("send_to_consume"));
+        assertEquals(100, stageMillis("end_to_end"));
+    }
+
+    @Test
+    void record_WithCreateTimeAndNoFetch_ShouldSkipUnknownStages() {
+        // Given
+        RepoChangeEvent event = RepoChangeEvent.builder()
+                .repoId(1L)
+                .persistedAt(FETCHED_AT)
+                .sentAt(FETCHED_AT.plusMillis(5))
+                .build();
+        ConsumerRecord<String, RepoChangeEvent> record = record(TimestampType.CREATE_TIME, FETCHED_AT.plusMillis(5), event);
+
+        // When
+        propagationMetrics.record(record, FETCHED_AT.plusMillis(20));
+
+        // Then
+        assertEquals(0, timer("fetch_to_persist").count());
+        assertEquals(0, timer("end_to_end").count());
+        assertEquals(0, timer("send_to_broker").count());
+        assertEquals(15, stageMillis("send_to_consume"));
+    }
+
+    private ConsumerRecord<String, RepoChangeEvent> record(TimestampType timestampType, Instant timestamp, RepoChangeEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, 0L, timestamp.toEpochMilli(), timestampType, 0, 0, "1", event,
+                new RecordHeaders(), Optional.empty());
+    }
+
+    private Timer timer(String stage) {
+        return meterRegistry.get(PropagationMetrics.METRIC_NAME).tag("stage", stage).timer();
+    }
+
+    private long stageMillis(String stage) {
+        Timer timer = timer(stage);
+        assertEquals(1, timer.count());
+        return (long) timer.totalTime(TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,111 @@
+package com.toulios.consumer.processing;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepoChangeDispatcherTest {
+
+    private static final String TOPIC = "repo-changes";
+
+    private RepoChangeDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new RepoChangeDispatcher(ProcessingMode.KEY_ORDERED, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldKeepOrderPerKeyAcrossWorkers() {
+        // Given
+        List<ConsumerRecord<String, Long>> records = new ArrayList<>();
+        for (long offset = 0; offset < 1000; offset++) {
+            records.add(new ConsumerRecord<>(TOPIC, 0, offset, String.valueOf(offset % 10), offset));
+        }
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // When
+        BatchResult result = dispatcher.dispatch(records, record -> {
+            threads.add(Thread.currentThread().getName());
+            seen.computeIfAbsent(record.key(), key -> new CopyOnWriteArrayList<>()).add(record.value());
+        });
+
+        // Then
+        assertFalse(result.failed());
+        assertEquals(10, seen.size());
+        assertTrue(threads.size() > 1);
+        seen.values().forEach(values -> {
+            assertEquals(100, values.size());
+            for (int i = 1; i < values.size(); i++) {
+                assertTrue(values.get(i - 1) < values.get(i));
+            }
+        });
+    }
+
+    @Test
+    void dispatch_WhenRecordFails_ShouldReportFirstFailureAndSkipLaterRecordsOfSameKey() {
+        // Given
+        List<ConsumerRecord<String, Long>> records = List.of(
+                new ConsumerRecord<>(TOPIC, 0, 0L, "a", 0L),
+                new ConsumerRecord<>(TOPIC, 0, 1L, "b", 1L),
+                new ConsumerRecord<>(TOPIC, 0, 2L, "b", 2L),
+                new ConsumerRecord<>(TOPIC, 0, 3L, "a", 3L)
+        );
+        List<Long> processed = new CopyOnWriteArrayList<>();
+
+        // When
+        BatchResult result = dispatcher.dispatch(records, record -> {
+            if (record.value() == 1L) {
+                throw new IllegalStateException("boom");
+            }
+            processed.add(record.value());
+        });
+
+        // Then
+        assertTrue(result.failed());
+        assertEquals(1, result.failedIndex());
+        assertEquals("boom", result.cause().getMessage());
+        assertFalse(processed.contains(2L));
+        assertTrue(processed.containsAll(List.of(0L, 3L)));
+    }
+
+    @Test
+    void dispatch_InPartitionMode_ShouldStopAtFirstFailure() {
+        // Given
+        RepoChangeDispatcher sequential = new RepoChangeDispatcher(ProcessingMode.PARTITION, 4);
+        List<ConsumerRecord<String, Long>> records = List.of(
+                new ConsumerRecord<>(TOPIC, 0, 0L, "a", 0L),
+                new ConsumerRecord<>(TOPIC, 0, 1L, "b", 1L),
+                new ConsumerRecord<>(TOPIC, 0, 2L, "c", 2L)
+        );
+        List<Long> processed = new ArrayList<>();
+
+        // When
+        BatchResult result = sequential.dispatch(records, record -> {
+            if (record.value() == 1L) {
+                throw new IllegalStateException("boom");
+            }
+            processed.add(record.value());
+        });
+
+        // Then
+        assertEquals(1, result.failedIndex());
+        assertEquals(List.of(0L), processed);
+    }
+}
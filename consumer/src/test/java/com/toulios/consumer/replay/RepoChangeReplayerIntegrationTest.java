@@ -0,0 +1,101 @@
+package com.toulios.consumer.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.consumer.config.KafkaTestConfig;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.RepoStateStore;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest(properties = {
+    "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+    "app.replay.enabled=true",
+    "app.replay.progress-interval-ms=200",
+    "app.kafka.topics.repo-changes=" + RepoChangeReplayerIntegrationTest.TOPIC,
+    "app.state.snapshot-path=target/test-state/${random.uuid}.snapshot"
+})
+@DirtiesContext
+@Import(KafkaTestConfig.class)
+@EmbeddedKafka(partitions = 3, topics = RepoChangeReplayerIntegrationTest.TOPIC,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class RepoChangeReplayerIntegrationTest {
+
+    static final String TOPIC = "repo-changes-replay";
+    private static final int REPOS = 1_000;
+    private static final int UPDATES_PER_REPO = 20;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RepoChangeReplayer replayer;
+
+    @Autowired
+    private RepoStateStore stateStore;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Test
+    void replay_ShouldRebuildLatestStateFromTheWholeTopic() throws Exception {
+        // Given
+        await()
+                .atMost(30, TimeUnit.SECONDS)
+                .until(() -> listenerRegistry.getListenerContainers().stream().allMatch(c -> c.isRunning()));
+        listenerRegistry.stop();
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int update = 1; update <= UPDATES_PER_REPO; update++) {
+            for (long repoId = 1; repoId <= REPOS; repoId++) {
+                kafkaTemplate.send(TOPIC, String.valueOf(repoId), toJson(repoId, update, start.plusMinutes(update)));
+            }
+        }
+        kafkaTemplate.flush();
+
+        // When
+        ReplayResult result = replayer.replay();
+
+        // Then
+        log.warn("Replayed {} records in {} ms ({} records/sec)", result.records(), result.elapsed().toMillis(),
+                String.format("%.0f", result.recordsPerSecond()));
+        assertEquals((long) REPOS * UPDATES_PER_REPO, result.records());
+        assertEquals(REPOS, stateStore.size());
+        assertEquals(UPDATES_PER_REPO, stateStore.get(REPOS / 2).orElseThrow().stars());
+        long resumeOffsets = 0;
+        for (int partition = 0; partition < 3; partition++) {
+            resumeOffsets += stateStore.resumeOffset(new TopicPartition(TOPIC, partition)).orElse(0L);
+        }
+        assertEquals(result.records(), resumeOffsets);
+        assertTrue(result.recordsPerSecond() > 0);
+    }
+
+    private String toJson(long repoId, int stars, LocalDateTime timestamp) throws Exception {
+        return objectMapper.writeValueAsString(RepoChangeEvent.builder()
+                .repoId(repoId)
+                .owner("owner-" + repoId)
+                .name("repo-" + repoId)
+                .changes("\n - Stars: " + (stars - 1) + " → " + stars)
+                .timestamp(timestamp)
+                .stars(stars)
+                .status("ACTIVE")
+                .build());
+    }
+}
@@ -0,0 +1,73 @@
+package com.toulios.consumer.replay;
+
+import com.toulios.consumer.aggregation.WindowedAggregator;
+import com.toulios.consumer.event.RepoChangeEvent;
+import com.toulios.consumer.state.RepoStateCheckpointer;
+import com.toulios.consumer.state.RepoStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepoChangeReplayerTest {
+
+    @Mock
+    private ConsumerFactory<String, RepoChangeEvent> consumerFactory;
+
+    @Mock
+    private RepoStateCheckpointer checkpointer;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private ConfigurableApplicationContext applicationContext;
+
+    private RepoChangeReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        replayer = new RepoChangeReplayer(consumerFactory, new RepoStateStore(), new WindowedAggregator(60_000, new SimpleMeterRegistry()),
+                checkpointer, listenerRegistry, applicationContext);
+        ReflectionTestUtils.setField(replayer, "topic", "repo-changes");
+        ReflectionTestUtils.setField(replayer, "maxAttempts", 2);
+        ReflectionTestUtils.setField(replayer, "retryBackoffMs", 0L);
+    }
+
+    @Test
+    void replayAndStartListeners_WhenEveryAttemptFails_ShouldShutDownWithoutStartingListenersOrCheckpointing() {
+        // Given
+        when(consumerFactory.createConsumer(isNull(), anyString(), anyString(), any(Properties.class)))
+                .thenThrow(new KafkaException("broker unavailable"));
+
+        // When
+        replayer.replayAndStartListeners();
+
+        // Then
+        verify(consumerFactory, times(2)).createConsumer(isNull(), anyString(), anyString(), any(Properties.class));
+        verify(checkpointer, times(2)).suspend();
+        verify(checkpointer, never()).resume();
+        verify(checkpointer, never()).checkpoint();
+        verify(checkpointer, never()).restore();
+        verify(listenerRegistry, never()).start();
+        verify(applicationContext).close();
+    }
+}
@@ -0,0 +1,114 @@
+package com.toulios.consumer.retry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.toulios.consumer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RetryForwarderTest {
+
+    private static final String TOPIC = "repo-changes";
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RetryForwarder retryForwarder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        retryForwarder = new RetryForwarder(kafkaTemplate, objectMapper, meterRegistry, TOPIC, 60_000, 600_000);
+    }
+
+    @Test
+    void forward_ShouldMoveRecordThroughTiers() {
+        // Given
+        when(kafkaTemplate.send(anyRecord())).thenReturn(CompletableFuture.completedFuture(null));
+        RepoChangeEvent event = RepoChangeEvent.builder().repoId(1L).stars(2).build();
+        ConsumerRecord<String, RepoChangeEvent> record = new ConsumerRecord<>(TOPIC, 2, 7L, "1", event);
+        RuntimeException cause = new IllegalStateException("Processing failed");
+
+        // When
+        RetryTier first = retryForwarder.forward(record, cause);
+        ProducerRecord<String, String> forwarded = lastSent();
+        ConsumerRecord<String, RepoChangeEvent> retried = new ConsumerRecord<>(forwarded.topic(), 0, 0L, "1", event);
+        forwarded.headers().forEach(header -> retried.headers().add(header));
+        RetryTier second = retryForwarder.forward(retried, cause);
+
+        // Then
+        assertEquals(RetryTier.RETRY_1M, first);
+        assertEquals(RetryTier.RETRY_10M, second);
+        ProducerRecord<String, String> last = lastSent();
+        assertEquals("repo-changes-retry-10m", last.topic());
+        assertEquals("1", last.key());
+        assertEquals(TOPIC, RetryHeaders.get(last.headers(), RetryHeaders.ORIGINAL_TOPIC));
+        assertEquals(7L, RetryHeaders.getLong(last.headers(), RetryHeaders.ORIGINAL_OFFSET, -1));
+        assertEquals(2L, RetryHeaders.getLong(last.headers(), RetryHeaders.ATTEMPTS, -1));
+        assertTrue(RetryHeaders.getLong(last.headers(), RetryHeaders.DUE_AT, 0) > System.currentTimeMillis() + 500_000);
+        assertEquals(1.0, meterRegistry.counter("repo_changes.retry.forwarded", "tier", "retry-10m").count());
+    }
+
+    @Test
+    void forward_WhenRecordCannotBeDeserialized_ShouldParkRawValueInDeadLetterTopic() {
+        // Given
+        when(kafkaTemplate.send(anyRecord())).thenReturn(CompletableFuture.completedFuture(null));
+        byte[] raw = "{not json".getBytes(StandardCharsets.UTF_8);
+        ConsumerRecord<String, RepoChangeEvent> record = new ConsumerRecord<>(TOPIC, 0, 3L, "poison", null);
+
+        // When
+        RetryTier tier = retryForwarder.forward(record, new DeserializationException("Bad JSON", raw, false, null));
+
+        // Then
+        assertEquals(RetryTier.DLT, tier);
+        assertEquals("repo-changes-dlt", lastSent().topic());
+        assertEquals("{not json", lastSent().value());
+    }
+
+    @Test
+    void forward_WhenSendFails_ShouldThrow() {
+        // Given
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("Broker unavailable")));
+        ConsumerRecord<String, RepoChangeEvent> record =
+                new ConsumerRecord<>(TOPIC, 0, 0L, "1", RepoChangeEvent.builder().repoId(1L).build());
+
+        // When & Then
+        assertThrows(KafkaException.class, () -> retryForwarder.forward(record, new IllegalStateException("Failed")));
+        assertEquals(0.0, meterRegistry.counter("repo_changes.retry.forwarded", "tier", "retry-1m").count());
+    }
+
+    private static ProducerRecord<String, String> anyRecord() {
+        return any();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProducerRecord<String, String> lastSent() {
+        ArgumentCaptor<ProducerRecord<String, String>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.toulios.consumer.state;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepoStateCheckpointerTest {
+
+    private static final String TOPIC = "repo-changes";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void apply_ShouldKeepLatestStatePerRepository() {
+        // Given
+        RepoStateStore store = new RepoStateStore();
+
+        // When
+        store.apply(event(1L, "owner", "repo", 10));
+        store.apply(RepoChangeEvent.builder().repoId(1L).owner("owner").name("repo").stars(12).status("INVALID").build());
+        store.apply(event(2L, "other", "repo", 3));
+
+        // Then
+        RepoState state = store.get(1L).orElseThrow();
+        assertEquals("owner", state.owner());
+        assertEquals(12, state.stars());
+        assertEquals("INVALID", state.status());
+        assertNull(state.openIssues());
+        assertEquals(2, store.size());
+        assertTrue(store.get(3L).isEmpty());
+    }
+
+    @Test
+    void checkpoint_WhileSuspended_ShouldKeepTheLastSnapshot() throws Exception {
+        // Given
+        Path snapshot = tempDir.resolve("repo-state.snapshot");
+        RepoStateStore store = new RepoStateStore();
+        store.apply(event(1L, "owner", "repo", 10));
+        RepoStateCheckpointer checkpointer = new RepoStateCheckpointer(store, snapshot);
+        checkpointer.checkpoint();
+        byte[] complete = Files.readAllBytes(snapshot);
+
+        // When
+        checkpointer.suspend();
+        store.clear();
+        store.apply(event(2L, "other", "repo", 3));
+        checkpointer.checkpoint();
+        byte[] whileSuspended = Files.readAllBytes(snapshot);
+        checkpointer.resume();
+        checkpointer.checkpoint();
+
+        // Then
+        assertArrayEquals(complete, whileSuspended);
+        RepoStateStore restored = new RepoStateStore();
+        new RepoStateCheckpointer(restored, snapshot).restore();
+        assertTrue(restored.get(1L).isEmpty());
+        assertTrue(restored.get(2L).isPresent());
+    }
+
+    @Test
+    void checkpoint_ShouldRestoreStateAndOffsetsAfterRestart() {
+        // Given
+        Path snapshot = tempDir.resolve("repo-state.snapshot");
+        RepoStateStore store = new RepoStateStore();
+        for (long repoId = 1; repoId <= 5000; repoId++) {
+            store.apply(event(repoId, "owner-" + repoId, "répo-" + repoId, (int) repoId));
+        }
+        store.markProcessed(List.of(
+                new ConsumerRecord<>(TOPIC, 0, 41L, "1", "value"),
+                new ConsumerRecord<>(TOPIC, 2, 7L, "2", "value")));
+
+        // When
+        new RepoStateCheckpointer(store, snapshot).checkpoint();
+        RepoStateStore restored = new RepoStateStore();
+        new RepoStateCheckpointer(restored, snapshot).restore();
+
+        // Then
+        assertEquals(5000, restored.size());
+        assertEquals(store.get(4321L), restored.get(4321L));
+        assertEquals("répo-4321", restored.get(4321L).orElseThrow().name());
+        assertNull(restored.get(4321L).orElseThrow().licence());
+        assertEquals(42L, restored.resumeOffset(new TopicPartition(TOPIC, 0)).orElseThrow());
+        assertEquals(8L, restored.resumeOffset(new TopicPartition(TOPIC, 2)).orElseThrow());
+        assertTrue(restored.resumeOffset(new TopicPartition(TOPIC, 1)).isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("repo-state.snapshot.tmp")));
+    }
+
+    @Test
+    void restore_WhenSnapshotIsCorrupt_ShouldStartEmpty() throws Exception {
+        // Given
+        Path snapshot = tempDir.resolve("repo-state.snapshot");
+        Files.writeString(snapshot, "not a snapshot");
+        RepoStateStore store = new RepoStateStore();
+
+        // When
+        new RepoStateCheckpointer(store, snapshot).restore();
+
+        // Then
+        assertEquals(0, store.size());
+        assertTrue(store.resumeOffset(new TopicPartition(TOPIC, 0)).isEmpty());
+    }
+
+    private RepoChangeEvent event(long repoId, String owner, String name, int stars) {
+        return RepoChangeEvent.builder()
+                .repoId(repoId)
+                .owner(owner)
+                .name(name)
+                .stars(stars)
+                .status("ACTIVE")
+                .timestamp(LocalDateTime.of(2024, 5, 1, 12, 0))
+                .build();
+    }
+}
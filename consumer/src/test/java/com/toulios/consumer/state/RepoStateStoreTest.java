@@ -0,0 +1,89 @@
+package com.toulios.consumer.state;
+
+import com.toulios.consumer.event.RepoChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RepoStateStoreTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 3, 21, 10, 15, 30);
+
+    private RepoStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RepoStateStore();
+    }
+
+    @Test
+    void apply_ShouldClearFieldsClearedUpstream() {
+        // Given
+        store.apply(event("MIT", 10, 2, TIMESTAMP));
+
+        // When
+        store.apply(event(null, 12, null, TIMESTAMP.plusMinutes(1)));
+
+        // Then
+        RepoState state = store.get(1L).orElseThrow();
+        assertNull(state.licence());
+        assertEquals(12, state.stars());
+        assertNull(state.openIssues());
+        assertEquals("ACTIVE", state.status());
+    }
+
+    @Test
+    void apply_WithAnOlderEvent_ShouldKeepTheNewerState() {
+        // Given
+        store.apply(event("MIT", 10, 2, TIMESTAMP));
+
+        // When
+        store.apply(event(null, 5, null, TIMESTAMP.minusMinutes(1)));
+
+        // Then
+        RepoState state = store.get(1L).orElseThrow();
+        assertEquals("MIT", state.licence());
+        assertEquals(10, state.stars());
+    }
+
+    @Test
+    void apply_AcrossDaylightSavingTimeEnd_ShouldOrderByPersistedInstant() {
+        // Given
+        ZoneId zone = ZoneId.of("Europe/Berlin");
+        // 01:30 CEST, then 01:10 CET forty minutes later: the local time goes back
+        Instant firstPersisted = Instant.parse("2024-10-26T23:30:00Z");
+        Instant secondPersisted = Instant.parse("2024-10-27T00:10:00Z");
+        RepoChangeEvent first = event("MIT", 10, 2, LocalDateTime.ofInstant(firstPersisted, zone));
+        first.setPersistedAt(firstPersisted);
+        RepoChangeEvent second = event("MIT", 11, 2, LocalDateTime.ofInstant(secondPersisted, zone));
+        second.setPersistedAt(secondPersisted);
+        store.apply(first);
+
+        // When
+        store.apply(second);
+
+        // Then
+        RepoState state = store.get(1L).orElseThrow();
+        assertEquals(11, state.stars());
+        assertEquals(secondPersisted, state.updatedAt());
+    }
+
+    private static RepoChangeEvent event(String licence, Integer stars, Integer openIssues, LocalDateTime timestamp) {
+        return RepoChangeEvent.builder()
+                .repoId(1L)
+                .owner("octo")
+                .name("repo")
+                .licence(licence)
+                .stars(stars)
+                .openIssues(openIssues)
+                .status("ACTIVE")
+                .timestamp(timestamp)
+                .build();
+    }
+}
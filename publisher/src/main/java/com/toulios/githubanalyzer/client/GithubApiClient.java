@@ -27,6 +27,8 @@ import static java.lang.String.format;
  * Client for interacting with the GitHub REST API.
  * The client implements rate limiting using {@link GithubRateLimiter} to prevent exceeding
  * GitHub's API rate limits (5000 requests per hour for authenticated users).
+ * Requests are timed by the observation of the {@link RestTemplate} as {@code http.client.requests}, tagged with
+ * their status code.
  */
 @Slf4j
 @Component
@@ -46,8 +48,8 @@ public class GithubApiClient {
     private static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
     /** Header containing the rate limit reset timestamp */
     private static final String RATE_LIMIT_RESET_HEADER = "X-RateLimit-Reset";
-    /** Format for the GitHub repository details URL */
-    private static final String GITLAB_REPO_DETAILS_URL_FORMAT = "%s/repos/%s/%s";
+    /** Template of the GitHub repository details URL, kept as the low cardinality {@code uri} tag of its metrics */
+    private static final String REPO_DETAILS_URL_TEMPLATE = "%s/repos/{owner}/{repo}";
     private final RestTemplate restTemplate;
     private final GithubRateLimiter rateLimiter;
     private final GithubProperties githubProperties;
@@ -64,8 +66,8 @@ public class GithubApiClient {
      */
     public GithubRepositoryDto getRepositoryDetails(String owner, String repo) {
 
-        String url = format(GITLAB_REPO_DETAILS_URL_FORMAT, githubProperties.getGithubApiBaseUrl(), owner, repo);
-        log.debug("{} Getting repo details from {}", LOG_PREFIX, url);
+        String url = format(REPO_DETAILS_URL_TEMPLATE, githubProperties.getGithubApiBaseUrl());
+        log.debug("{} Getting repo details of {}/{} from {}", LOG_PREFIX, owner, repo, url);
 
         try {
             // Wait if we're about to exceed rate limits
@@ -75,7 +77,9 @@ public class GithubApiClient {
                     url,
                     HttpMethod.GET,
                     createHeaders(),
-                    new ParameterizedTypeReference<>() {}
+                    new ParameterizedTypeReference<>() {},
+                    owner,
+                    repo
             );
 
             // Update rate limit information
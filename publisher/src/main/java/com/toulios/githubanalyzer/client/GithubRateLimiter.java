@@ -1,9 +1,14 @@
 package com.toulios.githubanalyzer.client;
 
+import com.toulios.githubanalyzer.jfr.RateLimitWaitEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -11,6 +16,9 @@ import java.util.concurrent.locks.ReentrantLock;
  * Rate limiter for the GitHub API.
  * This class is responsible for rate limiting requests to the GitHub API.
  * It uses a buffer to avoid exceeding the rate limit.
+ * The remaining requests, the limit and the reset time are exposed as {@code github.api.rate.limit.*} gauges, and the
+ * time callers spend in {@link #waitIfNeeded()} as the {@code github.api.rate.limit.wait} timer and as
+ * {@link RateLimitWaitEvent} flight recorder events.
  */
 @Slf4j
 @Component
@@ -22,18 +30,33 @@ public class GithubRateLimiter {
     private volatile int rateLimit;
     private volatile Instant resetTime;
     private final int bufferSize;
+    private final Timer waitTimer;
 
     /**
      * Constructor for the GithubRateLimiter.
      * @param properties the properties for the rate limiter
+     * @param meterRegistry the registry of the rate limit metrics
      */
-    public GithubRateLimiter(GithubProperties properties) {
+    public GithubRateLimiter(GithubProperties properties, MeterRegistry meterRegistry) {
         this.properties = properties;
         this.rateLimit = properties.getDefaultLimit();
         this.remainingRequests = new AtomicInteger(properties.getDefaultLimit());
         this.resetTime = Instant.now().plusSeconds(properties.getDefaultWindowSeconds());
         this.lock = new ReentrantLock();
         this.bufferSize = calculateBufferSize();
+        this.waitTimer = Timer.builder("github.api.rate.limit.wait")
+                .description("Time spent waiting for the GitHub API rate limit before a request")
+                .register(meterRegistry);
+        Gauge.builder("github.api.rate.limit.remaining", remainingRequests, AtomicInteger::get)
+                .description("Requests remaining in the current GitHub API rate limit window")
+                .register(meterRegistry);
+        Gauge.builder("github.api.rate.limit.limit", this, limiter -> limiter.rateLimit)
+                .description("Requests allowed per GitHub API rate limit window")
+                .register(meterRegistry);
+        Gauge.builder("github.api.rate.limit.reset", this, limiter -> limiter.resetTime.getEpochSecond())
+                .description("Time at which the GitHub API rate limit window resets, in seconds since the epoch")
+                .baseUnit("seconds")
+                .register(meterRegistry);
     }
 
     /**
@@ -49,12 +72,17 @@ public class GithubRateLimiter {
      * @throws InterruptedException if the thread is interrupted while waiting
      */
     public void waitIfNeeded() throws InterruptedException {
+        long start = System.nanoTime();
+        RateLimitWaitEvent event = new RateLimitWaitEvent();
+        event.begin();
+        String reason = RateLimitWaitEvent.LOCK;
         lock.lock();
         try {
             // Consider the buffer when checking remaining requests
             if (remainingRequests.get() <= bufferSize) {
                 long waitTimeMillis = Instant.now().until(resetTime, java.time.temporal.ChronoUnit.MILLIS);
                 if (waitTimeMillis > 0) {
+                    reason = RateLimitWaitEvent.BUFFER_ZONE;
                     log.warn("{} Rate limit reaching buffer zone ({} requests remaining, buffer size: {}). " +
                             "Waiting for {} seconds until reset", 
                             LOG_PREFIX, remainingRequests.get(), bufferSize, waitTimeMillis / 1000);
@@ -67,6 +95,14 @@ public class GithubRateLimiter {
             remainingRequests.decrementAndGet();
         } finally {
             lock.unlock();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.setReason(reason);
+                event.setRemaining(remainingRequests.get());
+                event.setResetTime(resetTime.toEpochMilli());
+                event.commit();
+            }
         }
     }
 
@@ -1,5 +1,6 @@
 package com.toulios.githubanalyzer.config;
 
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -11,11 +12,13 @@ import org.springframework.web.client.RestTemplate;
 public class AppConfig {
     /**
      * Bean for the RestTemplate.
+     * Built with the auto-configured builder, so its requests are recorded as {@code http.client.requests}.
      *
+     * @param builder the auto-configured builder
      * @return the RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        return builder.build();
     }
 }
@@ -0,0 +1,49 @@
+package com.toulios.githubanalyzer.config;
+
+import com.toulios.githubanalyzer.jfr.ChangeEventSendEvent;
+import com.toulios.githubanalyzer.jfr.RateLimitWaitEvent;
+import com.toulios.githubanalyzer.jfr.RefreshPageLoadEvent;
+import com.toulios.githubanalyzer.jfr.RefreshSaveEvent;
+import com.toulios.githubanalyzer.jfr.RepoDiffEvent;
+import com.toulios.githubanalyzer.jfr.RepoFetchEvent;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration class registering the custom flight recorder events of the refresh and change publishing.
+ * <p>
+ * The events are not registered unless {@code app.jfr.enabled} is set. Unregistered events are never enabled, so
+ * emitting them costs an allocation the JIT usually removes and a check of {@code isEnabled()}. Registered events are
+ * recorded by any recording that enables them, e.g. the {@code default} and {@code profile} settings.
+ */
+@Slf4j
+@Configuration
+public class FlightRecorderConfig {
+    private static final String LOG_PREFIX = "[FlightRecorderConfig]";
+
+    static final List<Class<? extends Event>> EVENTS = List.of(
+            RefreshPageLoadEvent.class,
+            RepoFetchEvent.class,
+            RepoDiffEvent.class,
+            RefreshSaveEvent.class,
+            RateLimitWaitEvent.class,
+            ChangeEventSendEvent.class);
+
+    public FlightRecorderConfig(@Value("${app.jfr.enabled:true}") boolean enabled) {
+        if (!FlightRecorder.isAvailable()) {
+            log.info("{} Flight recorder is not available, custom events are not registered", LOG_PREFIX);
+            return;
+        }
+        if (enabled) {
+            EVENTS.forEach(FlightRecorder::register);
+        } else {
+            EVENTS.forEach(FlightRecorder::unregister);
+        }
+        log.info("{} Custom flight recorder events {}", LOG_PREFIX, enabled ? "registered" : "not registered");
+    }
+}
@@ -0,0 +1,36 @@
+package com.toulios.githubanalyzer.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Configuration class declaring the repository change topic.
+ * Records are stamped with the broker append time, so consumers can measure the send-to-broker and
+ * broker-to-consumer stages of change propagation separately.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.kafka.topics.repo-changes}")
+    private String repoChangesTopic;
+
+    @Value("${app.kafka.topics.repo-changes-partitions:3}")
+    private int partitions;
+
+    /**
+     * Repository change topic, created on startup if it does not exist yet.
+     *
+     * @return the topic to create
+     */
+    @Bean
+    public NewTopic repoChangesTopic() {
+        return TopicBuilder.name(repoChangesTopic)
+                .partitions(partitions)
+                .config(TopicConfig.MESSAGE_TIMESTAMP_TYPE_CONFIG, "LogAppendTime")
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.toulios.githubanalyzer.config;
+
+import com.toulios.githubanalyzer.service.ReplicaStalenessGuard;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes the connections of read-only transactions to the replica while it is usable, and everything else to the
+ * primary.
+ * <p>
+ * The route is chosen when a connection is obtained, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers obtain the connection
+ * before the transaction is marked read-only, and the proxy defers that until the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaStalenessGuard stalenessGuard;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaStalenessGuard stalenessGuard) {
+        this.stalenessGuard = stalenessGuard;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && stalenessGuard.isReplicaUsable()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,31 @@
+package com.toulios.githubanalyzer.config;
+
+import com.toulios.githubanalyzer.dto.request.ExportFormat;
+import com.toulios.githubanalyzer.dto.request.SseOverflowPolicy;
+import com.toulios.githubanalyzer.dto.request.StatsDimension;
+import com.toulios.githubanalyzer.model.TrendingWindow;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration class for Spring MVC.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Registers converters for request parameters.
+     * Trending windows are accepted by label (e.g. "24h"), export formats by extension (e.g. "csv"),
+     * statistics dimensions and overflow policies by value (e.g. "licence", "disconnect"), as well as by name.
+     *
+     * @param registry the formatter registry
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, TrendingWindow.class, TrendingWindow::fromLabel);
+        registry.addConverter(String.class, ExportFormat.class, ExportFormat::fromValue);
+        registry.addConverter(String.class, StatsDimension.class, StatsDimension::fromValue);
+        registry.addConverter(String.class, SseOverflowPolicy.class, SseOverflowPolicy::fromValue);
+    }
+}
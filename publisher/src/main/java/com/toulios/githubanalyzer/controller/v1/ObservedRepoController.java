@@ -1,17 +1,33 @@
 package com.toulios.githubanalyzer.controller.v1;
 
 import com.toulios.githubanalyzer.config.ApiVersionConfig;
+import com.toulios.githubanalyzer.dto.request.ExportFormat;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoBatchRequest;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoRequest;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoUpdateRequest;
+import com.toulios.githubanalyzer.dto.request.RepoChangeSubscription;
+import com.toulios.githubanalyzer.dto.request.SseOverflowPolicy;
+import com.toulios.githubanalyzer.dto.request.StatsDimension;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoBatchResponse;
 import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
 import com.toulios.githubanalyzer.dto.response.PaginatedResponse;
+import com.toulios.githubanalyzer.dto.response.RepoStatsResponse;
+import com.toulios.githubanalyzer.dto.response.TrendingRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.model.TrendingWindow;
 import com.toulios.githubanalyzer.service.ObservedRepoCrudService;
+import com.toulios.githubanalyzer.service.ObservedRepoExportService;
+import com.toulios.githubanalyzer.service.ObservedRepoStatsTracker;
+import com.toulios.githubanalyzer.service.RepoChangeBroadcaster;
+import com.toulios.githubanalyzer.service.TrendingRepoTracker;
+import com.toulios.githubanalyzer.util.ETagUtils;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Parameters;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,8 +35,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for managing GitHub repositories.
@@ -31,8 +56,13 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Tag(name = "Repository Management", description = "Endpoints for managing observed GitHub repositories")
 public class ObservedRepoController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
 
     private final ObservedRepoCrudService service;
+    private final TrendingRepoTracker trendingRepoTracker;
+    private final ObservedRepoExportService exportService;
+    private final ObservedRepoStatsTracker statsTracker;
+    private final RepoChangeBroadcaster changeBroadcaster;
 
     @Operation(
             summary = "Create or update repository",
@@ -59,7 +89,8 @@ public class ObservedRepoController {
 
     @Operation(
             summary = "Get repository by ID",
-            description = "Retrieves a repository by its unique identifier"
+            description = "Retrieves a repository by its unique identifier. The response carries a weak ETag; "
+                    + "a request whose If-None-Match matches it is answered with 304 Not Modified and no body."
     )
     @ApiResponse(
             responseCode = "200",
@@ -69,6 +100,11 @@ public class ObservedRepoController {
                     schema = @Schema(implementation = ObservedRepoResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Repository not modified since the given ETag",
+            content = @Content
+    )
     @ApiResponse(
             responseCode = "404",
             description = "Repository not found",
@@ -77,12 +113,93 @@ public class ObservedRepoController {
     @GetMapping("/{id}")
     public ResponseEntity<ObservedRepoResponse> getById(
             @Parameter(description = "Repository ID") @PathVariable Long id) {
-        return ResponseEntity.ok(service.getById(id));
+        ObservedRepoResponse response = service.getById(id);
+        return conditional(response, ETagUtils.of(response));
+    }
+
+    @Operation(
+            summary = "Get repositories in batch",
+            description = "Retrieves up to 1000 repositories by id and up to 1000 by owner and name with a single "
+                    + "query. Results follow the request order, ids first, and contain every repository once; "
+                    + "keys that match no repository are listed in missingIds and missingRepos."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Repositories retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ObservedRepoBatchResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input data or too many keys",
+            content = @Content
+    )
+    @PostMapping("/batch")
+    @RateLimiter(name = "observedRepoApi")
+    public ResponseEntity<ObservedRepoBatchResponse> getBatch(@Valid @RequestBody ObservedRepoBatchRequest request) {
+        return ResponseEntity.ok(service.getBatch(request));
+    }
+
+    @Operation(
+            summary = "List trending repositories",
+            description = "Retrieves the repositories that gained the most stars within the given window (1h, 24h or 7d)"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Trending repositories retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = TrendingRepoResponse.class))
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown window",
+            content = @Content
+    )
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingRepoResponse>> getTrending(
+            @Parameter(description = "Window to rank by: 1h, 24h or 7d") @RequestParam(defaultValue = "24h") TrendingWindow window,
+            @Parameter(description = "Maximum number of repositories to return") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(trendingRepoTracker.getTrending(window, limit));
+    }
+
+    @Operation(
+            summary = "Get repository statistics",
+            description = "Retrieves repository counts and star totals grouped by licence, owner or status, largest "
+                    + "groups first. Statistics are maintained incrementally in memory and reconciled periodically "
+                    + "against the database."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = RepoStatsResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown dimension or status",
+            content = @Content
+    )
+    @GetMapping("/stats")
+    public ResponseEntity<RepoStatsResponse> getStats(
+            @Parameter(description = "Dimension to group by: licence, owner or status") @RequestParam(defaultValue = "licence") StatsDimension by,
+            @Parameter(description = "Restrict the statistics to repositories with this status") @RequestParam(required = false) ObservedRepoStatus status,
+            @Parameter(description = "Maximum number of groups to return") @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(statsTracker.getStats(by, status, limit));
     }
 
     @Operation(
             summary = "List all repositories",
-            description = "Retrieves all repositories in a paginated way with optional filtering"
+            description = "Retrieves all repositories in a paginated way with optional filtering. "
+                    + "With paging=cursor, pages are read by keyset without counting rows and link to the adjacent "
+                    + "pages by opaque cursors that keep the filter, sort and size; supported sorts are id, createdAt "
+                    + "and updatedAt. The response carries a weak ETag; a request whose If-None-Match matches it is "
+                    + "answered with 304 Not Modified and no body."
     )
     @ApiResponse(
             responseCode = "200",
@@ -92,6 +209,16 @@ public class ObservedRepoController {
                     schema = @Schema(implementation = PaginatedResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Page not modified since the given ETag",
+            content = @Content
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or sort not supported by cursor pagination",
+            content = @Content
+    )
     @Parameters({
             @Parameter(
                     name = "owner",
@@ -118,8 +245,95 @@ public class ObservedRepoController {
     @RateLimiter(name = "observedRepoApi")
     public ResponseEntity<PaginatedResponse<ObservedRepoResponse>> listAll(
             @Parameter(hidden = true) ObservedRepoFilter filter,
-            @Parameter(description = "Pagination parameters") Pageable pageable) {
-        return ResponseEntity.ok(service.listAll(filter, pageable));
+            @Parameter(description = "Pagination parameters") Pageable pageable,
+            @Parameter(description = "Pagination mode: offset or cursor") @RequestParam(defaultValue = "offset") String paging,
+            @Parameter(description = "Cursor of the page to read, as returned in nextCursor or previousCursor")
+            @RequestParam(required = false) String cursor) {
+        PaginatedResponse<ObservedRepoResponse> page = cursor != null || "cursor".equalsIgnoreCase(paging)
+                ? service.listAllByCursor(filter, pageable, cursor)
+                : service.listAll(filter, pageable);
+        return conditional(page, ETagUtils.of(page));
+    }
+
+    @Operation(
+            summary = "Stream repository changes",
+            description = "Streams the changes of the repositories matching the filters as Server-Sent Events. Every "
+                    + "change is a 'change' event carrying the change event JSON. When the client falls behind by more "
+                    + "than the subscriber buffer, either the oldest changes are dropped and a 'dropped' event with "
+                    + "their count is sent, or the stream is closed."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Change stream opened",
+            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+    )
+    @ApiResponse(
+            responseCode = "503",
+            description = "Too many subscribers",
+            content = @Content
+    )
+    @Parameters({
+            @Parameter(name = "owner", description = "Only stream changes of this owner", in = ParameterIn.QUERY),
+            @Parameter(name = "ids", description = "Only stream changes of these repository ids", in = ParameterIn.QUERY),
+            @Parameter(name = "status", description = "Only stream changes leaving repositories in this status", in = ParameterIn.QUERY)
+    })
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @Parameter(hidden = true) RepoChangeSubscription subscription,
+            @Parameter(description = "What to do when the client falls behind: drop-oldest or disconnect")
+            @RequestParam(required = false) SseOverflowPolicy overflow) {
+        return changeBroadcaster.subscribe(subscription, overflow);
+    }
+
+    @Operation(
+            summary = "Export repositories",
+            description = "Streams every repository matching the filters as NDJSON or CSV in a single response, "
+                    + "ordered by id. The response is gzip-encoded when the client accepts it."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Export streamed successfully",
+            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown format",
+            content = @Content
+    )
+    @Parameters({
+            @Parameter(name = "owner", description = "Filter by repository owner", in = ParameterIn.QUERY),
+            @Parameter(name = "name", description = "Filter by repository name", in = ParameterIn.QUERY),
+            @Parameter(name = "status", description = "Filter by repository status", in = ParameterIn.QUERY),
+            @Parameter(name = "licence", description = "Filter by repository licence", in = ParameterIn.QUERY)
+    })
+    @GetMapping("/export")
+    @RateLimiter(name = "observedRepoApi")
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(hidden = true) ObservedRepoFilter filter,
+            @Parameter(description = "Export format: ndjson or csv") @RequestParam(defaultValue = "ndjson") ExportFormat format,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, GZIP_BUFFER_SIZE);
+                exportService.export(filter, format, gzipOutput);
+                gzipOutput.finish();
+            } else {
+                exportService.export(filter, format, output);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("observed-repos." + format.getExtension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @Operation(
@@ -168,4 +382,20 @@ public class ObservedRepoController {
             @Valid @RequestBody ObservedRepoUpdateRequest request) {
         return ResponseEntity.ok(service.update(id, request));
     }
-} 
\ No newline at end of file
+
+    /**
+     * Builds a response tagged with an ETag that caches must revalidate.
+     * When the If-None-Match header of a GET request matches the tag, Spring MVC answers 304 Not Modified
+     * without serializing the body.
+     *
+     * @param body the response body
+     * @param eTag the weak entity tag of the body
+     * @return the response
+     */
+    private <T> ResponseEntity<T> conditional(T body, String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+}
@@ -0,0 +1,72 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import com.toulios.githubanalyzer.exception.InvalidCursorException;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enum representing the fields cursor pagination can sort by.
+ * Only non-null columns are supported, so the position of every row is well defined. Ties are broken by id.
+ */
+public enum CursorSortField {
+    ID("id", ObservedRepoResponse::getId),
+    CREATED_AT("createdAt", ObservedRepoResponse::getCreatedAt),
+    UPDATED_AT("updatedAt", ObservedRepoResponse::getUpdatedAt);
+
+    private final String property;
+    private final Function<ObservedRepoResponse, Object> accessor;
+
+    CursorSortField(String property, Function<ObservedRepoResponse, Object> accessor) {
+        this.property = property;
+        this.accessor = accessor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Returns the sort value of a repository as stored in a cursor. Timestamps keep their full precision.
+     *
+     * @param repo the repository
+     * @return the sort value
+     */
+    public String valueOf(ObservedRepoResponse repo) {
+        return String.valueOf(accessor.apply(repo));
+    }
+
+    /**
+     * Parses a sort value stored in a cursor.
+     *
+     * @param value the sort value
+     * @return the typed sort value
+     * @throws InvalidCursorException if the value does not match the field type
+     */
+    public Comparable<?> parse(String value) {
+        try {
+            return this == ID ? Long.valueOf(value) : LocalDateTime.parse(value);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor position");
+        }
+    }
+
+    /**
+     * Resolves a field from its entity property name.
+     *
+     * @param property the property name
+     * @return the matching field
+     * @throws InvalidCursorException if cursor pagination does not support sorting by the property
+     */
+    public static CursorSortField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(field -> field.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new InvalidCursorException("Cursor pagination can only sort by one of: "
+                        + Arrays.stream(values()).map(CursorSortField::getProperty).collect(Collectors.joining(", "))));
+    }
+}
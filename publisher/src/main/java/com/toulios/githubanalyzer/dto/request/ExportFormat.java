@@ -0,0 +1,41 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing the formats the repository catalogue can be exported in.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Resolves a format from its extension (e.g. "csv") or its enum name.
+     *
+     * @param value the extension or name
+     * @return the matching format
+     * @throws IllegalArgumentException if no format matches
+     */
+    public static ExportFormat fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(format -> format.extension.equalsIgnoreCase(value) || format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + value));
+    }
+}
@@ -0,0 +1,24 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO class for batch lookups of repositories by id and by owner and name
+ */
+@Data
+public class ObservedRepoBatchRequest {
+    public static final int MAX_KEYS = 1000;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " ids can be requested at once")
+    private List<@NotNull Long> ids = new ArrayList<>();
+
+    @Valid
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " repositories can be requested at once")
+    private List<@NotNull ObservedRepoKey> repos = new ArrayList<>();
+}
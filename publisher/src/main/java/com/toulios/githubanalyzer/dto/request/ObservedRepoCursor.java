@@ -0,0 +1,61 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+/**
+ * Decoded keyset pagination cursor.
+ * Besides the position, it carries the filter, sort and page size of the listing, so following a cursor
+ * always continues the same listing.
+ *
+ * @param owner the owner filter
+ * @param name the name filter
+ * @param status the status filter
+ * @param licence the licence filter
+ * @param sort the sort field
+ * @param descending whether the listing is sorted in descending order
+ * @param size the page size
+ * @param value the sort value of the row the page starts after, or null for the first page
+ * @param id the id of the row the page starts after, or null for the first page
+ * @param backward whether the page is the one before the row instead of after it
+ */
+public record ObservedRepoCursor(String owner,
+                                 String name,
+                                 ObservedRepoStatus status,
+                                 String licence,
+                                 CursorSortField sort,
+                                 boolean descending,
+                                 int size,
+                                 String value,
+                                 Long id,
+                                 boolean backward) {
+
+    /**
+     * Returns the filter of the listing.
+     *
+     * @return the filter
+     */
+    public ObservedRepoFilter filter() {
+        return ObservedRepoFilter.builder().owner(owner).name(name).status(status).licence(licence).build();
+    }
+
+    /**
+     * Returns whether the cursor points to the first page of the listing.
+     *
+     * @return true if the cursor carries no position
+     */
+    public boolean isFirstPage() {
+        return id == null;
+    }
+
+    /**
+     * Returns a cursor of the same listing positioned at the given row.
+     *
+     * @param value the sort value of the row
+     * @param id the id of the row
+     * @param backward whether the cursor points to the page before the row
+     * @return the positioned cursor
+     */
+    public ObservedRepoCursor at(String value, Long id, boolean backward) {
+        return new ObservedRepoCursor(owner, name, status, licence, sort, descending, size, value, id, backward);
+    }
+}
@@ -0,0 +1,20 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO class identifying a repository by owner and name
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObservedRepoKey {
+    @NotBlank(message = "Owner is required")
+    private String owner;
+
+    @NotBlank(message = "Repository name is required")
+    private String name;
+}
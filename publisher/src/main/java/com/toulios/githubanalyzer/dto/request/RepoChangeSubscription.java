@@ -0,0 +1,33 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * DTO class for the filter of a subscription to repository changes.
+ * Every criterion that is set must match; a subscription without criteria receives every change.
+ */
+@Data
+@Builder
+public class RepoChangeSubscription {
+    private String owner;
+    private List<Long> ids;
+    private ObservedRepoStatus status;
+
+    /**
+     * Checks whether a change matches the subscription.
+     *
+     * @param event the change event
+     * @return true if the change should be delivered to the subscriber
+     */
+    public boolean matches(RepoChangeEvent event) {
+        return (!StringUtils.hasText(owner) || owner.equalsIgnoreCase(event.getOwner()))
+                && (ids == null || ids.isEmpty() || ids.contains(event.getRepoId()))
+                && (status == null || status == event.getStatus());
+    }
+}
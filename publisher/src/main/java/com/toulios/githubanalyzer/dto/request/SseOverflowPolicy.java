@@ -0,0 +1,37 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing what happens when the buffer of a slow change stream subscriber is full.
+ */
+public enum SseOverflowPolicy {
+    /** The oldest buffered change is dropped and the subscriber is told how many changes it missed */
+    DROP_OLDEST("drop-oldest"),
+    /** The subscriber is disconnected and has to reconnect and resynchronize */
+    DISCONNECT("disconnect");
+
+    private final String value;
+
+    SseOverflowPolicy(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves a policy from its value (e.g. "disconnect") or its enum name.
+     *
+     * @param value the value or name
+     * @return the matching policy
+     * @throws IllegalArgumentException if no policy matches
+     */
+    public static SseOverflowPolicy fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(policy -> policy.value.equalsIgnoreCase(value) || policy.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown overflow policy: " + value));
+    }
+}
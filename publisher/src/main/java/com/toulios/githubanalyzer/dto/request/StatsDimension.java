@@ -0,0 +1,36 @@
+package com.toulios.githubanalyzer.dto.request;
+
+import java.util.Arrays;
+
+/**
+ * Enum representing the dimensions repository statistics can be grouped by.
+ */
+public enum StatsDimension {
+    LICENCE("licence"),
+    OWNER("owner"),
+    STATUS("status");
+
+    private final String value;
+
+    StatsDimension(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves a dimension from its value (e.g. "licence") or its enum name.
+     *
+     * @param value the value or name
+     * @return the matching dimension
+     * @throws IllegalArgumentException if no dimension matches
+     */
+    public static StatsDimension fromValue(String value) {
+        return Arrays.stream(values())
+                .filter(dimension -> dimension.value.equalsIgnoreCase(value) || dimension.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown statistics dimension: " + value));
+    }
+}
@@ -0,0 +1,19 @@
+package com.toulios.githubanalyzer.dto.response;
+
+import com.toulios.githubanalyzer.dto.request.ObservedRepoKey;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO class for the response of a batch lookup.
+ * Results follow the order of the request, ids first, and contain every repository once.
+ */
+@Data
+@Builder
+public class ObservedRepoBatchResponse {
+    private List<ObservedRepoResponse> results;
+    private List<Long> missingIds;
+    private List<ObservedRepoKey> missingRepos;
+}
@@ -1,5 +1,6 @@
 package com.toulios.githubanalyzer.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import java.util.List;
 
 /**
  * A response object that contains a paginated list of results.
+ * In cursor mode it also carries the opaque cursors the next and previous URLs are built from.
  * @param <T> the type of the results
  */
 @Data
@@ -16,6 +18,10 @@ import java.util.List;
 public class PaginatedResponse<T> {
     private String next;
     private String previous;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String previousCursor;
     private List<T> results;
 
     /**
@@ -32,6 +38,41 @@ public class PaginatedResponse<T> {
                 .build();
     }
 
+    /**
+     * Creates a PaginatedResponse for a cursor page.
+     * @param results the results of the page
+     * @param baseUrl the base URL for the API
+     * @param nextCursor the cursor of the next page, or null if this is the last page
+     * @param previousCursor the cursor of the previous page, or null if this is the first page
+     * @return the PaginatedResponse
+     */
+    public static <T> PaginatedResponse<T> fromCursors(List<T> results, String baseUrl,
+                                                       String nextCursor, String previousCursor) {
+        return PaginatedResponse.<T>builder()
+                .next(createCursorUrl(nextCursor, baseUrl))
+                .previous(createCursorUrl(previousCursor, baseUrl))
+                .nextCursor(nextCursor)
+                .previousCursor(previousCursor)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Creates the URL for a cursor page. The filter and sort are encoded in the cursor.
+     * @param cursor the cursor of the page
+     * @param baseUrl the base URL for the API
+     * @return the URL for the page
+     */
+    private static String createCursorUrl(String cursor, String baseUrl) {
+        if (cursor == null) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUriString(baseUrl)
+                .queryParam("cursor", cursor)
+                .build()
+                .toUriString();
+    }
+
     /**
      * Creates the URL for the next page.
      * @param page the page to create the URL for
@@ -42,7 +83,7 @@ public class PaginatedResponse<T> {
         if (!page.hasNext()) {
             return null;
         }
-        return UriComponentsBuilder.fromUriString(baseUrl)
+        return withSort(UriComponentsBuilder.fromUriString(baseUrl), page)
                 .queryParam("page", page.getNumber() + 1)
                 .queryParam("size", page.getSize())
                 .build()
@@ -59,10 +100,21 @@ public class PaginatedResponse<T> {
         if (!page.hasPrevious()) {
             return null;
         }
-        return UriComponentsBuilder.fromUriString(baseUrl)
+        return withSort(UriComponentsBuilder.fromUriString(baseUrl), page)
                 .queryParam("page", page.getNumber() - 1)
                 .queryParam("size", page.getSize())
                 .build()
                 .toUriString();
     }
+
+    /**
+     * Adds the sort of a page to a URL, so following the links keeps the order.
+     * @param builder the URL builder
+     * @param page the page
+     * @return the URL builder
+     */
+    private static <T> UriComponentsBuilder withSort(UriComponentsBuilder builder, Page<T> page) {
+        page.getSort().forEach(order -> builder.queryParam("sort", order.getProperty() + "," + order.getDirection().name().toLowerCase()));
+        return builder;
+    }
 } 
\ No newline at end of file
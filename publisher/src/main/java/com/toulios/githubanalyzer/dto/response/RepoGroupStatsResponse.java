@@ -0,0 +1,15 @@
+package com.toulios.githubanalyzer.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO class for the statistics of one group of repositories
+ */
+@Data
+@Builder
+public class RepoGroupStatsResponse {
+    private String value;
+    private long repos;
+    private long stars;
+}
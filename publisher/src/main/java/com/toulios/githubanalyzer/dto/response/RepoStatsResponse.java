@@ -0,0 +1,24 @@
+package com.toulios.githubanalyzer.dto.response;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO class for repository statistics grouped by one dimension.
+ * Groups are ordered by repository count, largest first.
+ */
+@Data
+@Builder
+public class RepoStatsResponse {
+    private String groupedBy;
+    private ObservedRepoStatus status;
+    private long totalRepos;
+    private long totalStars;
+    private int totalGroups;
+    private List<RepoGroupStatsResponse> groups;
+    private Instant reconciledAt;
+}
@@ -0,0 +1,19 @@
+package com.toulios.githubanalyzer.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO class for a trending repository entry
+ */
+@Data
+@Builder
+public class TrendingRepoResponse {
+    private Long id;
+    private String owner;
+    private String name;
+    private Integer stars;
+    private long starsGained;
+    private double starsPerHour;
+    private String window;
+}
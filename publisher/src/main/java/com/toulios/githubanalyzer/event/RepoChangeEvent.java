@@ -1,19 +1,45 @@
 package com.toulios.githubanalyzer.event;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 /**
  * Event class representing a repository change.
+ * Besides the human-readable description of the changes, it carries the state of the repository
+ * after the change and the previous values of the fields consumers aggregate on.
+ * The stage timestamps are UTC instants serialized as ISO-8601 strings, so consumers can measure how long
+ * a change took to propagate from the GitHub fetch to each later stage.
  */
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class RepoChangeEvent {
     private Long repoId;
     private String changes;
     private LocalDateTime timestamp;
-} 
\ No newline at end of file
+    private String owner;
+    private String name;
+    private String licence;
+    private Integer stars;
+    private Integer previousStars;
+    private Integer openIssues;
+    private ObservedRepoStatus status;
+    private ObservedRepoStatus previousStatus;
+    /** When the new values were fetched from GitHub; null for changes made through the API */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant fetchedAt;
+    /** When the new values were persisted */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant persistedAt;
+    /** When the event was handed to the Kafka producer */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private Instant sentAt;
+}
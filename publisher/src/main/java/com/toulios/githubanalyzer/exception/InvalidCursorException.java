@@ -0,0 +1,10 @@
+package com.toulios.githubanalyzer.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded or a cursor page is requested with unsupported parameters.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
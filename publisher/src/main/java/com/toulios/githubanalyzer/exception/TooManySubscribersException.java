@@ -0,0 +1,10 @@
+package com.toulios.githubanalyzer.exception;
+
+/**
+ * Exception thrown when the change stream already serves the maximum number of subscribers.
+ */
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
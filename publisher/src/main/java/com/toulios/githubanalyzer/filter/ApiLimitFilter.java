@@ -0,0 +1,179 @@
+package com.toulios.githubanalyzer.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.config.ApiVersionConfig;
+import com.toulios.githubanalyzer.dto.response.ErrorResponse;
+import com.toulios.githubanalyzer.service.AdaptiveConcurrencyLimiter;
+import com.toulios.githubanalyzer.service.ClientRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Protects the API from clients sending too many requests and from more concurrent requests than it can handle.
+ * <p>
+ * Every request to the API first takes a token from the rate limit of its client, identified by the
+ * {@code api-key-header} if it carries one of the configured {@code api-keys} and by its address otherwise, and is
+ * then admitted by the adaptive concurrency limit. Unknown keys are ignored, so a client cannot dodge its limit by
+ * rotating keys. Rejected requests get {@code 429 Too Many Requests} with a {@code Retry-After} header and are
+ * counted in {@code api.limit.rejected}, tagged with the limit that rejected them.
+ * <p>
+ * Requests that continue asynchronously, such as the export, hold their place in the concurrency limit until the
+ * asynchronous request completes, since they keep a database connection busy meanwhile, but do not contribute to its
+ * latency. The change stream is the exception: it is released when its handler returns, as its subscribers are
+ * bounded by the broadcaster and hold no database connection while they wait for changes.
+ */
+@Slf4j
+@Component
+public class ApiLimitFilter extends OncePerRequestFilter {
+    private static final String LOG_PREFIX = "[ApiLimitFilter]";
+    private static final String CHANGE_STREAM_PATH = ApiVersionConfig.BASE_API_PATH + "/observed-repos/changes";
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final Counter clientRejections;
+    private final Counter concurrencyRejections;
+
+    public ApiLimitFilter(ClientRateLimiter clientRateLimiter,
+                          AdaptiveConcurrencyLimiter concurrencyLimiter,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.api-limits.client.api-key-header:X-API-Key}") String apiKeyHeader,
+                          @Value("${app.api-limits.client.api-keys:}") Set<String> apiKeys) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.clientRejections = rejections(meterRegistry, "client");
+        this.concurrencyRejections = rejections(meterRegistry, "concurrency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + ApiVersionConfig.BASE_API_PATH + "/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration retryAfter = clientRateLimiter.tryAcquire(clientKey(request));
+        if (!retryAfter.isZero()) {
+            clientRejections.increment();
+            reject(response, retryAfter, "Rate limit exceeded. Please try again later.");
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejections.increment();
+            log.debug("{} Shedding {} {} at concurrency limit {}", LOG_PREFIX, request.getMethod(),
+                    request.getRequestURI(), concurrencyLimiter.getLimit());
+            reject(response, Duration.ofSeconds(1), "The service is overloaded. Please try again later.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+            completed = !async;
+        } finally {
+            if (completed) {
+                concurrencyLimiter.release(System.nanoTime() - start);
+            } else if (async && !isChangeStream(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+            } else {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private boolean isChangeStream(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + CHANGE_STREAM_PATH);
+    }
+
+    /**
+     * Identifies the client of a request by its API key if it is a configured one, or by its address otherwise.
+     */
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (StringUtils.hasText(apiKey) && apiKeys.contains(apiKey)) {
+            return "key:" + apiKey;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Duration retryAfter, String message) throws IOException {
+        // whole seconds, rounded up so the client does not retry too early
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(), message));
+    }
+
+    /**
+     * Releases the concurrency permit of an asynchronous request once, however the request ends.
+     */
+    private final class ReleaseOnCompletion implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the request is dispatched asynchronously again, keep the listener for the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("api.limit.rejected")
+                .description("API requests rejected with 429 Too Many Requests")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+}
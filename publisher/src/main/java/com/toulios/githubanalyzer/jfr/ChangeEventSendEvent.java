@@ -0,0 +1,41 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the send of a change event to Kafka until its acknowledgement.
+ * It is committed on the producer thread that completes the send.
+ */
+@Name("com.toulios.githubanalyzer.ChangeEventSend")
+@Label("Change Event Send")
+@Description("Send of a repository change event to Kafka until the broker acknowledged it")
+@Category({"GitHub Analyzer", "Kafka"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class ChangeEventSendEvent extends Event {
+
+    @Label("Repository Id")
+    private long repoId;
+
+    @Label("Topic")
+    private String topic;
+
+    @Label("Partition")
+    @Description("-1 when the send failed")
+    private int partition = -1;
+
+    @Label("Offset")
+    @Description("-1 when the send failed")
+    private long offset = -1;
+
+    @Label("Acknowledged")
+    private boolean acknowledged;
+}
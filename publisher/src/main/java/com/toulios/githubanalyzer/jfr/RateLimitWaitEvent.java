@@ -0,0 +1,40 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timestamp;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the wait for the GitHub API rate limit before a request.
+ */
+@Name("com.toulios.githubanalyzer.RateLimitWait")
+@Label("GitHub Rate Limit Wait")
+@Description("Wait for the GitHub API rate limit before a request")
+@Category({"GitHub Analyzer", "GitHub API"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class RateLimitWaitEvent extends Event {
+
+    /** The request only waited for other requests to take their turn. */
+    public static final String LOCK = "LOCK";
+    /** The remaining requests reached the buffer, so the request waited for the window to reset. */
+    public static final String BUFFER_ZONE = "BUFFER_ZONE";
+
+    @Label("Reason")
+    @Description("LOCK or BUFFER_ZONE")
+    private String reason;
+
+    @Label("Remaining Requests")
+    private int remaining;
+
+    @Label("Reset Time")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    private long resetTime;
+}
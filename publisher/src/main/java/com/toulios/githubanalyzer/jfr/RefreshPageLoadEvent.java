@@ -0,0 +1,29 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the load of a page of repositories by the refresh.
+ */
+@Name("com.toulios.githubanalyzer.RefreshPageLoad")
+@Label("Refresh Page Load")
+@Description("Load of a page of repositories to refresh")
+@Category({"GitHub Analyzer", "Refresh"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class RefreshPageLoadEvent extends Event {
+
+    @Label("Page")
+    private int page;
+
+    @Label("Repositories")
+    private int repos;
+}
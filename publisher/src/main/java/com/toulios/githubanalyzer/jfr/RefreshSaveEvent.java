@@ -0,0 +1,35 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the {@code saveAll} of a refreshed page of repositories.
+ */
+@Name("com.toulios.githubanalyzer.RefreshSave")
+@Label("Refresh Save")
+@Description("Save of a refreshed page of repositories")
+@Category({"GitHub Analyzer", "Refresh"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class RefreshSaveEvent extends Event {
+
+    @Label("Page")
+    private int page;
+
+    @Label("Repositories")
+    private int repos;
+
+    @Label("First Repository Id")
+    private long firstRepoId;
+
+    @Label("Last Repository Id")
+    private long lastRepoId;
+}
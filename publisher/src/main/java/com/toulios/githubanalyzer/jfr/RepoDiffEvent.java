@@ -0,0 +1,30 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the comparison of a refreshed repository with its previous values, including the
+ * publication of its changes.
+ */
+@Name("com.toulios.githubanalyzer.RepoDiff")
+@Label("Repository Diff")
+@Description("Comparison of a refreshed repository with its previous values and publication of its changes")
+@Category({"GitHub Analyzer", "Refresh"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class RepoDiffEvent extends Event {
+
+    @Label("Repository Id")
+    private long repoId;
+
+    @Label("Changed")
+    private boolean changed;
+}
@@ -0,0 +1,40 @@
+package com.toulios.githubanalyzer.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Registered;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Flight recorder event spanning the fetch of a repository from GitHub by the refresh.
+ */
+@Name("com.toulios.githubanalyzer.RepoFetch")
+@Label("Repository Fetch")
+@Description("Fetch of a repository from the GitHub API")
+@Category({"GitHub Analyzer", "Refresh"})
+@Registered(false)
+@StackTrace(false)
+@Setter
+public class RepoFetchEvent extends Event {
+
+    public static final String FOUND = "FOUND";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String FAILED = "FAILED";
+
+    @Label("Repository Id")
+    private long repoId;
+
+    @Label("Owner")
+    private String owner;
+
+    @Label("Name")
+    private String name;
+
+    @Label("Result")
+    @Description("FOUND, NOT_FOUND or FAILED")
+    private String result;
+}
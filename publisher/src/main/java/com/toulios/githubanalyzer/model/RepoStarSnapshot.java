@@ -0,0 +1,32 @@
+package com.toulios.githubanalyzer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing the star count of a repository at a point in time.
+ * A snapshot is only stored when the star count changes.
+ */
+@Entity
+@Table(name = "repo_star_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepoStarSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "repo_id", nullable = false)
+    private Long repoId;
+
+    @Column(nullable = false)
+    private Integer stars;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+}
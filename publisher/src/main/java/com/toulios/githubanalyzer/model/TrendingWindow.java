@@ -0,0 +1,52 @@
+package com.toulios.githubanalyzer.model;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Enum representing the time windows over which star velocity is ranked.
+ */
+public enum TrendingWindow {
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("24h", Duration.ofHours(24)),
+    SEVEN_DAYS("7d", Duration.ofDays(7));
+
+    private final String label;
+    private final Duration duration;
+
+    TrendingWindow(String label, Duration duration) {
+        this.label = label;
+        this.duration = duration;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the longest window, which bounds how much history has to be kept.
+     *
+     * @return the longest window
+     */
+    public static TrendingWindow longest() {
+        return SEVEN_DAYS;
+    }
+
+    /**
+     * Resolves a window from its label (e.g. "24h") or its enum name.
+     *
+     * @param value the label or name
+     * @return the matching window
+     * @throws IllegalArgumentException if no window matches
+     */
+    public static TrendingWindow fromLabel(String value) {
+        return Arrays.stream(values())
+                .filter(window -> window.label.equalsIgnoreCase(value) || window.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown trending window: " + value));
+    }
+}
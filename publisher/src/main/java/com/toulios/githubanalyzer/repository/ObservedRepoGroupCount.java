@@ -0,0 +1,18 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+/**
+ * Projection of the repository count and star total of one owner, licence and status combination.
+ */
+public interface ObservedRepoGroupCount {
+    String getOwner();
+
+    String getLicence();
+
+    ObservedRepoStatus getStatus();
+
+    long getRepos();
+
+    long getStars();
+}
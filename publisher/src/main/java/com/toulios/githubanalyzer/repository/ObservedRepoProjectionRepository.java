@@ -0,0 +1,67 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository fragment reading repositories straight into responses.
+ * The queries select the response columns instead of entities, so nothing is attached to the persistence context:
+ * no entity snapshots for dirty checking, no auditing callbacks and no copying through the mapper.
+ */
+public interface ObservedRepoProjectionRepository {
+
+    /**
+     * Finds the response of a repository by id.
+     *
+     * @param id the repository id
+     * @return the response, or empty if the repository does not exist
+     */
+    Optional<ObservedRepoResponse> findResponseById(Long id);
+
+    /**
+     * Finds a page of the responses of the repositories matching a specification, with the total count.
+     *
+     * @param spec     the filter
+     * @param pageable the page and sort
+     * @return the page of responses
+     */
+    Page<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Pageable pageable);
+
+    /**
+     * Finds the responses of every repository matching a specification.
+     *
+     * @param spec the filter
+     * @param sort the order
+     * @return the responses
+     */
+    List<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Sort sort);
+
+    /**
+     * Finds the first responses of the repositories matching a specification, without counting them.
+     *
+     * @param spec  the filter
+     * @param sort  the order
+     * @param limit the maximum number of responses
+     * @return the responses
+     */
+    List<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Sort sort, int limit);
+
+    /**
+     * Streams the responses of the repositories matching a specification, ordered by id.
+     * Rows are read from a server-side cursor in batches of {@code fetchSize}. Must be called within a transaction
+     * and closed.
+     *
+     * @param spec      the filter
+     * @param fetchSize the number of rows fetched per round trip
+     * @return the stream of responses
+     */
+    Stream<ObservedRepoResponse> streamAll(Specification<ObservedRepo> spec, int fetchSize);
+}
@@ -0,0 +1,131 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Criteria implementation of {@link ObservedRepoProjectionRepository}.
+ * Every query selects the response columns as tuples and marks the results read-only.
+ */
+public class ObservedRepoProjectionRepositoryImpl implements ObservedRepoProjectionRepository {
+
+    private static final List<String> COLUMNS = List.of(
+            "id", "name", "owner", "stars", "openIssues", "url", "createdAt", "updatedAt", "licence", "status");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ObservedRepoResponse> findResponseById(Long id) {
+        Specification<ObservedRepo> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return createQuery(byId, Sort.unsorted()).getResultStream()
+                .findFirst()
+                .map(ObservedRepoProjectionRepositoryImpl::toResponse);
+    }
+
+    @Override
+    public Page<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Pageable pageable) {
+        TypedQuery<Tuple> query = createQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ObservedRepoResponse> content = query.getResultList().stream()
+                .map(ObservedRepoProjectionRepositoryImpl::toResponse)
+                .toList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Sort sort) {
+        return createQuery(spec, sort)
+                .getResultList().stream()
+                .map(ObservedRepoProjectionRepositoryImpl::toResponse)
+                .toList();
+    }
+
+    @Override
+    public List<ObservedRepoResponse> findResponses(Specification<ObservedRepo> spec, Sort sort, int limit) {
+        return createQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(ObservedRepoProjectionRepositoryImpl::toResponse)
+                .toList();
+    }
+
+    @Override
+    public Stream<ObservedRepoResponse> streamAll(Specification<ObservedRepo> spec, int fetchSize) {
+        return createQuery(spec, Sort.by("id"))
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(ObservedRepoProjectionRepositoryImpl::toResponse);
+    }
+
+    /**
+     * Creates a read-only tuple query selecting the response columns of the repositories matching a specification.
+     */
+    private TypedQuery<Tuple> createQuery(Specification<ObservedRepo> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ObservedRepo> root = query.from(ObservedRepo.class);
+        query.multiselect(COLUMNS.stream().<Selection<?>>map(column -> root.get(column).alias(column)).toList());
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query).setHint(AvailableHints.HINT_READ_ONLY, true);
+    }
+
+    private long count(Specification<ObservedRepo> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ObservedRepo> root = query.from(ObservedRepo.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static ObservedRepoResponse toResponse(Tuple tuple) {
+        ObservedRepoResponse response = new ObservedRepoResponse();
+        response.setId(tuple.get("id", Long.class));
+        response.setName(tuple.get("name", String.class));
+        response.setOwner(tuple.get("owner", String.class));
+        response.setStars(tuple.get("stars", Integer.class));
+        response.setOpenIssues(tuple.get("openIssues", Integer.class));
+        response.setUrl(tuple.get("url", String.class));
+        response.setCreatedAt(tuple.get("createdAt", LocalDateTime.class));
+        response.setUpdatedAt(tuple.get("updatedAt", LocalDateTime.class));
+        response.setLicense(tuple.get("licence", String.class));
+        response.setStatus(tuple.get("status", ObservedRepoStatus.class));
+        return response;
+    }
+}
@@ -3,14 +3,21 @@ package com.toulios.githubanalyzer.repository;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for PublicRepoRepository entity
  */
 @Repository
-public interface ObservedRepoRepository extends JpaRepository<ObservedRepo, Long>, JpaSpecificationExecutor<ObservedRepo> {
+public interface ObservedRepoRepository extends JpaRepository<ObservedRepo, Long>, JpaSpecificationExecutor<ObservedRepo>,
+        ObservedRepoProjectionRepository {
     Optional<ObservedRepo> findByOwnerAndName(String owner, String name);
+
+    @Query("SELECT r.owner AS owner, r.licence AS licence, r.status AS status, COUNT(r) AS repos, "
+            + "COALESCE(SUM(r.stars), 0) AS stars FROM ObservedRepo r GROUP BY r.owner, r.licence, r.status")
+    List<ObservedRepoGroupCount> countGroups();
 } 
\ No newline at end of file
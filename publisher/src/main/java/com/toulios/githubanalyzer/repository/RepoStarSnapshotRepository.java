@@ -0,0 +1,36 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.model.RepoStarSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository interface for RepoStarSnapshot entity
+ */
+@Repository
+public interface RepoStarSnapshotRepository extends JpaRepository<RepoStarSnapshot, Long> {
+    List<RepoStarSnapshot> findByRecordedAtGreaterThanEqualOrderByRecordedAtAsc(Instant since);
+
+    /**
+     * Finds the latest snapshot of every repository recorded before a time, i.e. its star count at that time.
+     */
+    @Query("SELECT s FROM RepoStarSnapshot s WHERE s.recordedAt = (SELECT MAX(o.recordedAt) FROM RepoStarSnapshot o " +
+            "WHERE o.repoId = s.repoId AND o.recordedAt < :before)")
+    List<RepoStarSnapshot> findLatestRecordedBefore(Instant before);
+
+    /**
+     * Deletes the snapshots recorded before a cutoff, except the latest one of every repository,
+     * which remains its star count at the cutoff.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RepoStarSnapshot s WHERE s.recordedAt < :cutoff AND EXISTS (SELECT 1 FROM RepoStarSnapshot n " +
+            "WHERE n.repoId = s.repoId AND n.recordedAt > s.recordedAt AND n.recordedAt < :cutoff)")
+    int deleteSupersededBefore(Instant cutoff);
+}
@@ -0,0 +1,137 @@
+package com.toulios.githubanalyzer.seed;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the repositories of a CSV export ({@code GET /api/v1/observed-repos/export?format=csv}), so a dataset
+ * exported from one environment can be seeded into another. The ids of the export are not kept.
+ */
+class ExportCsvReader implements Iterator<SeedRow> {
+
+    static final String HEADER = "id,owner,name,stars,open_issues,url,licence,status,created_at,updated_at";
+    private static final int FIELDS = 10;
+
+    private final Reader reader;
+    private final List<String> fields = new ArrayList<>(FIELDS);
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private SeedRow next;
+
+    /**
+     * @param reader the export, read from its header. It should be buffered.
+     * @throws IllegalArgumentException if the export does not start with the expected header
+     */
+    ExportCsvReader(Reader reader) {
+        this.reader = reader;
+        if (!readRecord() || !HEADER.equals(String.join(",", fields))) {
+            throw new IllegalArgumentException("Expected a CSV export starting with the header: " + HEADER);
+        }
+        advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public SeedRow next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        SeedRow row = next;
+        advance();
+        return row;
+    }
+
+    private void advance() {
+        next = null;
+        long start = line;
+        while (next == null && readRecord()) {
+            if (fields.size() == 1 && fields.get(0).isEmpty()) {
+                continue;
+            }
+            if (fields.size() != FIELDS) {
+                throw new IllegalArgumentException("Expected " + FIELDS + " fields on line " + start + " but found "
+                        + fields.size());
+            }
+            try {
+                next = new SeedRow(fields.get(1), fields.get(2), integer(fields.get(3)), integer(fields.get(4)),
+                        text(fields.get(5)), text(fields.get(6)), ObservedRepoStatus.valueOf(fields.get(7)),
+                        timestamp(fields.get(8)), timestamp(fields.get(9)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid repository on line " + start + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads the fields of the next record (RFC 4180).
+     *
+     * @return false at the end of the input
+     */
+    private boolean readRecord() {
+        fields.clear();
+        field.setLength(0);
+        try {
+            int c = reader.read();
+            if (c < 0) {
+                return false;
+            }
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IllegalArgumentException("Unterminated quoted field on line " + line);
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c < 0 || c == '\n') {
+                    line++;
+                    break;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String text(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer integer(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static LocalDateTime timestamp(String value) {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,92 @@
+package com.toulios.githubanalyzer.seed;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts the rows with multi-row {@code INSERT} statements, for databases without {@code COPY}.
+ * A full statement is prepared once and reused, the rows left at the end of a chunk use a shorter statement.
+ */
+class MultiRowInsertWriter implements SeedRowWriter {
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Connection connection;
+    private final int rowsPerStatement;
+    private final List<SeedRow> pending;
+    private PreparedStatement fullStatement;
+
+    /**
+     * @param connection a connection with auto-commit disabled
+     * @param rowsPerStatement the number of rows of every statement
+     */
+    MultiRowInsertWriter(Connection connection, int rowsPerStatement) {
+        this.connection = connection;
+        this.rowsPerStatement = rowsPerStatement;
+        this.pending = new ArrayList<>(rowsPerStatement);
+    }
+
+    @Override
+    public void write(SeedRow row) throws SQLException {
+        pending.add(row);
+        if (pending.size() == rowsPerStatement) {
+            if (fullStatement == null) {
+                fullStatement = connection.prepareStatement(insertSql(rowsPerStatement));
+            }
+            insert(fullStatement);
+        }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        if (!pending.isEmpty()) {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql(pending.size()))) {
+                insert(statement);
+            }
+        }
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (fullStatement != null) {
+            fullStatement.close();
+        }
+    }
+
+    private void insert(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        for (SeedRow row : pending) {
+            statement.setString(index++, row.owner());
+            statement.setString(index++, row.name());
+            setInteger(statement, index++, row.stars());
+            setInteger(statement, index++, row.openIssues());
+            statement.setString(index++, row.url());
+            statement.setString(index++, row.licence());
+            statement.setString(index++, row.status().name());
+            statement.setTimestamp(index++, row.createdAt() == null ? null : Timestamp.valueOf(row.createdAt()));
+            statement.setTimestamp(index++, row.updatedAt() == null ? null : Timestamp.valueOf(row.updatedAt()));
+        }
+        statement.executeUpdate();
+        pending.clear();
+    }
+
+    private static void setInteger(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    static String insertSql(int rows) {
+        return "INSERT INTO observed_repo (" + COLUMNS + ") VALUES "
+                + String.join(", ", Collections.nCopies(rows, ROW_PLACEHOLDERS));
+    }
+}
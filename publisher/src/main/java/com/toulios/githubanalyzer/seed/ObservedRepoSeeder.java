@@ -0,0 +1,220 @@
+package com.toulios.githubanalyzer.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+
+/**
+ * Command line tool that fills the {@code observed_repo} table with a large dataset, either generated by
+ * {@link SyntheticRepoGenerator} or read from a CSV export, for load tests and query plan checks at production
+ * scale. It does not start the application and connects to the database of {@code SPRING_DATASOURCE_URL},
+ * {@code SPRING_DATASOURCE_USERNAME} and {@code SPRING_DATASOURCE_PASSWORD}, which the Flyway migrations of the
+ * application must have created.
+ * <p>
+ * On PostgreSQL the rows are streamed with {@code COPY}, on other databases they are inserted with multi-row
+ * {@code INSERT} statements. Every chunk of rows is committed on its own, so an interrupted run keeps the rows
+ * seeded so far.
+ * <p>
+ * The seeded rows bypass the application, so its aggregated statistics include them at the next reconciliation
+ * ({@code app.stats.reconcile-rate}) or restart.
+ */
+@Slf4j
+public final class ObservedRepoSeeder {
+    private static final String LOG_PREFIX = "[ObservedRepoSeeder]";
+    private static final String USAGE = """
+            Usage: ObservedRepoSeeder [options]
+              --rows=<n>                 repositories to generate (default 1000000)
+              --seed=<n>                 seed of the generator, the same seed generates the same rows (default 42)
+              --input=<file>             seed the repositories of a CSV export instead of generating them
+              --chunk-size=<n>           rows committed per transaction (default 100000)
+              --rows-per-statement=<n>   rows per INSERT statement when COPY is not used (default 1000)
+              --method=auto|copy|insert  how rows are written (default auto: COPY on PostgreSQL)
+              --truncate                 delete every repository and star snapshot first
+              --url=<jdbc url> --username=<user> --password=<password>
+                                         override the SPRING_DATASOURCE_* environment variables""";
+
+    private final Connection connection;
+    private final Options options;
+
+    ObservedRepoSeeder(Connection connection, Options options) {
+        this.connection = connection;
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.println(USAGE);
+            return;
+        }
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(options.url(), options.username(), options.password())) {
+            new ObservedRepoSeeder(connection, options).seed();
+        }
+    }
+
+    /**
+     * Seeds the repositories and analyzes the table, so the planner sees the new row counts right away.
+     *
+     * @return the number of seeded repositories
+     */
+    long seed() throws SQLException, IOException {
+        boolean postgres = isPostgres();
+        boolean copy = switch (options.method()) {
+            case AUTO -> postgres;
+            case COPY -> {
+                if (!postgres) {
+                    throw new IllegalArgumentException("COPY is only supported on PostgreSQL");
+                }
+                yield true;
+            }
+            case INSERT -> false;
+        };
+        connection.setAutoCommit(false);
+        if (options.truncate()) {
+            truncate(postgres);
+        }
+
+        log.info("{} Seeding {} with {}", LOG_PREFIX,
+                options.input() == null ? options.rows() + " generated repositories" : options.input(),
+                copy ? "COPY" : "INSERT statements of " + options.rowsPerStatement() + " rows");
+        long start = System.nanoTime();
+        long count;
+        try (SeedRowWriter writer = copy
+                ? new PostgresCopyWriter(connection)
+                : new MultiRowInsertWriter(connection, options.rowsPerStatement())) {
+            if (options.input() == null) {
+                count = write(new SyntheticRepoGenerator(options.rows(), options.seed(), LocalDateTime.now()), writer,
+                        start);
+            } else {
+                try (BufferedReader reader = Files.newBufferedReader(options.input(), StandardCharsets.UTF_8)) {
+                    count = write(new ExportCsvReader(reader), writer, start);
+                }
+            }
+        }
+
+        if (postgres) {
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE observed_repo");
+            }
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("{} Seeded {} repositories in {} ms ({} rows/s)", LOG_PREFIX, count, elapsedMillis,
+                count * 1000 / elapsedMillis);
+        return count;
+    }
+
+    private long write(Iterator<SeedRow> rows, SeedRowWriter writer, long start) throws SQLException {
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.write(rows.next());
+            if (++count % options.chunkSize() == 0) {
+                writer.commit();
+                long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                log.info("{} Committed {} repositories ({} rows/s)", LOG_PREFIX, count, count * 1000 / elapsedMillis);
+            }
+        }
+        writer.commit();
+        return count;
+    }
+
+    private void truncate(boolean postgres) throws SQLException {
+        log.info("{} Deleting every repository and star snapshot", LOG_PREFIX);
+        try (Statement statement = connection.createStatement()) {
+            if (postgres) {
+                statement.execute("TRUNCATE observed_repo, repo_star_snapshot RESTART IDENTITY");
+            } else {
+                statement.execute("DELETE FROM repo_star_snapshot");
+                statement.execute("DELETE FROM observed_repo");
+            }
+        }
+        connection.commit();
+    }
+
+    private boolean isPostgres() throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                && connection.isWrapperFor(PGConnection.class);
+    }
+
+    enum Method {
+        AUTO, COPY, INSERT
+    }
+
+    /**
+     * Options of a run, parsed from {@code --name=value} arguments.
+     */
+    record Options(long rows, long seed, Path input, int chunkSize, int rowsPerStatement, Method method,
+                   boolean truncate, String url, String username, String password) {
+
+        static Options parse(String... args) {
+            long rows = 1_000_000;
+            long seed = 42;
+            Path input = null;
+            int chunkSize = 100_000;
+            int rowsPerStatement = 1000;
+            Method method = Method.AUTO;
+            boolean truncate = false;
+            String url = env("SPRING_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/githubanalyzer");
+            String username = env("SPRING_DATASOURCE_USERNAME", "postgres");
+            String password = env("SPRING_DATASOURCE_PASSWORD", "postgres");
+            for (String arg : args) {
+                if (arg.equals("--truncate")) {
+                    truncate = true;
+                    continue;
+                }
+                int separator = arg.indexOf('=');
+                if (!arg.startsWith("--") || separator < 0) {
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+                String value = arg.substring(separator + 1);
+                switch (arg.substring(2, separator)) {
+                    case "rows" -> rows = positive(arg, Long.parseLong(value));
+                    case "seed" -> seed = Long.parseLong(value);
+                    case "input" -> input = Path.of(value);
+                    case "chunk-size" -> chunkSize = (int) positive(arg, Integer.parseInt(value));
+                    case "rows-per-statement" -> rowsPerStatement = (int) positive(arg, Integer.parseInt(value));
+                    case "method" -> method = Method.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "url" -> url = value;
+                    case "username" -> username = value;
+                    case "password" -> password = value;
+                    default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+            }
+            return new Options(rows, seed, input, chunkSize, rowsPerStatement, method, truncate, url, username,
+                    password);
+        }
+
+        private static long positive(String arg, long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("Expected a positive value: " + arg);
+            }
+            return value;
+        }
+
+        private static String env(String name, String defaultValue) {
+            String value = System.getenv(name);
+            return value == null || value.isBlank() ? defaultValue : value;
+        }
+    }
+}
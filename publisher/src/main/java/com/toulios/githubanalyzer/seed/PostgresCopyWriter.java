@@ -0,0 +1,117 @@
+package com.toulios.githubanalyzer.seed;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Streams the rows into PostgreSQL with {@code COPY ... FROM STDIN}, which skips the parsing, planning and
+ * round trip of every statement. Each chunk of rows is a single {@code COPY} in its own transaction.
+ */
+class PostgresCopyWriter implements SeedRowWriter {
+
+    static final String COPY_SQL = "COPY observed_repo (" + COLUMNS + ") FROM STDIN (FORMAT text)";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final Connection connection;
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 4096);
+    private CopyIn copy;
+
+    /**
+     * @param connection a connection to PostgreSQL, with auto-commit disabled
+     */
+    PostgresCopyWriter(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void write(SeedRow row) throws SQLException {
+        append(row, buffer);
+        if (buffer.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        flush();
+        if (copy != null) {
+            copy.endCopy();
+            copy = null;
+        }
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copy != null && copy.isActive()) {
+            copy.cancelCopy();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        if (copy == null) {
+            copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Appends a row in the text format of {@code COPY}: tab separated columns, {@code \N} for nulls and
+     * backslash escapes for backslashes, tabs and line breaks.
+     */
+    static void append(SeedRow row, StringBuilder out) {
+        appendText(row.owner(), out);
+        out.append('\t');
+        appendText(row.name(), out);
+        out.append('\t');
+        appendValue(row.stars(), out);
+        out.append('\t');
+        appendValue(row.openIssues(), out);
+        out.append('\t');
+        appendText(row.url(), out);
+        out.append('\t');
+        appendText(row.licence(), out);
+        out.append('\t');
+        appendValue(row.status(), out);
+        out.append('\t');
+        appendValue(row.createdAt() == null ? null : Timestamp.valueOf(row.createdAt()), out);
+        out.append('\t');
+        appendValue(row.updatedAt() == null ? null : Timestamp.valueOf(row.updatedAt()), out);
+        out.append('\n');
+    }
+
+    private static void appendValue(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("\\N");
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static void appendText(String value, StringBuilder out) {
+        if (value == null) {
+            out.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+    }
+}
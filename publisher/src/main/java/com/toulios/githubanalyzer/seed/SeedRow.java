@@ -0,0 +1,12 @@
+package com.toulios.githubanalyzer.seed;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of the {@code observed_repo} table to seed, without its generated id.
+ */
+record SeedRow(String owner, String name, Integer stars, Integer openIssues, String url, String licence,
+               ObservedRepoStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,29 @@
+package com.toulios.githubanalyzer.seed;
+
+import java.sql.SQLException;
+
+/**
+ * Writes seed rows to the {@code observed_repo} table, committing every chunk of rows.
+ */
+interface SeedRowWriter extends AutoCloseable {
+
+    /**
+     * Columns written for every row, in order.
+     */
+    String COLUMNS = "repo_owner, repo_name, stars, open_issues, url, licence, repo_status, created_at, updated_at";
+
+    /**
+     * Writes a row. It may be buffered until the chunk is complete.
+     *
+     * @param row the row to write
+     */
+    void write(SeedRow row) throws SQLException;
+
+    /**
+     * Writes the buffered rows and commits them.
+     */
+    void commit() throws SQLException;
+
+    @Override
+    void close() throws SQLException;
+}
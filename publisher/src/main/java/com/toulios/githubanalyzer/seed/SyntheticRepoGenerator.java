@@ -0,0 +1,162 @@
+package com.toulios.githubanalyzer.seed;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a reproducible set of repositories whose distributions resemble the ones observed on GitHub:
+ * <ul>
+ *     <li>owners follow a Zipf distribution, a few organisations own a large share of the repositories</li>
+ *     <li>stars follow a power law, most repositories have a handful of stars and a few have hundreds of thousands</li>
+ *     <li>open issues grow with the stars</li>
+ *     <li>licences follow the share of the most common licences, with a fifth of the repositories unlicensed</li>
+ * </ul>
+ * Repository names are unique, so the pair of owner and name is unique as well.
+ */
+class SyntheticRepoGenerator implements Iterator<SeedRow> {
+
+    private static final String[] OWNER_ADJECTIVES = {
+            "quiet", "rapid", "bright", "open", "lazy", "brave", "clever", "silent", "golden", "cosmic",
+            "little", "happy", "iron", "misty", "solar", "wild", "frozen", "hidden", "lucky", "noble"};
+    private static final String[] OWNER_NOUNS = {
+            "otter", "labs", "works", "falcon", "forge", "systems", "panda", "cloud", "hub", "studio",
+            "collective", "maple", "tiger", "devs", "foundry", "orbit", "pixel", "harbor", "wolf", "software"};
+    private static final String[] NAME_PREFIXES = {
+            "awesome", "go", "py", "react", "spring", "rust", "node", "tiny", "fast", "simple",
+            "open", "kube", "vue", "java", "micro", "async", "easy", "smart", "light", "super"};
+    private static final String[] NAME_TOPICS = {
+            "parser", "cli", "api", "dashboard", "sdk", "toolkit", "bot", "server", "client", "utils",
+            "config", "scheduler", "cache", "router", "logger", "crawler", "template", "plugin", "engine", "notes"};
+
+    private static final String[] LICENCES = {
+            "MIT", null, "Apache-2.0", "GPL-3.0", "BSD-3-Clause", "GPL-2.0", "AGPL-3.0", "MPL-2.0", "LGPL-3.0",
+            "BSD-2-Clause", "Unlicense", "ISC"};
+    private static final double[] LICENCE_WEIGHTS = {
+            45, 20, 15, 7, 3, 2.5, 1.5, 1.5, 1.5, 1, 1, 1};
+
+    /**
+     * Exponent of the owner ranks. Above 1, the most popular owners keep a large share however many there are.
+     */
+    private static final double OWNER_EXPONENT = 1.2;
+    /**
+     * Tail exponent of the stars, the probability of more than {@code n} stars is {@code n^-0.9}.
+     */
+    private static final double STARS_EXPONENT = 0.9;
+    private static final int MAX_STARS = 500_000;
+    private static final int MAX_OPEN_ISSUES = 10_000;
+    private static final int REPOS_PER_OWNER = 25;
+    private static final long HISTORY_MINUTES = ChronoUnit.MINUTES.between(
+            LocalDateTime.of(2014, 1, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0));
+
+    private final SplittableRandom random;
+    private final long rows;
+    private final double ownerRanks;
+    private final double[] licenceThresholds;
+    private final LocalDateTime now;
+    private long generated;
+
+    /**
+     * @param rows the number of repositories to generate
+     * @param seed the seed of the generator, the same seed generates the same repositories
+     * @param now the latest update time of the repositories
+     */
+    SyntheticRepoGenerator(long rows, long seed, LocalDateTime now) {
+        this.random = new SplittableRandom(seed);
+        this.rows = rows;
+        this.ownerRanks = Math.max(1, rows / REPOS_PER_OWNER);
+        this.now = now.truncatedTo(ChronoUnit.SECONDS);
+        this.licenceThresholds = new double[LICENCE_WEIGHTS.length];
+        double total = 0;
+        for (double weight : LICENCE_WEIGHTS) {
+            total += weight;
+        }
+        double cumulative = 0;
+        for (int i = 0; i < LICENCE_WEIGHTS.length; i++) {
+            cumulative += LICENCE_WEIGHTS[i];
+            licenceThresholds[i] = cumulative / total;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return generated < rows;
+    }
+
+    @Override
+    public SeedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        long index = generated++;
+        String owner = ownerName(ownerRank());
+        String name = repoName(index);
+        int stars = stars();
+        LocalDateTime createdAt = now.minusMinutes(random.nextLong(HISTORY_MINUTES));
+        long age = ChronoUnit.MINUTES.between(createdAt, now);
+        LocalDateTime updatedAt = createdAt.plusMinutes(age == 0 ? 0 : random.nextLong(age + 1));
+        return new SeedRow(owner, name, stars, openIssues(stars), "https://github.com/" + owner + "/" + name,
+                licence(), status(), createdAt, updatedAt);
+    }
+
+    /**
+     * Samples an owner rank from a Zipf distribution, by inverting the CDF of its continuous approximation.
+     */
+    private long ownerRank() {
+        double u = random.nextDouble();
+        double oneMinusS = 1 - OWNER_EXPONENT;
+        double x = Math.pow((Math.pow(ownerRanks + 1, oneMinusS) - 1) * u + 1, 1 / oneMinusS);
+        return Math.min((long) x, (long) ownerRanks) - 1;
+    }
+
+    private static String ownerName(long rank) {
+        int words = OWNER_ADJECTIVES.length * OWNER_NOUNS.length;
+        String name = OWNER_ADJECTIVES[(int) (rank % OWNER_ADJECTIVES.length)] + "-"
+                + OWNER_NOUNS[(int) (rank / OWNER_ADJECTIVES.length % OWNER_NOUNS.length)];
+        return rank < words ? name : name + "-" + Long.toString(rank / words, 36);
+    }
+
+    private String repoName(long index) {
+        return NAME_PREFIXES[random.nextInt(NAME_PREFIXES.length)] + "-"
+                + NAME_TOPICS[random.nextInt(NAME_TOPICS.length)] + "-" + Long.toString(index, 36);
+    }
+
+    /**
+     * Samples the stars from a Pareto distribution shifted to start at zero.
+     */
+    private int stars() {
+        double u = 1 - random.nextDouble();
+        double stars = Math.pow(u, -1 / STARS_EXPONENT) - 1;
+        return (int) Math.min(stars, MAX_STARS);
+    }
+
+    private int openIssues(int stars) {
+        if (stars == 0) {
+            return random.nextInt(10) == 0 ? 1 : 0;
+        }
+        double issues = Math.sqrt(stars) * random.nextDouble() * 2;
+        return (int) Math.min(issues, MAX_OPEN_ISSUES);
+    }
+
+    private String licence() {
+        double u = random.nextDouble();
+        for (int i = 0; i < licenceThresholds.length; i++) {
+            if (u < licenceThresholds[i]) {
+                return LICENCES[i];
+            }
+        }
+        return LICENCES[LICENCES.length - 1];
+    }
+
+    private ObservedRepoStatus status() {
+        int percent = random.nextInt(100);
+        if (percent < 95) {
+            return ObservedRepoStatus.ACTIVE;
+        }
+        return percent < 99 ? ObservedRepoStatus.INVALID : ObservedRepoStatus.DELETED;
+    }
+}
@@ -0,0 +1,193 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of API requests handled at once, adapting the limit to the observed latency.
+ * <p>
+ * The limit follows additive increase, multiplicative decrease: every {@code window}, the average latency of the
+ * requests completed in the window is compared with the baseline, the lowest average seen so far. When it exceeds
+ * the baseline by more than {@code latency-tolerance} times, e.g. because requests queue for database connections,
+ * the limit is multiplied by {@code backoff-ratio}. Otherwise it grows by one if the window used at least half of it.
+ * Requests beyond the limit are rejected immediately, so excess load is shed before the connection pool is exhausted
+ * instead of queueing in it. The baseline drifts slowly towards the current latency, so a permanent change of the
+ * latency, e.g. a larger catalogue, does not keep the limit at its minimum.
+ * <p>
+ * Admitting and releasing requests is lock-free; the window is evaluated by the single request that closes it.
+ * The limit, the requests in flight and the baseline latency are exposed as {@code api.limit.concurrency.*} gauges.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+    private static final String LOG_PREFIX = "[AdaptiveConcurrencyLimiter]";
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart;
+    private volatile int limit;
+    private volatile double baselineNanos = Double.NaN;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${app.api-limits.concurrency.enabled:true}") boolean enabled,
+                                      @Value("${app.api-limits.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${app.api-limits.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${app.api-limits.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${app.api-limits.concurrency.window:PT1S}") Duration window,
+                                      @Value("${app.api-limits.concurrency.min-window-samples:10}") int minWindowSamples,
+                                      @Value("${app.api-limits.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${app.api-limits.concurrency.backoff-ratio:0.9}") double backoffRatio) {
+        this(meterRegistry, enabled, initialLimit, minLimit, maxLimit, window, minWindowSamples, latencyTolerance,
+                backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry, boolean enabled, int initialLimit, int minLimit,
+                               int maxLimit, Duration window, int minWindowSamples, double latencyTolerance,
+                               double backoffRatio, LongSupplier clock) {
+        this.enabled = enabled;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.windowNanos = window.toNanos();
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.clock = clock;
+        this.windowStart = new AtomicLong(clock.getAsLong());
+        Gauge.builder("api.limit.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current limit of API requests handled at once")
+                .register(meterRegistry);
+        Gauge.builder("api.limit.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("API requests currently handled")
+                .register(meterRegistry);
+        Gauge.builder("api.limit.concurrency.baseline.latency", this,
+                        limiter -> limiter.baselineNanos / TimeUnit.SECONDS.toNanos(1))
+                .description("Lowest average latency of API requests the limit is adapted to")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        log.info("{} Adaptive concurrency limiting {} (limit {}, between {} and {})",
+                LOG_PREFIX, enabled ? "enabled" : "disabled", limit, this.minLimit, this.maxLimit);
+    }
+
+    /**
+     * Admits a request if fewer requests than the limit are in flight.
+     * Every admitted request must be released exactly once.
+     *
+     * @return true if the request is admitted
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and records its latency.
+     *
+     * @param latencyNanos how long the request took
+     */
+    public void release(long latencyNanos) {
+        if (!enabled) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        windowLatencyNanos.add(latencyNanos);
+        windowSamples.increment();
+        long now = clock.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowSamples.sum() >= minWindowSamples
+                && windowStart.compareAndSet(start, now)) {
+            adjust();
+        }
+    }
+
+    /**
+     * Releases an admitted request whose latency does not reflect the load, e.g. a request that failed or continues
+     * asynchronously.
+     */
+    public void release() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of admitted requests that have not been released.
+     *
+     * @return the requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Adapts the limit to the window that just closed.
+     */
+    private void adjust() {
+        long samples = windowSamples.sumThenReset();
+        long latency = windowLatencyNanos.sumThenReset();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        double average = (double) latency / samples;
+        double baseline = baselineNanos;
+        if (Double.isNaN(baseline) || average < baseline) {
+            baselineNanos = average;
+        } else {
+            baselineNanos = baseline + (average - baseline) * BASELINE_DRIFT;
+        }
+
+        int current = limit;
+        if (!Double.isNaN(baseline) && average > baseline * latencyTolerance) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+            log.debug("{} Average latency {}ms over baseline {}ms, limit lowered from {} to {}", LOG_PREFIX,
+                    average / 1_000_000, baseline / 1_000_000, current, limit);
+        } else if (peak * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the request rate of every API client, identified by API key or address, independently.
+ * <p>
+ * Each client has a token bucket of {@code burst} requests refilled at {@code requests-per-second}, implemented as
+ * the generic cell rate algorithm: the state of a bucket is a single theoretical arrival time updated by
+ * compare-and-set, so admitting a request never takes a lock. Buckets live in a {@link ConcurrentHashMap}, whose
+ * reads are lock-free and whose writes only lock the bin they touch. A bucket whose arrival time is older than
+ * {@code idle-timeout} is full again and is evicted periodically. At most {@code max-clients} clients are tracked:
+ * clients first seen while the limit is reached share a single overflow bucket until idle clients are evicted, so
+ * clients rotating their identity cannot grow the map without bound nor escape the limit.
+ * <p>
+ * The number of tracked clients is exposed as the {@code api.limit.clients} gauge.
+ */
+@Slf4j
+@Component
+public class ClientRateLimiter {
+    private static final String LOG_PREFIX = "[ClientRateLimiter]";
+
+    private final boolean enabled;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long idleTimeoutNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+
+    @Autowired
+    public ClientRateLimiter(MeterRegistry meterRegistry,
+                             @Value("${app.api-limits.client.enabled:true}") boolean enabled,
+                             @Value("${app.api-limits.client.requests-per-second:20}") double requestsPerSecond,
+                             @Value("${app.api-limits.client.burst:40}") int burst,
+                             @Value("${app.api-limits.client.idle-timeout:PT5M}") Duration idleTimeout,
+                             @Value("${app.api-limits.client.max-clients:100000}") int maxClients) {
+        this(meterRegistry, enabled, requestsPerSecond, burst, idleTimeout, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(MeterRegistry meterRegistry, boolean enabled, double requestsPerSecond, int burst,
+                      Duration idleTimeout, int maxClients, LongSupplier clock) {
+        this.enabled = enabled;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(0, burst - 1);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.overflow = new AtomicLong(clock.getAsLong());
+        Gauge.builder("api.limit.clients", buckets, Map::size)
+                .description("API clients with a tracked rate limit")
+                .register(meterRegistry);
+        log.info("{} Client rate limiting {} ({} requests per second, burst {}, up to {} clients)",
+                LOG_PREFIX, enabled ? "enabled" : "disabled", requestsPerSecond, burst, maxClients);
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     *
+     * @param clientKey the client identifier
+     * @return zero if the request is permitted, otherwise how long the client has to wait for a token
+     */
+    public Duration tryAcquire(String clientKey) {
+        if (!enabled) {
+            return Duration.ZERO;
+        }
+        AtomicLong arrival = bucket(clientKey);
+        while (true) {
+            long now = clock.getAsLong();
+            long current = arrival.get();
+            long next = (current - now < 0 ? now : current) + emissionIntervalNanos;
+            long excess = next - now - burstToleranceNanos - emissionIntervalNanos;
+            if (excess > 0) {
+                return Duration.ofNanos(excess);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket of a client, or the overflow bucket if the client is new and the limit of tracked clients
+     * is reached. Concurrent new clients may exceed the limit by at most the number of concurrent requests.
+     */
+    private AtomicLong bucket(String clientKey) {
+        AtomicLong arrival = buckets.get(clientKey);
+        if (arrival != null) {
+            return arrival;
+        }
+        if (buckets.size() >= maxClients) {
+            log.debug("{} Tracking {} clients, rate limiting {} with the overflow bucket",
+                    LOG_PREFIX, buckets.size(), clientKey);
+            return overflow;
+        }
+        // an arrival time at or before now means a full bucket
+        return buckets.computeIfAbsent(clientKey, key -> new AtomicLong(clock.getAsLong()));
+    }
+
+    /**
+     * Returns the number of clients with a tracked bucket.
+     *
+     * @return the number of clients
+     */
+    public int getClientCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Evicts the buckets of the clients that have been idle for longer than the idle timeout.
+     * Their buckets are full, so a client that returns gets a new, equivalent one.
+     */
+    @Scheduled(fixedDelayString = "${app.api-limits.client.eviction-interval:60000}")
+    public void evictIdleClients() {
+        long now = clock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> now - arrival.get() > idleTimeoutNanos);
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("{} Evicted {} idle clients, {} remaining", LOG_PREFIX, evicted, buckets.size());
+        }
+    }
+}
@@ -3,40 +3,69 @@ package com.toulios.githubanalyzer.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.toulios.githubanalyzer.event.RepoChangeEvent;
-import lombok.RequiredArgsConstructor;
+import com.toulios.githubanalyzer.jfr.ChangeEventSendEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service class handling message sending to Kafka.
+ * The time from serializing an event until the broker acknowledges it is recorded as the
+ * {@code repo.change.event.send} timer, tagged with the result of the send, and as
+ * {@link ChangeEventSendEvent} flight recorder events.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MessageService {
     private static final String LOG_PREFIX = "[MessageService]";
     private final ObjectMapper objectMapper;
     private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Timer successfulSends;
+    private final Timer failedSends;
+
+    public MessageService(ObjectMapper objectMapper, KafkaTemplate<String, String> kafkaTemplate,
+                          MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.kafkaTemplate = kafkaTemplate;
+        this.successfulSends = sends(meterRegistry, "success");
+        this.failedSends = sends(meterRegistry, "failure");
+    }
 
     /**
-     * Sends a repository change event to Kafka.
+     * Sends a repository change event to Kafka, keyed by the repository id.
      *
-     * @param repoId ID of the repository that changed
-     * @param changes description of the changes
+     * @param topic the topic to send the event to
+     * @param event the change event; its timestamp and sentAt are set to the send time
      */
-    public void sendChangeEvent(String topic, Long repoId, String changes) throws JsonProcessingException {
-        RepoChangeEvent event = new RepoChangeEvent(
-            repoId,
-            changes,
-            LocalDateTime.now()
-        );
+    public void sendChangeEvent(String topic, RepoChangeEvent event) throws JsonProcessingException {
+        long start = System.nanoTime();
+        ChangeEventSendEvent sendEvent = new ChangeEventSendEvent();
+        sendEvent.begin();
+        Long repoId = event.getRepoId();
+        event.setTimestamp(LocalDateTime.now());
+        event.setSentAt(Instant.now());
 
         // Send message to Kafka
         kafkaTemplate.send(topic, repoId.toString(), objectMapper.writeValueAsString(event))
             .whenComplete((result, ex) -> {
+                (ex == null ? successfulSends : failedSends).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sendEvent.end();
+                if (sendEvent.shouldCommit()) {
+                    sendEvent.setRepoId(repoId);
+                    sendEvent.setTopic(topic);
+                    sendEvent.setAcknowledged(ex == null);
+                    if (result != null && result.getRecordMetadata() != null) {
+                        sendEvent.setPartition(result.getRecordMetadata().partition());
+                        sendEvent.setOffset(result.getRecordMetadata().offset());
+                    }
+                    sendEvent.commit();
+                }
                 if (ex == null) {
                     log.info("{} Successfully sent change event for repository id: {}", 
                             LOG_PREFIX, repoId);
@@ -46,4 +75,11 @@ public class MessageService {
                 }
             });
     }
-} 
\ No newline at end of file
+
+    private static Timer sends(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("repo.change.event.send")
+                .description("Time from serializing a change event until Kafka acknowledged it")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,133 @@
+package com.toulios.githubanalyzer.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of repository responses keyed by repository id.
+ * <p>
+ * The cache holds futures: a miss inserts an incomplete future and the caller loads the response outside the cache,
+ * so the blocking load never holds a lock of the cache, while concurrent lookups of the same repository wait for
+ * the same load. A repository invalidated while it is being loaded is not re-populated with the loaded response.
+ * <p>
+ * Entries are bounded by size and expire after a fixed time, so a change that was not invalidated explicitly,
+ * such as the {@code updatedAt} bump of a refresh without changes, is visible after at most the TTL.
+ * Invalidations issued inside a transaction are applied once it completes, so a concurrent read cannot
+ * re-populate the cache with the row as it was before the commit. Invalidated repositories are reported to the
+ * {@link ReplicaStalenessGuard}, and responses of repositories it still considers recently written are returned
+ * without being cached, so they are not re-populated from a lagging replica either.
+ * <p>
+ * Hits, misses and evictions are exposed as the {@code cache.*} metrics tagged {@code cache=observedRepos}.
+ */
+@Slf4j
+@Component
+public class ObservedRepoCache {
+    private static final String LOG_PREFIX = "[ObservedRepoCache]";
+    static final String CACHE_NAME = "observedRepos";
+
+    private final AsyncCache<Long, ObservedRepoResponse> cache;
+    private final ReplicaStalenessGuard stalenessGuard;
+
+    public ObservedRepoCache(MeterRegistry meterRegistry,
+                             ReplicaStalenessGuard stalenessGuard,
+                             @Value("${app.cache.observed-repos.maximum-size:10000}") long maximumSize,
+                             @Value("${app.cache.observed-repos.ttl:PT10M}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.stalenessGuard = stalenessGuard;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached response of a repository, loading and caching it on a miss.
+     * Repositories that do not exist are not cached.
+     *
+     * @param id the repository id
+     * @param loader loads the response of a repository that is not cached
+     * @return the response, or empty if the repository does not exist
+     */
+    public Optional<ObservedRepoResponse> get(Long id, Function<Long, Optional<ObservedRepoResponse>> loader) {
+        CompletableFuture<ObservedRepoResponse> created = new CompletableFuture<>();
+        CompletableFuture<ObservedRepoResponse> future = cache.get(id, (key, executor) -> created);
+        if (future == created) {
+            // completing with null removes the entry, so missing repositories are not cached
+            try {
+                ObservedRepoResponse response = loader.apply(id).orElse(null);
+                if (response != null && stalenessGuard.isRecentlyWritten(List.of(id))) {
+                    // the load may have read the replica before it had the write
+                    cache.asMap().remove(id, created);
+                }
+                created.complete(response);
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached responses of the given repositories, without loading the others.
+     *
+     * @param ids the repository ids
+     * @return the cached responses by id
+     */
+    public Map<Long, ObservedRepoResponse> getAllPresent(Collection<Long> ids) {
+        return cache.synchronous().getAllPresent(ids);
+    }
+
+    /**
+     * Invalidates the cached response of a repository, after the current transaction commits if there is one.
+     *
+     * @param id the repository id
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id);
+                }
+            });
+            return;
+        }
+        invalidate(id);
+    }
+
+    private void invalidate(Long id) {
+        // the replica may not have the change yet, so the next load must read the primary
+        stalenessGuard.recordWrite(id);
+        cache.synchronous().invalidate(id);
+        log.debug("{} Invalidated repository with id: {}", LOG_PREFIX, id);
+    }
+}
@@ -0,0 +1,63 @@
+package com.toulios.githubanalyzer.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Invalidates cached repositories changed by other publisher instances.
+ * Every instance is assigned all partitions of the repository change topic directly, outside any consumer group,
+ * starts reading at their end and never commits offsets, so no consumer group is left behind on the broker when an
+ * instance stops. The partitions are the {@code app.kafka.topics.repo-changes-partitions} the topic is created with.
+ * Every change event evicts its repository; events published by this instance are evicted a second time, which is
+ * harmless.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cache.observed-repos.cross-instance-invalidation", havingValue = "true")
+public class ObservedRepoCacheInvalidationListener implements ConsumerSeekAware {
+    private static final String LOG_PREFIX = "[ObservedRepoCacheInvalidationListener]";
+
+    private final ObservedRepoCache observedRepoCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Evicts the repository of a change event.
+     *
+     * @param value the change event as JSON
+     */
+    @KafkaListener(topicPartitions = @TopicPartition(topic = "${app.kafka.topics.repo-changes}",
+                          partitions = "0-#{${app.kafka.topics.repo-changes-partitions:3} - 1}"),
+                  properties = "enable.auto.commit=false")
+    public void onChange(String value) {
+        try {
+            JsonNode repoId = objectMapper.readTree(value).path("repoId");
+            if (repoId.canConvertToLong()) {
+                observedRepoCache.evict(repoId.asLong());
+            }
+        } catch (Exception e) {
+            log.warn("{} Ignoring unreadable change event: {}", LOG_PREFIX, e.getMessage());
+        }
+    }
+
+    /**
+     * Starts reading the assigned partitions at their end, since earlier changes are already reflected in the database.
+     *
+     * @param assignments the assigned partitions
+     * @param callback    the callback to seek with
+     */
+    @Override
+    public void onPartitionsAssigned(Map<org.apache.kafka.common.TopicPartition, Long> assignments,
+                                     ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+}
@@ -1,27 +1,49 @@
 package com.toulios.githubanalyzer.service;
 
+import com.toulios.githubanalyzer.config.ApiVersionConfig;
+import com.toulios.githubanalyzer.dto.request.CursorSortField;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoBatchRequest;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoCursor;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoKey;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoRequest;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoUpdateRequest;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoBatchResponse;
 import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
 import com.toulios.githubanalyzer.dto.response.PaginatedResponse;
+import com.toulios.githubanalyzer.exception.InvalidCursorException;
 import com.toulios.githubanalyzer.exception.RepoCreationException;
 import com.toulios.githubanalyzer.exception.RepoNotFoundException;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import com.toulios.githubanalyzer.model.ObservedRepoStatus;
 import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
 import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
+import com.toulios.githubanalyzer.util.CursorCodec;
 import com.toulios.githubanalyzer.util.JsonNullableUtils;
 import com.toulios.githubanalyzer.util.ObservedRepoMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class handling CRUD operations for ObservedRepo entities.
@@ -31,9 +53,15 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ObservedRepoCrudService {
     private static final String LOG_PREFIX = "[ObservedRepoCrudService]";
+    private static final String LIST_PATH = ApiVersionConfig.BASE_API_PATH + "/observed-repos";
 
     private final ObservedRepoRepository repository;
     private final ObservedRepoHelper observedRepoHelper;
+    private final ObservedRepoCache observedRepoCache;
+    private final ObservedRepoLookupBatcher lookupBatcher;
+    private final ObservedRepoStatsTracker statsTracker;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * Creates or updates a repository based on owner and name.
@@ -54,6 +82,7 @@ public class ObservedRepoCrudService {
 
             ObservedRepo repo = ObservedRepoMapper.createEntityFromRequest(request);
             repo = repository.save(repo);
+            statsTracker.record(null, repo);
 
             log.info("{} Successfully inserted repository with id: {}", LOG_PREFIX, repo.getId());
             return ObservedRepoMapper.toResponse(repo);
@@ -64,39 +93,150 @@ public class ObservedRepoCrudService {
     }
 
     /**
-     * Retrieves a repository by its ID.
+     * Retrieves a repository by its ID, from the cache when possible.
+     * Misses are loaded by the lookup batcher, which reads concurrent lookups with a single projection query.
+     * No transaction is opened here, so callers waiting for their batch do not hold a database connection.
      *
      * @param id the repository ID
      * @return the repository data
      * @throws RepoNotFoundException if repository not found
      */
     public ObservedRepoResponse getById(Long id) {
-        log.info("{} Fetching repository with id: {}", LOG_PREFIX, id);
-        return repository.findById(id)
-                .map(ObservedRepoMapper::toResponse)
+        log.debug("{} Fetching repository with id: {}", LOG_PREFIX, id);
+        return observedRepoCache.get(id, lookupBatcher::load)
                 .orElseThrow(() -> new RepoNotFoundException("Repository not found with id: " + id));
     }
 
+    /**
+     * Retrieves many repositories by id and by owner and name at once.
+     * Cached responses are used for the ids, and every other repository is read with a single
+     * {@code id IN (...) OR (owner, name) IN (...)} projection query. The query reads from the primary if any of the
+     * uncached ids was written within the replica lag, and from the replica otherwise, so repositories looked up by
+     * owner and name may lag like the listings.
+     *
+     * @param request the ids and owner and name pairs to look up
+     * @return the repositories found, in request order, and the keys that were not found
+     */
+    public ObservedRepoBatchResponse getBatch(ObservedRepoBatchRequest request) {
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        Set<ObservedRepoKey> keys = new LinkedHashSet<>(request.getRepos());
+        log.info("{} Fetching {} repositories by id and {} by owner and name", LOG_PREFIX, ids.size(), keys.size());
+
+        Map<Long, ObservedRepoResponse> byId = new HashMap<>(observedRepoCache.getAllPresent(ids));
+        Set<Long> uncachedIds = new HashSet<>(ids);
+        uncachedIds.removeAll(byId.keySet());
+
+        Map<ObservedRepoKey, ObservedRepoResponse> byKey = new HashMap<>();
+        if (!uncachedIds.isEmpty() || !keys.isEmpty()) {
+            Specification<ObservedRepo> spec = ObservedRepoSpecification.hasIdIn(uncachedIds)
+                    .or(ObservedRepoSpecification.hasOwnerAndNameIn(keys));
+            List<ObservedRepoResponse> rows = transactionFor(uncachedIds)
+                    .execute(status -> repository.findResponses(spec, Sort.by("id")));
+            for (ObservedRepoResponse response : rows) {
+                byId.put(response.getId(), response);
+                byKey.putIfAbsent(new ObservedRepoKey(response.getOwner(), response.getName()), response);
+            }
+        }
+
+        Map<Long, ObservedRepoResponse> results = new LinkedHashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            ObservedRepoResponse response = byId.get(id);
+            if (response != null) {
+                results.put(id, response);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        List<ObservedRepoKey> missingRepos = new ArrayList<>();
+        for (ObservedRepoKey key : keys) {
+            ObservedRepoResponse response = byKey.get(key);
+            if (response != null) {
+                results.putIfAbsent(response.getId(), response);
+            } else {
+                missingRepos.add(key);
+            }
+        }
+
+        return ObservedRepoBatchResponse.builder()
+                .results(new ArrayList<>(results.values()))
+                .missingIds(missingIds)
+                .missingRepos(missingRepos)
+                .build();
+    }
+
     /**
      * Lists all repositories with optional filtering in a paginated way.
+     * Rows are read with a projection query straight into responses.
      *
      * @param filter   filtering criteria
      * @param pageable pagination information
      * @return filtered page of repositories with next/previous URLs
      */
+    @Transactional(readOnly = true)
     public PaginatedResponse<ObservedRepoResponse> listAll(ObservedRepoFilter filter, Pageable pageable) {
         log.info("{} Fetching page {} of repositories with filters: {}",
                 LOG_PREFIX, pageable.getPageNumber(), filter);
 
         Specification<ObservedRepo> spec = ObservedRepoSpecification.withFilter(filter);
-        Page<ObservedRepoResponse> page = repository.findAll(spec, pageable)
-                .map(ObservedRepoMapper::toResponse);
+        Page<ObservedRepoResponse> page = repository.findResponses(spec, pageable);
+
+        return PaginatedResponse.from(page, listUrl(filter));
+    }
+
+    /**
+     * Lists repositories using keyset pagination.
+     * A page is read with a seek predicate on the sort key and id and a limit of one row more than the page size,
+     * which tells whether there is a next page without counting rows, so every page costs the same however deep it is.
+     *
+     * @param filter   filtering criteria of the first page
+     * @param pageable page size and sort of the first page
+     * @param cursor   the cursor of the page to read, or null for the first page; it carries the filter, sort and
+     *                 page size of the listing, which take precedence over the other arguments
+     * @return the page of repositories with the cursors and URLs of the adjacent pages
+     * @throws InvalidCursorException if the cursor is invalid or the sort is not supported
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<ObservedRepoResponse> listAllByCursor(ObservedRepoFilter filter, Pageable pageable, String cursor) {
+        ObservedRepoCursor position = cursor != null ? CursorCodec.decode(cursor) : firstPageCursor(filter, pageable);
+        log.info("{} Fetching cursor page of repositories after id {} with filters: {}",
+                LOG_PREFIX, position.id(), position.filter());
+
+        Specification<ObservedRepo> spec = ObservedRepoSpecification.withFilter(position.filter())
+                .and(ObservedRepoSpecification.seek(position));
+        Sort.Direction direction = position.descending() == position.backward() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = position.sort() == CursorSortField.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, position.sort().getProperty(), "id");
+        List<ObservedRepoResponse> rows = new ArrayList<>(repository.findResponses(spec, sort, position.size() + 1));
+
+        boolean hasMore = rows.size() > position.size();
+        if (hasMore) {
+            rows.remove(rows.size() - 1);
+        }
+        if (position.backward()) {
+            Collections.reverse(rows);
+        }
 
-        return PaginatedResponse.from(page, "/api/v1/repos");
+        String nextCursor = null;
+        String previousCursor = null;
+        if (!rows.isEmpty()) {
+            ObservedRepoResponse first = rows.get(0);
+            ObservedRepoResponse last = rows.get(rows.size() - 1);
+            if (position.backward() || hasMore) {
+                nextCursor = CursorCodec.encode(position.at(position.sort().valueOf(last), last.getId(), false));
+            }
+            if (position.backward() ? hasMore : !position.isFirstPage()) {
+                previousCursor = CursorCodec.encode(position.at(position.sort().valueOf(first), first.getId(), true));
+            }
+        }
+
+        return PaginatedResponse.fromCursors(rows, LIST_PATH, nextCursor, previousCursor);
     }
 
     /**
      * Deletes a repository by its ID.
+     * The status change is published like any other change, so other instances invalidate their caches too.
      *
      * @param id the repository ID
      * @throws RepoNotFoundException if repository not found
@@ -108,8 +248,12 @@ public class ObservedRepoCrudService {
         ObservedRepo repo = repository.findById(id)
                 .orElseThrow(() -> new RepoNotFoundException("Repository not found with id: " + id));
 
+        ObservedRepo oldValues = ObservedRepoMapper.copyOf(repo);
         repo.setStatus(ObservedRepoStatus.DELETED);
-        repository.save(repo);
+        ObservedRepo deletedRepo = repository.save(repo);
+        observedRepoCache.evict(id);
+        statsTracker.record(oldValues, deletedRepo);
+        observedRepoHelper.handleChanges(oldValues, deletedRepo);
 
         log.info("{} Successfully marked repository as deleted with id: {}", LOG_PREFIX, id);
     }
@@ -131,18 +275,13 @@ public class ObservedRepoCrudService {
                 .orElseThrow(() -> new RepoNotFoundException("Repository not found with id: " + id));
 
         // Store old values for logging
-        ObservedRepo oldValues = new ObservedRepo();
-        oldValues.setName(existingRepo.getName());
-        oldValues.setOwner(existingRepo.getOwner());
-        oldValues.setStars(existingRepo.getStars());
-        oldValues.setOpenIssues(existingRepo.getOpenIssues());
-        oldValues.setUrl(existingRepo.getUrl());
-        oldValues.setStatus(existingRepo.getStatus());
-        oldValues.setLicence(existingRepo.getLicence());
+        ObservedRepo oldValues = ObservedRepoMapper.copyOf(existingRepo);
 
         // Update the entity
         updateRepoFromRequest(existingRepo, request);
         ObservedRepo updatedRepo = repository.save(existingRepo);
+        observedRepoCache.evict(id);
+        statsTracker.record(oldValues, updatedRepo);
 
         // Handle changes
         observedRepoHelper.handleChanges(oldValues, updatedRepo);
@@ -151,6 +290,61 @@ public class ObservedRepoCrudService {
         return ObservedRepoMapper.toResponse(updatedRepo);
     }
 
+    /**
+     * Creates the cursor of the first page of a listing.
+     *
+     * @param filter   filtering criteria
+     * @param pageable page size and sort; at most one sort field, id by default
+     * @return the cursor without position
+     * @throws InvalidCursorException if the sort is not supported
+     */
+    private ObservedRepoCursor firstPageCursor(ObservedRepoFilter filter, Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() > 1) {
+            throw new InvalidCursorException("Cursor pagination supports a single sort field");
+        }
+        Sort.Order order = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        return new ObservedRepoCursor(filter.getOwner(), filter.getName(), filter.getStatus(), filter.getLicence(),
+                CursorSortField.fromProperty(order.getProperty()), order.isDescending(), pageable.getPageSize(),
+                null, null, false);
+    }
+
+    /**
+     * Returns a read-only transaction, which may read from the replica, unless one of the repositories was written
+     * within the replica lag, in which case a read-write transaction reads them from the primary.
+     *
+     * @param ids the repository ids to read
+     * @return the transaction template to read the repositories with
+     */
+    private TransactionTemplate transactionFor(Collection<Long> ids) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(!stalenessGuard.isRecentlyWritten(ids));
+        return template;
+    }
+
+    /**
+     * Builds the listing URL keeping the filter, so the offset page links return the same listing.
+     *
+     * @param filter filtering criteria
+     * @return the listing URL
+     */
+    private String listUrl(ObservedRepoFilter filter) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromPath(LIST_PATH);
+        if (filter.getOwner() != null) {
+            builder.queryParam("owner", filter.getOwner());
+        }
+        if (filter.getName() != null) {
+            builder.queryParam("name", filter.getName());
+        }
+        if (filter.getStatus() != null) {
+            builder.queryParam("status", filter.getStatus());
+        }
+        if (filter.getLicence() != null) {
+            builder.queryParam("licence", filter.getLicence());
+        }
+        return builder.encode().build().toUriString();
+    }
+
     /**
      * Updates a repository from an ObservedRepoUpdateRequest.
      *
@@ -0,0 +1,128 @@
+package com.toulios.githubanalyzer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.toulios.githubanalyzer.dto.request.ExportFormat;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Service class exporting the repository catalogue.
+ * Rows are streamed from a server-side cursor and written to the output as they are read, so memory use does not
+ * depend on the number of exported repositories.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ObservedRepoExportService {
+    private static final String LOG_PREFIX = "[ObservedRepoExportService]";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,owner,name,stars,open_issues,url,licence,status,created_at,updated_at";
+
+    private final ObservedRepoRepository repository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * Writes every repository matching the filter to the output, ordered by id.
+     * The output is flushed but not closed.
+     *
+     * @param filter the filtering criteria
+     * @param format the output format
+     * @param output the output stream
+     * @return the number of exported repositories
+     * @throws IOException if writing to the output fails, e.g. because the client disconnected
+     */
+    @Transactional(readOnly = true)
+    public long export(ObservedRepoFilter filter, ExportFormat format, OutputStream output) throws IOException {
+        log.info("{} Exporting repositories as {} with filters: {}", LOG_PREFIX, format, filter);
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count = 0;
+        try (Stream<ObservedRepoResponse> rows = repository.streamAll(ObservedRepoSpecification.withFilter(filter), fetchSize)) {
+            Iterator<ObservedRepoResponse> iterator = rows.iterator();
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    writeCsv(iterator.next(), writer);
+                    count++;
+                }
+            } else {
+                try (SequenceWriter sequenceWriter = objectMapper.writer()
+                        .withRootValueSeparator("\n")
+                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                        .writeValues(writer)) {
+                    while (iterator.hasNext()) {
+                        sequenceWriter.write(iterator.next());
+                        count++;
+                    }
+                }
+                if (count > 0) {
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+
+        log.info("{} Exported {} repositories as {} in {} ms", LOG_PREFIX, count, format,
+                (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    /**
+     * Writes a repository as a CSV record.
+     */
+    private void writeCsv(ObservedRepoResponse repo, Writer writer) throws IOException {
+        writer.write(String.valueOf(repo.getId()));
+        writeCsvField(repo.getOwner(), writer);
+        writeCsvField(repo.getName(), writer);
+        writeCsvField(repo.getStars(), writer);
+        writeCsvField(repo.getOpenIssues(), writer);
+        writeCsvField(repo.getUrl(), writer);
+        writeCsvField(repo.getLicense(), writer);
+        writeCsvField(repo.getStatus(), writer);
+        writeCsvField(repo.getCreatedAt(), writer);
+        writeCsvField(repo.getUpdatedAt(), writer);
+        writer.write('\n');
+    }
+
+    /**
+     * Writes a separator and a field, quoted when it contains a separator, quote or line break (RFC 4180).
+     * Null values are written as empty fields.
+     */
+    private void writeCsvField(Object value, Writer writer) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = Objects.toString(value);
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,13 +1,17 @@
 package com.toulios.githubanalyzer.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
 import com.toulios.githubanalyzer.exception.RepoUpdateException;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Component
@@ -19,14 +23,31 @@ public class ObservedRepoHelper {
     @Value("${app.kafka.topics.repo-changes}")
     private String repoChangesTopic;
     private final MessageService messageService;
+    private final RepoChangeBroadcaster changeBroadcaster;
 
     /**
-     * Handles changes in a repository and sends a message to Kafka if there are any changes.
+     * Handles changes made through the API, right after they have been persisted.
      *
      * @param oldValues the old repository values
      * @param newValues the new repository values
      */
     public void handleChanges(ObservedRepo oldValues, ObservedRepo newValues) {
+        handleChanges(oldValues, newValues, null, Instant.now());
+    }
+
+    /**
+     * Handles changes in a repository and sends a message to Kafka if there are any changes.
+     * The change is also streamed to the subscribers of the change stream.
+     * Inside a transaction the message is only sent once the transaction commits, so a rolled back change is never
+     * published and consumers never read a change before it is visible in the database.
+     *
+     * @param oldValues the old repository values
+     * @param newValues the new repository values
+     * @param fetchedAt when the new values were fetched from GitHub, or null if they did not come from GitHub
+     * @param persistedAt when the new values were persisted
+     * @return true if changes were detected and published
+     */
+    public boolean handleChanges(ObservedRepo oldValues, ObservedRepo newValues, Instant fetchedAt, Instant persistedAt) {
         StringBuilder changes = new StringBuilder();
 
         if (!Objects.equals(oldValues.getName(), newValues.getName())) {
@@ -53,14 +74,59 @@ public class ObservedRepoHelper {
 
         if (changes.toString().trim().isEmpty()) {
             log.info("{} No changes detected for repository id: {}", LOG_PREFIX, newValues.getId());
-            return;
+            return false;
         }
 
-        try {
-            changes.append("\nRepository changes for id").append(newValues.getId()).append(":");
-            messageService.sendChangeEvent(repoChangesTopic, newValues.getId(), changes.toString());
-        } catch (JsonProcessingException exception) {
-            throw new RepoUpdateException(exception.getMessage());
+        changes.append("\nRepository changes for id").append(newValues.getId()).append(":");
+        RepoChangeEvent event = toChangeEvent(oldValues, newValues, changes.toString(), fetchedAt, persistedAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        messageService.sendChangeEvent(repoChangesTopic, event);
+                    } catch (JsonProcessingException exception) {
+                        log.error("{} Failed to send change event for repository id: {}",
+                                LOG_PREFIX, event.getRepoId(), exception);
+                    }
+                }
+            });
+        } else {
+            try {
+                messageService.sendChangeEvent(repoChangesTopic, event);
+            } catch (JsonProcessingException exception) {
+                throw new RepoUpdateException(exception.getMessage());
+            }
         }
+        changeBroadcaster.publish(event);
+        return true;
+    }
+
+    /**
+     * Builds the change event carrying the new state of the repository and the previous values.
+     *
+     * @param oldValues the old repository values
+     * @param newValues the new repository values
+     * @param changes the description of the changes
+     * @param fetchedAt when the new values were fetched from GitHub
+     * @param persistedAt when the new values were persisted
+     * @return the change event
+     */
+    private RepoChangeEvent toChangeEvent(ObservedRepo oldValues, ObservedRepo newValues, String changes,
+                                          Instant fetchedAt, Instant persistedAt) {
+        return RepoChangeEvent.builder()
+                .repoId(newValues.getId())
+                .changes(changes)
+                .owner(newValues.getOwner())
+                .name(newValues.getName())
+                .licence(newValues.getLicence())
+                .stars(newValues.getStars())
+                .previousStars(oldValues.getStars())
+                .openIssues(newValues.getOpenIssues())
+                .status(newValues.getStatus())
+                .previousStatus(oldValues.getStatus())
+                .fetchedAt(fetchedAt)
+                .persistedAt(persistedAt)
+                .build();
     }
 }
@@ -0,0 +1,209 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Coalesces concurrent lookups of single repositories by id into one {@code id IN (...)} query.
+ * <p>
+ * A collector thread takes the first pending lookup, waits up to {@code window} for more, and hands the batch to
+ * one of {@code concurrency} loader threads. While every loader is busy, lookups keep queueing and the next batch
+ * takes all of them up to {@code max-batch-size}, so batches grow with the load while a lone lookup waits at most
+ * one window. Callers block until their batch is loaded and never hold a database connection while waiting.
+ * Batches are read in read-only transactions, which may be served by the replica, unless they contain a repository
+ * written too recently for the replica to have caught up.
+ * <p>
+ * The sizes of the loaded batches are exposed as the {@code observed.repo.lookup.batch.size} summary.
+ */
+@Slf4j
+@Component
+public class ObservedRepoLookupBatcher {
+    private static final String LOG_PREFIX = "[ObservedRepoLookupBatcher]";
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ObservedRepoRepository repository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final ReplicaStalenessGuard stalenessGuard;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingLookup> queue = new LinkedBlockingQueue<>();
+    private final Semaphore loaderPermits;
+    private final ExecutorService collector;
+    private final ExecutorService loaders;
+    private final DistributionSummary batchSizes;
+    private volatile boolean running = true;
+
+    public ObservedRepoLookupBatcher(ObservedRepoRepository repository,
+                                     PlatformTransactionManager transactionManager,
+                                     ReplicaStalenessGuard stalenessGuard,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.lookup-batching.enabled:true}") boolean enabled,
+                                     @Value("${app.lookup-batching.window:500us}") Duration window,
+                                     @Value("${app.lookup-batching.max-batch-size:200}") int maxBatchSize,
+                                     @Value("${app.lookup-batching.concurrency:4}") int concurrency) {
+        this.repository = repository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        // read-write, so repositories written within the replica lag are read from the primary
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.stalenessGuard = stalenessGuard;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.loaderPermits = new Semaphore(Math.max(1, concurrency));
+        this.batchSizes = DistributionSummary.builder("observed.repo.lookup.batch.size")
+                .description("Number of repositories looked up by a single query")
+                .register(meterRegistry);
+        if (enabled) {
+            this.collector = Executors.newSingleThreadExecutor(daemon("observed-repo-lookup-collector", new AtomicInteger()));
+            this.loaders = Executors.newFixedThreadPool(Math.max(1, concurrency), daemon("observed-repo-lookup-loader", new AtomicInteger()));
+            this.collector.execute(this::collect);
+        } else {
+            this.collector = null;
+            this.loaders = null;
+        }
+        log.info("{} Lookup batching {} (window {}, max batch size {}, concurrency {})",
+                LOG_PREFIX, enabled ? "enabled" : "disabled", window, maxBatchSize, concurrency);
+    }
+
+    /**
+     * Loads the response of a repository, together with the lookups of other threads issued within the same window.
+     * Runs its own read-only transaction, so it must not be called from a transaction that is still needed.
+     *
+     * @param id the repository id
+     * @return the response, or empty if the repository does not exist
+     */
+    public Optional<ObservedRepoResponse> load(Long id) {
+        if (!enabled || !running) {
+            return transactionFor(List.of(id)).execute(status -> repository.findResponseById(id));
+        }
+        PendingLookup lookup = new PendingLookup(id, new CompletableFuture<>());
+        queue.add(lookup);
+        try {
+            return lookup.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Collects pending lookups into batches until the batcher is shut down.
+     */
+    private void collect() {
+        while (running) {
+            try {
+                PendingLookup first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingLookup> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingLookup next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                loaderPermits.acquire();
+                // lookups that arrived while every loader was busy join the batch
+                queue.drainTo(batch, maxBatchSize - batch.size());
+                loaders.execute(() -> loadBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Loads a batch of lookups with a single query and completes them.
+     *
+     * @param batch the pending lookups; the same id may appear more than once
+     */
+    private void loadBatch(List<PendingLookup> batch) {
+        try {
+            Set<Long> ids = batch.stream().map(PendingLookup::id).collect(Collectors.toSet());
+            Map<Long, ObservedRepoResponse> responses = transactionFor(ids).execute(status ->
+                    repository.findResponses(ObservedRepoSpecification.hasIdIn(ids), Sort.unsorted()).stream()
+                            .collect(Collectors.toMap(ObservedRepoResponse::getId, Function.identity())));
+            batchSizes.record(ids.size());
+            log.debug("{} Loaded {} repositories for {} lookups", LOG_PREFIX, responses.size(), batch.size());
+            batch.forEach(lookup -> lookup.result().complete(Optional.ofNullable(responses.get(lookup.id()))));
+        } catch (RuntimeException e) {
+            log.error("{} Error loading {} repositories: {}", LOG_PREFIX, batch.size(), e.getMessage(), e);
+            batch.forEach(lookup -> lookup.result().completeExceptionally(e));
+        } finally {
+            loaderPermits.release();
+        }
+    }
+
+    /**
+     * Returns the template of the transaction loading the given repositories: read-only, so it may be served by the
+     * replica, unless one of them was written too recently for the replica to have it.
+     */
+    private TransactionTemplate transactionFor(Collection<Long> ids) {
+        return stalenessGuard.isRecentlyWritten(ids) ? primaryTransactionTemplate : readOnlyTransactionTemplate;
+    }
+
+    private static ThreadFactory daemon(String name, AtomicInteger counter) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (!enabled) {
+            return;
+        }
+        collector.shutdownNow();
+        loaders.shutdown();
+        List<PendingLookup> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(lookup -> lookup.result().completeExceptionally(
+                new IllegalStateException("Lookup batcher is shutting down")));
+    }
+
+    private record PendingLookup(Long id, CompletableFuture<Optional<ObservedRepoResponse>> result) {
+    }
+}
@@ -3,12 +3,19 @@ package com.toulios.githubanalyzer.service;
 import com.toulios.githubanalyzer.client.GithubApiClient;
 import com.toulios.githubanalyzer.dto.GithubRepositoryDto;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.jfr.RefreshPageLoadEvent;
+import com.toulios.githubanalyzer.jfr.RefreshSaveEvent;
+import com.toulios.githubanalyzer.jfr.RepoDiffEvent;
+import com.toulios.githubanalyzer.jfr.RepoFetchEvent;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import com.toulios.githubanalyzer.model.ObservedRepoStatus;
 import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
 import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
 import com.toulios.githubanalyzer.util.ObservedRepoMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,8 +23,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service responsible for managing and processing GitHub repositories stored in the database.
@@ -25,10 +34,19 @@ import java.util.List;
  * - Process repositories in a paginated manner
  * - Fetch updated repository information from GitHub API
  * - Handle repository data updates
+ * <p>
+ * Every refresh cycle is timed as {@code observed.repo.refresh}, tagged with its outcome, and while it runs as the
+ * {@code observed.repo.refresh.active} long task timer, so a stalled cycle shows up before it completes. The pages of a
+ * cycle are timed per stage as {@code observed.repo.refresh.stage}: loading them from the database, fetching them from
+ * GitHub, saving them and publishing their changes. The repositories of a cycle are counted as
+ * {@code observed.repo.refresh.repos}, tagged {@code processed} for every repository and {@code changed},
+ * {@code invalid} or {@code failed} for the ones with that result.
+ * <p>
+ * The same stages are emitted as flight recorder events carrying the page or repository they belong to, see
+ * {@link com.toulios.githubanalyzer.config.FlightRecorderConfig}.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class ObservedRepoProcessingService {
 
     private final static String LOG_PREFIX = "[ObservedRepoService]";
@@ -37,6 +55,46 @@ public class ObservedRepoProcessingService {
     private final GithubApiClient githubApiClient;
     private final ObservedRepoRepository observedRepoRepository;
     private final ObservedRepoHelper observedRepoHelper;
+    private final TrendingRepoTracker trendingRepoTracker;
+    private final ObservedRepoCache observedRepoCache;
+    private final ObservedRepoStatsTracker statsTracker;
+    private final MeterRegistry meterRegistry;
+    private final LongTaskTimer activeCycles;
+    private final Timer loadStage;
+    private final Timer fetchStage;
+    private final Timer saveStage;
+    private final Timer publishStage;
+    private final Counter processedRepos;
+    private final Counter changedRepos;
+    private final Counter invalidRepos;
+    private final Counter failedRepos;
+
+    public ObservedRepoProcessingService(GithubApiClient githubApiClient,
+                                         ObservedRepoRepository observedRepoRepository,
+                                         ObservedRepoHelper observedRepoHelper,
+                                         TrendingRepoTracker trendingRepoTracker,
+                                         ObservedRepoCache observedRepoCache,
+                                         ObservedRepoStatsTracker statsTracker,
+                                         MeterRegistry meterRegistry) {
+        this.githubApiClient = githubApiClient;
+        this.observedRepoRepository = observedRepoRepository;
+        this.observedRepoHelper = observedRepoHelper;
+        this.trendingRepoTracker = trendingRepoTracker;
+        this.observedRepoCache = observedRepoCache;
+        this.statsTracker = statsTracker;
+        this.meterRegistry = meterRegistry;
+        this.activeCycles = LongTaskTimer.builder("observed.repo.refresh.active")
+                .description("Refresh cycles in progress")
+                .register(meterRegistry);
+        this.loadStage = stage(meterRegistry, "load");
+        this.fetchStage = stage(meterRegistry, "fetch");
+        this.saveStage = stage(meterRegistry, "save");
+        this.publishStage = stage(meterRegistry, "publish");
+        this.processedRepos = repos(meterRegistry, "processed");
+        this.changedRepos = repos(meterRegistry, "changed");
+        this.invalidRepos = repos(meterRegistry, "invalid");
+        this.failedRepos = repos(meterRegistry, "failed");
+    }
 
     /**
      * Processes all repositories stored in the database in a paginated manner.
@@ -46,6 +104,28 @@ public class ObservedRepoProcessingService {
      * @throws RuntimeException if there's an unrecoverable error during processing
      */
     public void processObservedRepos() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        LongTaskTimer.Sample active = activeCycles.start();
+        String outcome = "failure";
+        try {
+            refreshObservedRepos();
+            trendingRepoTracker.cycleCompleted(startedAt);
+            outcome = "success";
+        } finally {
+            active.stop();
+            Timer.builder("observed.repo.refresh")
+                    .description("Duration of a refresh cycle of all repositories")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Refreshes every active repository, page by page.
+     */
+    private void refreshObservedRepos() {
         log.info("{} Starting to process all repositories with page size: {}", LOG_PREFIX, PAGE_SIZE);
         int pageNumber = 0;
         long totalProcessed = 0;
@@ -83,7 +163,15 @@ public class ObservedRepoProcessingService {
      */
     private Page<ObservedRepo> loadRepositoryPage(Specification<ObservedRepo> spec, int pageNumber) {
         Pageable pageable = PageRequest.of(pageNumber, PAGE_SIZE);
-        Page<ObservedRepo> page = observedRepoRepository.findAll(spec, pageable);
+        RefreshPageLoadEvent event = new RefreshPageLoadEvent();
+        event.begin();
+        Page<ObservedRepo> page = loadStage.record(() -> observedRepoRepository.findAll(spec, pageable));
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPage(pageNumber);
+            event.setRepos(page.getNumberOfElements());
+            event.commit();
+        }
 
         if (page.isEmpty()) {
             log.info("{} No more repositories to process", LOG_PREFIX);
@@ -99,12 +187,21 @@ public class ObservedRepoProcessingService {
      * Handles any errors that occur during processing of individual repositories.
      *
      * @param repo the repository to process
+     * @param repos the repositories to persist
+     * @param changes the changes to publish once the repositories are persisted
+     * @param invalidated the repositories that became invalid
      */
-    private void processRepository(ObservedRepo repo, List<ObservedRepo> repos) {
+    private void processRepository(ObservedRepo repo, List<ObservedRepo> repos, List<FetchedChange> changes,
+                                   List<Invalidation> invalidated) {
         try {
             log.info("{} Processing repository: {}/{}", LOG_PREFIX, repo.getOwner(), repo.getName());
-            GithubRepositoryDto githubRepo = githubApiClient.getRepositoryDetails(repo.getOwner(), repo.getName());
+            GithubRepositoryDto githubRepo = fetchRepository(repo);
+            Instant fetchedAt = Instant.now();
             if (githubRepo == null) {
+                invalidRepos.increment();
+                if (repo.getStatus() != ObservedRepoStatus.INVALID) {
+                    invalidated.add(new Invalidation(ObservedRepoMapper.copyOf(repo), repo, fetchedAt));
+                }
                 repo.setStatus(ObservedRepoStatus.INVALID);
                 repos.add(repo);
                 return;
@@ -112,23 +209,178 @@ public class ObservedRepoProcessingService {
 
             ObservedRepo updatedRepo = ObservedRepoMapper.toEntity(githubRepo, repo.getId());
             repos.add(updatedRepo);
-
-            observedRepoHelper.handleChanges(repo, updatedRepo);
+            changes.add(new FetchedChange(repo, updatedRepo, fetchedAt));
         } catch (Exception e) {
+            failedRepos.increment();
             log.error("{} Error processing repository {}/{}: {}", LOG_PREFIX, repo.getOwner(), repo.getName(), e.getMessage(), e);
         }
     }
 
+    /**
+     * Fetches the current values of a repository from GitHub.
+     *
+     * @param repo the repository to fetch
+     * @return the repository details, or null if the repository was not found
+     */
+    private GithubRepositoryDto fetchRepository(ObservedRepo repo) {
+        RepoFetchEvent event = new RepoFetchEvent();
+        event.begin();
+        String result = RepoFetchEvent.FAILED;
+        try {
+            GithubRepositoryDto githubRepo = githubApiClient.getRepositoryDetails(repo.getOwner(), repo.getName());
+            result = githubRepo != null ? RepoFetchEvent.FOUND : RepoFetchEvent.NOT_FOUND;
+            return githubRepo;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setRepoId(repo.getId());
+                event.setOwner(repo.getOwner());
+                event.setName(repo.getName());
+                event.setResult(result);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Saves the refreshed repositories of a page.
+     *
+     * @param pageNumber the zero-based page number
+     * @param repos the repositories to save
+     */
+    private void saveRepositories(int pageNumber, List<ObservedRepo> repos) {
+        RefreshSaveEvent event = new RefreshSaveEvent();
+        event.begin();
+        observedRepoRepository.saveAll(repos);
+        event.end();
+        if (event.shouldCommit() && !repos.isEmpty()) {
+            event.setPage(pageNumber);
+            event.setRepos(repos.size());
+            event.setFirstRepoId(repos.get(0).getId());
+            event.setLastRepoId(repos.get(repos.size() - 1).getId());
+            event.commit();
+        }
+    }
+
     /**
      * Processes a page of repositories.
+     * Change events are only published once the page is persisted, so consumers never see a change
+     * that could still be lost. Repositories no longer found on GitHub are published as status changes too.
+     * Cached responses are invalidated for the repositories whose changes were detected,
+     * and the statistics are updated with the persisted values.
      *
      * @param page the page of repositories to process
      */
     private void processObservedRepoPage(Page<ObservedRepo> page) {
         log.info("{} Processing page containing {} repositories", LOG_PREFIX, page.getNumberOfElements());
         List<ObservedRepo> repos = new ArrayList<>();
-        page.getContent().forEach((repo) -> processRepository(repo, repos));
-        observedRepoRepository.saveAll(repos);
+        List<FetchedChange> changes = new ArrayList<>();
+        List<Invalidation> invalidated = new ArrayList<>();
+        processedRepos.increment(page.getNumberOfElements());
+        fetchStage.record(() -> page.getContent().forEach((repo) -> processRepository(repo, repos, changes, invalidated)));
+        saveStage.record(() -> saveRepositories(page.getNumber(), repos));
+        for (Invalidation invalidation : invalidated) {
+            observedRepoCache.evict(invalidation.repo().getId());
+            statsTracker.recordStatusChange(invalidation.repo(), invalidation.oldValues().getStatus());
+        }
+        changes.forEach(change -> statsTracker.record(change.oldValues(), change.newValues()));
+        Instant persistedAt = Instant.now();
+        trendingRepoTracker.recordAll(repos, persistedAt);
+        publishStage.record(() -> {
+            publishChanges(changes, persistedAt);
+            publishInvalidations(invalidated, persistedAt);
+        });
         log.info("{} Completed processing page of {} repositories", LOG_PREFIX, page.getNumberOfElements());
     }
+
+    /**
+     * Publishes the changes of a persisted page and invalidates the cached responses of the changed repositories.
+     *
+     * @param changes the fetched changes
+     * @param persistedAt when the page was persisted
+     */
+    private void publishChanges(List<FetchedChange> changes, Instant persistedAt) {
+        for (FetchedChange change : changes) {
+            try {
+                if (diffAndPublish(change, persistedAt)) {
+                    changedRepos.increment();
+                    observedRepoCache.evict(change.newValues().getId());
+                }
+            } catch (Exception e) {
+                failedRepos.increment();
+                observedRepoCache.evict(change.newValues().getId());
+                log.error("{} Error publishing changes of repository {}/{}: {}", LOG_PREFIX,
+                        change.oldValues().getOwner(), change.oldValues().getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Publishes the status changes of the repositories of a persisted page that were no longer found on GitHub.
+     *
+     * @param invalidated the invalidated repositories
+     * @param persistedAt when the page was persisted
+     */
+    private void publishInvalidations(List<Invalidation> invalidated, Instant persistedAt) {
+        for (Invalidation invalidation : invalidated) {
+            try {
+                diffAndPublish(new FetchedChange(invalidation.oldValues(), invalidation.repo(), invalidation.fetchedAt()),
+                        persistedAt);
+            } catch (Exception e) {
+                failedRepos.increment();
+                log.error("{} Error publishing the invalidation of repository {}/{}: {}", LOG_PREFIX,
+                        invalidation.repo().getOwner(), invalidation.repo().getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Compares a repository with its previous values and publishes its changes.
+     *
+     * @param change the fetched change
+     * @param persistedAt when the page was persisted
+     * @return true if changes were detected and published
+     */
+    private boolean diffAndPublish(FetchedChange change, Instant persistedAt) {
+        RepoDiffEvent event = new RepoDiffEvent();
+        event.begin();
+        boolean changed = false;
+        try {
+            changed = observedRepoHelper.handleChanges(change.oldValues(), change.newValues(), change.fetchedAt(), persistedAt);
+            return changed;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setRepoId(change.newValues().getId());
+                event.setChanged(changed);
+                event.commit();
+            }
+        }
+    }
+
+    private static Timer stage(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("observed.repo.refresh.stage")
+                .description("Time spent on a stage of refreshing a page of repositories")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    private static Counter repos(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("observed.repo.refresh.repos")
+                .description("Repositories refreshed, by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Repository values fetched from GitHub, waiting to be compared once the page is persisted.
+     */
+    private record FetchedChange(ObservedRepo oldValues, ObservedRepo newValues, Instant fetchedAt) {
+    }
+
+    /**
+     * Repository that was not found on GitHub and is persisted as invalid, with its values before.
+     */
+    private record Invalidation(ObservedRepo oldValues, ObservedRepo repo, Instant fetchedAt) {
+    }
 }
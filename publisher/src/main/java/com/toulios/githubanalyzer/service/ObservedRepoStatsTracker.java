@@ -0,0 +1,303 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.request.StatsDimension;
+import com.toulios.githubanalyzer.dto.response.RepoGroupStatsResponse;
+import com.toulios.githubanalyzer.dto.response.RepoStatsResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.ObservedRepoGroupCount;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps repository counts and star totals per licence, owner and status in memory, so statistics are read in
+ * O(groups) instead of scanning the catalogue.
+ * <p>
+ * The counters of every dimension are further split by status, so each dimension can be read for a single status.
+ * They are updated incrementally from the API writes, once their transaction commits, and from the refresh results.
+ * Once the application has started and then every {@code app.stats.reconcile-rate}, they are rebuilt from a
+ * {@code GROUP BY} query on the primary, which corrects any drift, e.g. from writes made by other instances. A result
+ * is only used if no change was recorded while the query ran. The number of groups corrected is counted in
+ * {@code observed.repo.stats.corrections}.
+ */
+@Slf4j
+@Component
+public class ObservedRepoStatsTracker {
+
+    private static final String LOG_PREFIX = "[ObservedRepoStatsTracker]";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ObservedRepoRepository repository;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final Counter corrections;
+
+    /** Guards the replacement of the counters and the count of recorded changes. */
+    private final Object lock = new Object();
+
+    /** Counters per dimension. Updated while holding the lock, read without locking. */
+    private volatile Map<StatsDimension, Map<GroupKey, GroupCounter>> counters = createCounters();
+
+    /** Number of changes recorded so far, telling whether any was recorded while a reconciliation query ran. */
+    private long changeCount;
+
+    private volatile Instant reconciledAt;
+
+    public ObservedRepoStatsTracker(ObservedRepoRepository repository, PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        // read-write, so the groups are counted on the primary rather than on a lagging replica
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.corrections = Counter.builder("observed.repo.stats.corrections")
+                .description("Statistics groups corrected by reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a change of a repository, once the current transaction commits if there is one.
+     * The values are read immediately, so the repositories may be modified afterwards.
+     *
+     * @param oldValues the values before the change, or null for a new repository
+     * @param newValues the values after the change
+     */
+    public void record(ObservedRepo oldValues, ObservedRepo newValues) {
+        Change change = new Change(Contribution.of(oldValues), Contribution.of(newValues));
+        if (change.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+            return;
+        }
+        apply(change);
+    }
+
+    /**
+     * Records a status change of a repository whose other values did not change.
+     *
+     * @param repo the repository, with its new status
+     * @param previousStatus the status before the change
+     */
+    public void recordStatusChange(ObservedRepo repo, ObservedRepoStatus previousStatus) {
+        Contribution after = Contribution.of(repo);
+        apply(new Change(new Contribution(after.owner(), after.licence(), previousStatus, after.stars()), after));
+    }
+
+    /**
+     * Returns the repository counts and star totals grouped by a dimension.
+     *
+     * @param dimension the dimension to group by
+     * @param status the status to restrict the statistics to, or null for every status
+     * @param limit the maximum number of groups to return
+     * @return the statistics, largest groups first
+     */
+    public RepoStatsResponse getStats(StatsDimension dimension, ObservedRepoStatus status, int limit) {
+        Map<String, long[]> folded = new HashMap<>();
+        counters.get(dimension).forEach((key, counter) -> {
+            if (status == null || key.status() == status) {
+                long[] totals = folded.computeIfAbsent(key.value(), value -> new long[2]);
+                totals[0] += counter.repos.sum();
+                totals[1] += counter.stars.sum();
+            }
+        });
+        folded.values().removeIf(totals -> totals[0] <= 0);
+
+        long totalRepos = folded.values().stream().mapToLong(totals -> totals[0]).sum();
+        long totalStars = folded.values().stream().mapToLong(totals -> totals[1]).sum();
+        List<RepoGroupStatsResponse> groups = folded.entrySet().stream()
+                .map(entry -> RepoGroupStatsResponse.builder()
+                        .value(entry.getKey())
+                        .repos(entry.getValue()[0])
+                        .stars(entry.getValue()[1])
+                        .build())
+                .sorted(Comparator.comparingLong(RepoGroupStatsResponse::getRepos).reversed()
+                        .thenComparing(RepoGroupStatsResponse::getValue, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(Math.max(0, limit))
+                .toList();
+
+        return RepoStatsResponse.builder()
+                .groupedBy(dimension.getValue())
+                .status(status)
+                .totalRepos(totalRepos)
+                .totalStars(totalStars)
+                .totalGroups(folded.size())
+                .groups(groups)
+                .reconciledAt(reconciledAt)
+                .build();
+    }
+
+    /**
+     * Rebuilds the counters from the database once the application has started and then periodically.
+     * The groups are counted on the primary. A change recorded while the query runs may or may not be part of its
+     * result, so the result is then discarded and the query run again, up to {@value #MAX_ATTEMPTS} times.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedRateString = "${app.stats.reconcile-rate:900000}", initialDelayString = "${app.stats.reconcile-rate:900000}")
+    public void reconcile() {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long changesBefore;
+            synchronized (lock) {
+                changesBefore = changeCount;
+            }
+            List<ObservedRepoGroupCount> rows;
+            try {
+                rows = primaryTransactionTemplate.execute(status -> repository.countGroups());
+            } catch (RuntimeException e) {
+                log.error("{} Error reconciling repository statistics: {}", LOG_PREFIX, e.getMessage(), e);
+                return;
+            }
+
+            Map<StatsDimension, Map<GroupKey, GroupCounter>> reconciled = createCounters();
+            for (ObservedRepoGroupCount row : rows) {
+                Contribution contribution = new Contribution(row.getOwner(), row.getLicence(), row.getStatus(), row.getStars());
+                add(reconciled, contribution, row.getRepos(), row.getStars());
+            }
+
+            int corrected;
+            synchronized (lock) {
+                if (changeCount != changesBefore) {
+                    log.debug("{} Changes recorded while counting groups, discarding attempt {}", LOG_PREFIX, attempt);
+                    continue;
+                }
+                corrected = countDifferences(counters, reconciled);
+                counters = reconciled;
+                reconciledAt = Instant.now();
+            }
+            corrections.increment(corrected);
+            log.info("{} Reconciled statistics of {} groups, {} corrected", LOG_PREFIX, rows.size(), corrected);
+            return;
+        }
+        log.warn("{} Changes were recorded during each of {} attempts, statistics not reconciled", LOG_PREFIX, MAX_ATTEMPTS);
+    }
+
+    private void apply(Change change) {
+        synchronized (lock) {
+            apply(counters, change);
+            changeCount++;
+        }
+    }
+
+    private static void apply(Map<StatsDimension, Map<GroupKey, GroupCounter>> target, Change change) {
+        if (change.before() != null) {
+            add(target, change.before(), -1, -change.before().stars());
+        }
+        if (change.after() != null) {
+            add(target, change.after(), 1, change.after().stars());
+        }
+    }
+
+    private static void add(Map<StatsDimension, Map<GroupKey, GroupCounter>> target, Contribution contribution,
+                            long repos, long stars) {
+        for (StatsDimension dimension : StatsDimension.values()) {
+            GroupCounter counter = target.get(dimension)
+                    .computeIfAbsent(new GroupKey(contribution.valueOf(dimension), contribution.status()), key -> new GroupCounter());
+            counter.repos.add(repos);
+            counter.stars.add(stars);
+        }
+    }
+
+    private static int countDifferences(Map<StatsDimension, Map<GroupKey, GroupCounter>> current,
+                                        Map<StatsDimension, Map<GroupKey, GroupCounter>> reconciled) {
+        int differences = 0;
+        for (StatsDimension dimension : StatsDimension.values()) {
+            Map<GroupKey, GroupCounter> before = current.get(dimension);
+            Map<GroupKey, GroupCounter> after = reconciled.get(dimension);
+            for (GroupKey key : union(before, after)) {
+                if (!GroupCounter.sameTotals(before.get(key), after.get(key))) {
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+
+    private static List<GroupKey> union(Map<GroupKey, GroupCounter> first, Map<GroupKey, GroupCounter> second) {
+        List<GroupKey> keys = new ArrayList<>(first.keySet());
+        second.keySet().stream().filter(key -> !first.containsKey(key)).forEach(keys::add);
+        return keys;
+    }
+
+    private static Map<StatsDimension, Map<GroupKey, GroupCounter>> createCounters() {
+        Map<StatsDimension, Map<GroupKey, GroupCounter>> counters = new EnumMap<>(StatsDimension.class);
+        for (StatsDimension dimension : StatsDimension.values()) {
+            counters.put(dimension, new ConcurrentHashMap<>());
+        }
+        return counters;
+    }
+
+    /**
+     * A group of a dimension for one status. The value is null for repositories without e.g. a licence.
+     */
+    private record GroupKey(String value, ObservedRepoStatus status) {
+    }
+
+    private static final class GroupCounter {
+        private final LongAdder repos = new LongAdder();
+        private final LongAdder stars = new LongAdder();
+
+        private static boolean sameTotals(GroupCounter first, GroupCounter second) {
+            long firstRepos = first == null ? 0 : first.repos.sum();
+            long secondRepos = second == null ? 0 : second.repos.sum();
+            long firstStars = first == null ? 0 : first.stars.sum();
+            long secondStars = second == null ? 0 : second.stars.sum();
+            return firstRepos == secondRepos && firstStars == secondStars;
+        }
+    }
+
+    /**
+     * The values of a repository the statistics depend on.
+     */
+    private record Contribution(String owner, String licence, ObservedRepoStatus status, long stars) {
+
+        private static Contribution of(ObservedRepo repo) {
+            if (repo == null) {
+                return null;
+            }
+            return new Contribution(repo.getOwner(), repo.getLicence(), repo.getStatus(),
+                    repo.getStars() == null ? 0 : repo.getStars());
+        }
+
+        private String valueOf(StatsDimension dimension) {
+            return switch (dimension) {
+                case LICENCE -> licence;
+                case OWNER -> owner;
+                case STATUS -> status == null ? null : status.name();
+            };
+        }
+    }
+
+    /**
+     * A change of a repository, removing its previous contribution and adding the new one.
+     */
+    private record Change(Contribution before, Contribution after) {
+
+        private boolean isEmpty() {
+            return Objects.equals(before, after);
+        }
+    }
+}
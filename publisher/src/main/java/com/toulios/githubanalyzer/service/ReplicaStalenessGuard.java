@@ -0,0 +1,143 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides when read-only transactions may read from the replica, which lags behind the primary.
+ * <p>
+ * Every {@code lag-check-interval} the replay lag of the replica is measured with {@code lag-query}. While it exceeds
+ * {@code max-lag}, or cannot be measured, the replica is not used and every transaction goes to the primary.
+ * <p>
+ * For read-after-write, the repositories written by this instance, or invalidated on behalf of other instances, are
+ * remembered for {@code max-lag} plus {@code lag-check-interval}, as the lag may have grown past {@code max-lag}
+ * since it was last measured. Lookups of such repositories read from the primary, so they are never answered, nor
+ * cached, with the values from before the write. Listings may still lag by up to {@code max-lag}.
+ * <p>
+ * Without a configured replica, the guard is disabled and every check passes. The measured lag is exposed as the
+ * {@code replica.lag} gauge.
+ */
+@Slf4j
+@Component
+public class ReplicaStalenessGuard {
+    private static final String LOG_PREFIX = "[ReplicaStalenessGuard]";
+
+    /**
+     * The replay lag of a PostgreSQL standby in seconds, zero when it has replayed everything it received or when
+     * the database is not a standby.
+     */
+    static final String DEFAULT_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery()"
+            + " OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagNanos;
+    private final long writeRetentionNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Long> recentWrites = new ConcurrentHashMap<>();
+    private volatile double lagSeconds = Double.NaN;
+
+    @Autowired
+    public ReplicaStalenessGuard(@Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica.max-lag:PT1S}") Duration maxLag,
+                                 @Value("${app.datasource.replica.lag-check-interval:5000}") long lagCheckIntervalMs,
+                                 @Value("${app.datasource.replica.lag-query:}") String lagQuery) {
+        this(replicaDataSource.getIfAvailable(), meterRegistry, maxLag, Duration.ofMillis(lagCheckIntervalMs), lagQuery,
+                System::nanoTime);
+    }
+
+    ReplicaStalenessGuard(DataSource replicaDataSource, MeterRegistry meterRegistry, Duration maxLag,
+                          Duration lagCheckInterval, String lagQuery, LongSupplier clock) {
+        this.replica = replicaDataSource != null ? new JdbcTemplate(replicaDataSource) : null;
+        this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : DEFAULT_LAG_QUERY;
+        this.maxLagNanos = maxLag.toNanos();
+        this.writeRetentionNanos = maxLag.plus(lagCheckInterval).toNanos();
+        this.clock = clock;
+        if (replica != null) {
+            Gauge.builder("replica.lag", this, guard -> guard.lagSeconds)
+                    .description("Replay lag of the read replica")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns whether read-only transactions may currently read from the replica.
+     *
+     * @return true if a replica is configured and its last measured lag is within the maximum
+     */
+    public boolean isReplicaUsable() {
+        return replica != null && lagSeconds <= maxLagNanos / 1e9;
+    }
+
+    /**
+     * Records that a repository was written, so it is read from the primary until the replica has caught up.
+     *
+     * @param id the repository id
+     */
+    public void recordWrite(Long id) {
+        if (replica != null && id != null) {
+            recentWrites.put(id, clock.getAsLong());
+        }
+    }
+
+    /**
+     * Returns whether any of the given repositories was written too recently to be read from the replica.
+     *
+     * @param ids the repository ids
+     * @return true if the repositories must be read from the primary
+     */
+    public boolean isRecentlyWritten(Collection<Long> ids) {
+        if (recentWrites.isEmpty()) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        for (Long id : ids) {
+            Long writtenAt = recentWrites.get(id);
+            if (writtenAt != null && now - writtenAt <= writeRetentionNanos) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Measures the lag of the replica and forgets the writes it has caught up with.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:5000}")
+    public void checkReplicaLag() {
+        if (replica == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        recentWrites.values().removeIf(writtenAt -> now - writtenAt > writeRetentionNanos);
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            lagSeconds = lag != null ? lag.doubleValue() : 0;
+            if (!isReplicaUsable()) {
+                log.warn("{} Replica lags {}s behind the primary, reading from the primary", LOG_PREFIX, lagSeconds);
+            }
+        } catch (RuntimeException e) {
+            lagSeconds = Double.NaN;
+            log.warn("{} Could not measure the replica lag, reading from the primary: {}", LOG_PREFIX, e.getMessage());
+        }
+    }
+}
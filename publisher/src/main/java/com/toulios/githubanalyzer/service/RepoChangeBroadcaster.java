@@ -0,0 +1,282 @@
+package com.toulios.githubanalyzer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.dto.request.RepoChangeSubscription;
+import com.toulios.githubanalyzer.dto.request.SseOverflowPolicy;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams repository changes to Server-Sent Events subscribers.
+ * <p>
+ * Subscribers are asynchronous requests that hold no thread while idle. Every change is serialized once into an
+ * SSE frame and offered to the bounded buffer of each matching subscriber. A small pool of sender threads drains
+ * the buffers that have frames, one subscriber at a time, so a node serves thousands of subscribers with
+ * {@code senders} threads. When the buffer of a slow subscriber is full, its overflow policy either drops the oldest
+ * frame, telling the subscriber how many changes it missed with a {@code dropped} event, or disconnects it.
+ * <p>
+ * Changes made within a transaction are only streamed once it commits. A comment frame is sent every
+ * {@code heartbeat-interval} to keep idle connections open through proxies and detect closed ones.
+ */
+@Slf4j
+@Component
+public class RepoChangeBroadcaster {
+    private static final String LOG_PREFIX = "[RepoChangeBroadcaster]";
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final Set<DataWithMediaType> HEARTBEAT = frame(":heartbeat\n\n");
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final SseOverflowPolicy defaultPolicy;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter droppedChanges;
+    private final Counter disconnectedSubscribers;
+
+    @Autowired
+    public RepoChangeBroadcaster(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.change-stream.buffer-size:256}") int bufferSize,
+                                 @Value("${app.change-stream.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${app.change-stream.timeout:PT30M}") Duration timeout,
+                                 @Value("${app.change-stream.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                 @Value("${app.change-stream.senders:4}") int senders,
+                                 @Value("${app.change-stream.overflow-policy:DROP_OLDEST}") SseOverflowPolicy defaultPolicy) {
+        this(objectMapper, meterRegistry, bufferSize, maxSubscribers, timeout, heartbeatInterval, defaultPolicy,
+                Executors.newFixedThreadPool(Math.max(1, senders), daemon("repo-change-sse-sender")));
+    }
+
+    RepoChangeBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry, int bufferSize, int maxSubscribers,
+                          Duration timeout, Duration heartbeatInterval, SseOverflowPolicy defaultPolicy,
+                          ExecutorService senders) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.defaultPolicy = defaultPolicy;
+        this.senders = senders;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(daemon("repo-change-sse-heartbeat"));
+        this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        this.droppedChanges = Counter.builder("repo.change.stream.dropped")
+                .description("Changes dropped from the buffers of slow subscribers")
+                .register(meterRegistry);
+        this.disconnectedSubscribers = Counter.builder("repo.change.stream.disconnected")
+                .description("Slow subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("repo.change.stream.subscribers", subscribers, Set::size)
+                .description("Current change stream subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the changes matching a filter.
+     *
+     * @param subscription the filter of the changes to receive
+     * @param policy what to do when the subscriber falls behind, or null for the configured default
+     * @return the emitter streaming the changes
+     * @throws TooManySubscribersException if the maximum number of subscribers is reached
+     */
+    public SseEmitter subscribe(RepoChangeSubscription subscription, SseOverflowPolicy policy) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManySubscribersException("The change stream is at capacity, please retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, subscription, policy != null ? policy : defaultPolicy,
+                new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("{} Added subscriber with filter {} ({} subscribers)", LOG_PREFIX, subscription, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Streams a change to the matching subscribers, once the current transaction commits if there is one.
+     *
+     * @param event the change event
+     */
+    public void publish(RepoChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(event);
+                }
+            });
+            return;
+        }
+        broadcast(event);
+    }
+
+    /**
+     * Returns the number of current subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void broadcast(RepoChangeEvent event) {
+        Set<DataWithMediaType> frame;
+        try {
+            frame = frame("id:" + sequence.incrementAndGet() + "\nevent:change\ndata:"
+                    + objectMapper.writeValueAsString(event) + "\n\n");
+        } catch (JsonProcessingException e) {
+            log.error("{} Error serializing change of repository {}: {}", LOG_PREFIX, event.getRepoId(), e.getMessage(), e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.subscription().matches(event)) {
+                offer(subscriber, frame);
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        while (!subscriber.buffer().offer(frame)) {
+            if (subscriber.policy() == SseOverflowPolicy.DISCONNECT) {
+                disconnectedSubscribers.increment();
+                log.info("{} Disconnecting subscriber that fell {} changes behind", LOG_PREFIX, bufferSize);
+                close(subscriber);
+                return;
+            }
+            if (subscriber.buffer().poll() != null) {
+                subscriber.dropped().incrementAndGet();
+                droppedChanges.increment();
+            }
+        }
+        schedule(subscriber);
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buffer().isEmpty() && subscriber.buffer().offer(HEARTBEAT)) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Submits a subscriber to the senders unless it is already being drained.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.draining().set(false);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> frame;
+            while ((frame = subscriber.buffer().poll()) != null) {
+                long dropped = subscriber.dropped().getAndSet(0);
+                if (dropped > 0) {
+                    subscriber.emitter().send(frame("event:dropped\ndata:" + dropped + "\n\n"));
+                }
+                subscriber.emitter().send(frame);
+            }
+        } catch (Exception e) {
+            log.debug("{} Removing subscriber that could not be written to: {}", LOG_PREFIX, e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.buffer().clear();
+        } finally {
+            subscriber.draining().set(false);
+        }
+        if (!subscriber.buffer().isEmpty() && subscribers.contains(subscriber)) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.buffer().clear();
+        subscriber.emitter().complete();
+    }
+
+    private static Set<DataWithMediaType> frame(String text) {
+        return Set.of(new DataWithMediaType(text, TEXT_PLAIN_UTF8));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(this::close);
+        senders.shutdown();
+    }
+
+    /**
+     * A subscriber with its buffer of frames waiting to be sent.
+     * Identity based, so the same filter can be subscribed to many times.
+     */
+    private record Subscriber(SseEmitter emitter, RepoChangeSubscription subscription, SseOverflowPolicy policy,
+                              BlockingQueue<Set<DataWithMediaType>> buffer, AtomicLong dropped, AtomicBoolean draining) {
+
+        private Subscriber(SseEmitter emitter, RepoChangeSubscription subscription, SseOverflowPolicy policy,
+                           BlockingQueue<Set<DataWithMediaType>> buffer) {
+            this(emitter, subscription, policy, buffer, new AtomicLong(), new AtomicBoolean());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
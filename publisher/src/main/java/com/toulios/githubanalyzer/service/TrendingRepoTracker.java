@@ -0,0 +1,293 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.response.TrendingRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.model.RepoStarSnapshot;
+import com.toulios.githubanalyzer.model.TrendingWindow;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.repository.RepoStarSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps an in-memory ranking of repositories by star velocity for every {@link TrendingWindow}.
+ * The rankings are updated incrementally from the refresh results, so reads never touch the database.
+ * Star snapshots are persisted on change and replayed on startup, so restarts keep the rankings.
+ * <p>
+ * A repository is dropped from the rankings once {@code app.trending.stale-cycles} refresh cycles completed without
+ * refreshing it, so the threshold follows the duration of the cycles as the catalogue grows.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TrendingRepoTracker {
+
+    private static final String LOG_PREFIX = "[TrendingRepoTracker]";
+
+    private final RepoStarSnapshotRepository snapshotRepository;
+    private final ObservedRepoRepository observedRepoRepository;
+
+    /** Star history per repository. Only accessed while holding the tracker lock. */
+    private final Map<Long, RepoStarHistory> histories = new HashMap<>();
+
+    /** Rankings per window, ordered by stars gained. Read without locking. */
+    private final Map<TrendingWindow, NavigableSet<TrendingEntry>> rankings = createRankings();
+
+    @Value("${app.trending.max-results:100}")
+    private int maxResults = 100;
+
+    @Value("${app.trending.stale-cycles:2}")
+    private int staleCycles = 2;
+
+    /** Start times of the latest completed refresh cycles, oldest first. Only accessed while holding the tracker lock. */
+    private final Deque<Instant> completedCycles = new ArrayDeque<>();
+
+    /**
+     * Records the refreshed star counts of a page of repositories and updates the rankings.
+     * Repositories that are no longer active are removed from the rankings.
+     *
+     * @param repos the refreshed repositories
+     * @param observedAt the time the repositories were refreshed
+     */
+    public synchronized void recordAll(List<ObservedRepo> repos, Instant observedAt) {
+        List<RepoStarSnapshot> snapshots = new ArrayList<>();
+
+        for (ObservedRepo repo : repos) {
+            if (repo.getId() == null) {
+                continue;
+            }
+            if (repo.getStatus() != ObservedRepoStatus.ACTIVE || repo.getStars() == null) {
+                remove(repo.getId());
+                continue;
+            }
+
+            RepoStarHistory history = histories.computeIfAbsent(repo.getId(), RepoStarHistory::new);
+            history.owner = repo.getOwner();
+            history.name = repo.getName();
+            history.lastObservedAt = observedAt;
+            if (history.append(repo.getStars(), observedAt)) {
+                snapshots.add(new RepoStarSnapshot(null, repo.getId(), repo.getStars(), observedAt));
+            }
+            rank(history, observedAt);
+        }
+
+        if (!snapshots.isEmpty()) {
+            snapshotRepository.saveAll(snapshots);
+        }
+    }
+
+    /**
+     * Records the completion of a refresh cycle, which refreshed every active repository observed since its start.
+     *
+     * @param startedAt the time the cycle started
+     */
+    public synchronized void cycleCompleted(Instant startedAt) {
+        completedCycles.addLast(startedAt);
+        while (completedCycles.size() > Math.max(1, staleCycles)) {
+            completedCycles.pollFirst();
+        }
+    }
+
+    /**
+     * Returns the repositories that gained the most stars within the given window.
+     *
+     * @param window the window to rank by
+     * @param limit the maximum number of entries to return
+     * @return the trending repositories, highest velocity first
+     */
+    public List<TrendingRepoResponse> getTrending(TrendingWindow window, int limit) {
+        double hours = window.getDuration().toMinutes() / 60.0;
+        return rankings.get(window).stream()
+                .limit(Math.max(0, Math.min(limit, maxResults)))
+                .map(entry -> TrendingRepoResponse.builder()
+                        .id(entry.repoId())
+                        .owner(entry.owner())
+                        .name(entry.name())
+                        .stars(entry.stars())
+                        .starsGained(entry.starsGained())
+                        .starsPerHour(entry.starsGained() / hours)
+                        .window(window.getLabel())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Rebuilds the rankings from the persisted star snapshots once the application has started.
+     * The latest snapshot of every repository before the longest window is its baseline, since snapshots are
+     * only stored when the star count changes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Instant now = Instant.now();
+        Instant since = now.minus(TrendingWindow.longest().getDuration());
+        List<RepoStarSnapshot> snapshots = new ArrayList<>(snapshotRepository.findLatestRecordedBefore(since));
+        snapshots.addAll(snapshotRepository.findByRecordedAtGreaterThanEqualOrderByRecordedAtAsc(since));
+
+        histories.clear();
+        rankings.values().forEach(Set::clear);
+        if (snapshots.isEmpty()) {
+            log.info("{} No star history found. Rankings start empty.", LOG_PREFIX);
+            return;
+        }
+
+        Set<Long> repoIds = snapshots.stream().map(RepoStarSnapshot::getRepoId).collect(Collectors.toSet());
+        Map<Long, ObservedRepo> repos = observedRepoRepository.findAllById(repoIds).stream()
+                .filter(repo -> repo.getStatus() == ObservedRepoStatus.ACTIVE)
+                .collect(Collectors.toMap(ObservedRepo::getId, Function.identity()));
+
+        for (RepoStarSnapshot snapshot : snapshots) {
+            ObservedRepo repo = repos.get(snapshot.getRepoId());
+            if (repo == null) {
+                continue;
+            }
+            RepoStarHistory history = histories.computeIfAbsent(repo.getId(), RepoStarHistory::new);
+            history.owner = repo.getOwner();
+            history.name = repo.getName();
+            history.lastObservedAt = now;
+            history.append(snapshot.getStars(), snapshot.getRecordedAt());
+        }
+        histories.values().forEach(history -> rank(history, now));
+
+        log.info("{} Rebuilt rankings for {} repositories from {} snapshots",
+                LOG_PREFIX, histories.size(), snapshots.size());
+    }
+
+    /**
+     * Drops repositories that the last {@code app.trending.stale-cycles} completed refresh cycles did not refresh and
+     * deletes snapshots that are older than the longest window, except the baseline of every repository.
+     */
+    @Scheduled(fixedRateString = "${app.trending.purge-rate:3600000}", initialDelayString = "${app.trending.purge-rate:3600000}")
+    public synchronized void purgeExpired() {
+        Instant now = Instant.now();
+        List<Long> stale = List.of();
+        if (completedCycles.size() >= Math.max(1, staleCycles)) {
+            Instant staleBefore = completedCycles.peekFirst();
+            stale = histories.values().stream()
+                    .filter(history -> history.lastObservedAt.isBefore(staleBefore))
+                    .map(history -> history.repoId)
+                    .toList();
+            stale.forEach(this::remove);
+        }
+
+        Instant cutoff = now.minus(TrendingWindow.longest().getDuration());
+        int deleted = snapshotRepository.deleteSupersededBefore(cutoff);
+        log.info("{} Purged {} stale repositories and {} expired snapshots", LOG_PREFIX, stale.size(), deleted);
+    }
+
+    /**
+     * Recomputes the stars gained by a repository in every window and repositions it in the rankings.
+     */
+    private void rank(RepoStarHistory history, Instant now) {
+        history.trim(now.minus(TrendingWindow.longest().getDuration()));
+        StarSample latest = history.samples.peekLast();
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            NavigableSet<TrendingEntry> ranking = rankings.get(window);
+            TrendingEntry previous = history.entries.remove(window);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+
+            int gained = latest.stars() - history.baseline(now.minus(window.getDuration())).stars();
+            if (gained > 0) {
+                TrendingEntry entry = new TrendingEntry(history.repoId, history.owner, history.name, latest.stars(), gained);
+                history.entries.put(window, entry);
+                ranking.add(entry);
+            }
+        }
+    }
+
+    private void remove(Long repoId) {
+        RepoStarHistory history = histories.remove(repoId);
+        if (history != null) {
+            history.entries.forEach((window, entry) -> rankings.get(window).remove(entry));
+        }
+    }
+
+    private static Map<TrendingWindow, NavigableSet<TrendingEntry>> createRankings() {
+        Map<TrendingWindow, NavigableSet<TrendingEntry>> rankings = new EnumMap<>(TrendingWindow.class);
+        Comparator<TrendingEntry> byVelocity = Comparator.comparingLong(TrendingEntry::starsGained).reversed()
+                .thenComparingLong(TrendingEntry::repoId);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            rankings.put(window, new ConcurrentSkipListSet<>(byVelocity));
+        }
+        return rankings;
+    }
+
+    private record StarSample(int stars, Instant recordedAt) {
+    }
+
+    private record TrendingEntry(long repoId, String owner, String name, int stars, long starsGained) {
+    }
+
+    /**
+     * Star samples of a single repository, oldest first. A sample is only kept when the star count changes.
+     */
+    private static class RepoStarHistory {
+        private final long repoId;
+        private final Deque<StarSample> samples = new ArrayDeque<>();
+        private final Map<TrendingWindow, TrendingEntry> entries = new EnumMap<>(TrendingWindow.class);
+        private String owner;
+        private String name;
+        private Instant lastObservedAt;
+
+        private RepoStarHistory(long repoId) {
+            this.repoId = repoId;
+        }
+
+        /**
+         * Appends a sample if the star count changed.
+         *
+         * @return true if a new sample was stored
+         */
+        private boolean append(int stars, Instant recordedAt) {
+            StarSample last = samples.peekLast();
+            if (last != null && last.stars() == stars) {
+                return false;
+            }
+            samples.addLast(new StarSample(stars, recordedAt));
+            return true;
+        }
+
+        /**
+         * Returns the star count at the start of a window: the latest sample taken at or before
+         * the window start, or the oldest known sample if the history is shorter than the window.
+         */
+        private StarSample baseline(Instant windowStart) {
+            StarSample baseline = samples.peekFirst();
+            for (StarSample sample : samples) {
+                if (sample.recordedAt().isAfter(windowStart)) {
+                    break;
+                }
+                baseline = sample;
+            }
+            return baseline;
+        }
+
+        /**
+         * Drops samples older than the cutoff, keeping the last one before it as baseline.
+         */
+        private void trim(Instant cutoff) {
+            while (samples.size() > 1) {
+                Iterator<StarSample> iterator = samples.iterator();
+                iterator.next();
+                if (iterator.next().recordedAt().isAfter(cutoff)) {
+                    break;
+                }
+                samples.pollFirst();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.toulios.githubanalyzer.util;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoCursor;
+import com.toulios.githubanalyzer.exception.InvalidCursorException;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Utility class encoding pagination cursors as opaque URL-safe strings.
+ * Clients must treat cursors as opaque; the encoding may change between versions.
+ */
+public class CursorCodec {
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Encodes a cursor.
+     *
+     * @param cursor the cursor
+     * @return the opaque cursor string
+     */
+    public static String encode(ObservedRepoCursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor.
+     *
+     * @param value the opaque cursor string
+     * @return the cursor
+     * @throws InvalidCursorException if the value is not a valid cursor
+     */
+    public static ObservedRepoCursor decode(String value) {
+        try {
+            ObservedRepoCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(value), ObservedRepoCursor.class);
+            if (cursor.sort() == null || cursor.size() < 1 || (cursor.id() == null && cursor.backward())) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            if (cursor.id() != null) {
+                cursor.sort().parse(cursor.value());
+            }
+            return cursor;
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
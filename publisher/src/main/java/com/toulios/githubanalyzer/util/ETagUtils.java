@@ -0,0 +1,59 @@
+package com.toulios.githubanalyzer.util;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.dto.response.PaginatedResponse;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class computing weak entity tags of repository responses.
+ * Tags are derived from the ids and {@code updatedAt} of the repositories involved instead of the serialized body,
+ * so they can be compared before the body is written. {@code updatedAt} is set by JPA auditing on every flushed
+ * change, which makes it act as the version of a repository. Tags are weak because they do not depend on the
+ * representation, which also lets the server compress tagged responses.
+ */
+public class ETagUtils {
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Computes the tag of a single repository response.
+     *
+     * @param response the repository response
+     * @return the weak entity tag
+     */
+    public static String of(ObservedRepoResponse response) {
+        StringBuilder key = new StringBuilder();
+        appendVersion(key, response);
+        return weak(key);
+    }
+
+    /**
+     * Computes the tag of a page of repository responses.
+     * The links and cursors of the page are part of the tag, so a page also changes when repositories are added to or
+     * removed from the listing around it.
+     *
+     * @param page the page of repository responses
+     * @return the weak entity tag
+     */
+    public static String of(PaginatedResponse<ObservedRepoResponse> page) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNext()).append(SEPARATOR)
+                .append(page.getPrevious()).append(SEPARATOR)
+                .append(page.getNextCursor()).append(SEPARATOR)
+                .append(page.getPreviousCursor());
+        for (ObservedRepoResponse response : page.getResults()) {
+            key.append(SEPARATOR);
+            appendVersion(key, response);
+        }
+        return weak(key);
+    }
+
+    private static void appendVersion(StringBuilder key, ObservedRepoResponse response) {
+        key.append(response.getId()).append('@').append(response.getUpdatedAt());
+    }
+
+    private static String weak(CharSequence key) {
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
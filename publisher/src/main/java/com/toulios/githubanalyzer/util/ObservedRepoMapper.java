@@ -37,6 +37,24 @@ public class ObservedRepoMapper {
         return observedRepo;
     }
     
+    /**
+     * Copies the values of a repository that are compared when detecting changes.
+     *
+     * @param repo the repository
+     * @return a detached copy of the values
+     */
+    public static ObservedRepo copyOf(ObservedRepo repo) {
+        ObservedRepo copy = new ObservedRepo();
+        copy.setName(repo.getName());
+        copy.setOwner(repo.getOwner());
+        copy.setStars(repo.getStars());
+        copy.setOpenIssues(repo.getOpenIssues());
+        copy.setUrl(repo.getUrl());
+        copy.setStatus(repo.getStatus());
+        copy.setLicence(repo.getLicence());
+        return copy;
+    }
+
     /**
      * Maps internal Repository entity to DTO for response
      */
@@ -0,0 +1,9 @@
+CREATE TABLE repo_star_snapshot (
+    id BIGSERIAL PRIMARY KEY,
+    repo_id BIGINT NOT NULL REFERENCES observed_repo (id),
+    stars INT NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_star_snapshot_recorded_at ON repo_star_snapshot (recorded_at);
+CREATE INDEX idx_star_snapshot_repo_recorded ON repo_star_snapshot (repo_id, recorded_at);
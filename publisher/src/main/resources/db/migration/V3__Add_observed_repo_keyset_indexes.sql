@@ -0,0 +1,2 @@
+CREATE INDEX idx_repo_created_at_id ON observed_repo (created_at, id);
+CREATE INDEX idx_repo_updated_at_id ON observed_repo (updated_at, id);
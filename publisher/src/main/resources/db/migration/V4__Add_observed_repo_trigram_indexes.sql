@@ -0,0 +1,7 @@
+-- Substring filters run lower(column) LIKE '%value%', which btree indexes cannot serve.
+-- Trigram GIN indexes on the same expressions let PostgreSQL answer them with a bitmap index scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_repo_owner_trgm ON observed_repo USING gin (lower(repo_owner) gin_trgm_ops);
+CREATE INDEX idx_repo_name_trgm ON observed_repo USING gin (lower(repo_name) gin_trgm_ops);
+CREATE INDEX idx_repo_licence_trgm ON observed_repo USING gin (lower(licence) gin_trgm_ops);
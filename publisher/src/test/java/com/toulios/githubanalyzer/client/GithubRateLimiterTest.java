@@ -0,0 +1,50 @@
+package com.toulios.githubanalyzer.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GithubRateLimiterTest {
+
+    private MeterRegistry meterRegistry;
+    private GithubRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new GithubRateLimiter(new GithubProperties(5000, 3600, 1, null, null), meterRegistry);
+    }
+
+    @Test
+    void updateRateLimits_ShouldExposeTheRateLimitAsGauges() {
+        // Given
+        Instant resetTime = Instant.parse("2024-03-21T11:00:00Z");
+
+        // When
+        rateLimiter.updateRateLimits(4200, 5000, resetTime);
+
+        // Then
+        assertEquals(4200, meterRegistry.get("github.api.rate.limit.remaining").gauge().value());
+        assertEquals(5000, meterRegistry.get("github.api.rate.limit.limit").gauge().value());
+        assertEquals(resetTime.getEpochSecond(), meterRegistry.get("github.api.rate.limit.reset").gauge().value());
+    }
+
+    @Test
+    void waitIfNeeded_ShouldTakeARequestAndRecordTheWait() throws InterruptedException {
+        // Given
+        rateLimiter.updateRateLimits(100, 5000, Instant.now().plusSeconds(60));
+
+        // When
+        rateLimiter.waitIfNeeded();
+        rateLimiter.waitIfNeeded();
+
+        // Then
+        assertEquals(98, meterRegistry.get("github.api.rate.limit.remaining").gauge().value());
+        assertEquals(2, meterRegistry.get("github.api.rate.limit.wait").timer().count());
+    }
+}
@@ -0,0 +1,195 @@
+package com.toulios.githubanalyzer.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.toulios.githubanalyzer.client.GithubApiClient;
+import com.toulios.githubanalyzer.client.GithubProperties;
+import com.toulios.githubanalyzer.client.GithubRateLimiter;
+import com.toulios.githubanalyzer.dto.GithubRepositoryDto;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.service.MessageService;
+import com.toulios.githubanalyzer.service.ObservedRepoCache;
+import com.toulios.githubanalyzer.service.ObservedRepoHelper;
+import com.toulios.githubanalyzer.service.ObservedRepoProcessingService;
+import com.toulios.githubanalyzer.service.ObservedRepoStatsTracker;
+import com.toulios.githubanalyzer.service.TrendingRepoTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightRecorderConfigTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        new FlightRecorderConfig(false);
+    }
+
+    @Test
+    void enabled_ShouldRecordTheRefreshStagesWithTheirRepositories() throws IOException {
+        // Given
+        new FlightRecorderConfig(true);
+        ObservedRepoRepository repository = mock(ObservedRepoRepository.class);
+        GithubApiClient githubApiClient = mock(GithubApiClient.class);
+        ObservedRepoHelper helper = mock(ObservedRepoHelper.class);
+        ObservedRepoProcessingService service = new ObservedRepoProcessingService(githubApiClient, repository, helper,
+                mock(TrendingRepoTracker.class), mock(ObservedRepoCache.class), mock(ObservedRepoStatsTracker.class),
+                new SimpleMeterRegistry());
+        when(repository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(repo(1L, "repo1"), repo(2L, "repo2"))))
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+        GithubRepositoryDto found = new GithubRepositoryDto();
+        found.setName("repo1");
+        when(githubApiClient.getRepositoryDetails("owner", "repo1")).thenReturn(found);
+        when(githubApiClient.getRepositoryDetails("owner", "repo2")).thenReturn(null);
+        when(helper.handleChanges(any(), any(), any(), any())).thenReturn(true);
+
+        // When
+        List<RecordedEvent> events = record(service::processObservedRepos);
+
+        // Then
+        List<RecordedEvent> pageLoads = all(events, "RefreshPageLoad");
+        assertEquals(2, pageLoads.size());
+        assertEquals(0, pageLoads.get(0).getInt("page"));
+        assertEquals(2, pageLoads.get(0).getInt("repos"));
+        assertEquals(1, pageLoads.get(1).getInt("page"));
+        assertEquals(0, pageLoads.get(1).getInt("repos"));
+        List<RecordedEvent> fetches = all(events, "RepoFetch");
+        assertEquals(2, fetches.size());
+        assertEquals(1L, fetches.get(0).getLong("repoId"));
+        assertEquals("FOUND", fetches.get(0).getString("result"));
+        assertEquals(2L, fetches.get(1).getLong("repoId"));
+        assertEquals("NOT_FOUND", fetches.get(1).getString("result"));
+        RecordedEvent save = only(events, "RefreshSave");
+        assertEquals(2, save.getInt("repos"));
+        assertEquals(1L, save.getLong("firstRepoId"));
+        assertEquals(2L, save.getLong("lastRepoId"));
+        List<RecordedEvent> diffs = all(events, "RepoDiff");
+        assertEquals(2, diffs.size());
+        assertEquals(1L, diffs.get(0).getLong("repoId"));
+        assertTrue(diffs.get(0).getBoolean("changed"));
+        assertEquals(2L, diffs.get(1).getLong("repoId"));
+    }
+
+    @Test
+    void enabled_ShouldRecordRateLimitWaitsAndChangeEventSends() throws IOException {
+        // Given
+        new FlightRecorderConfig(true);
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(new GithubProperties(5000, 3600, 1, null, null),
+                new SimpleMeterRegistry());
+        KafkaTemplate<String, String> kafkaTemplate = (KafkaTemplate<String, String>) mock(KafkaTemplate.class);
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("repo-changes", 2), 41, 0, 0, 0, 0);
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(
+                new SendResult<>(new ProducerRecord<>("repo-changes", "7", "{}"), metadata)));
+        MessageService messageService = new MessageService(new ObjectMapper().registerModule(new JavaTimeModule()),
+                kafkaTemplate, new SimpleMeterRegistry());
+
+        // When
+        List<RecordedEvent> events = record(() -> {
+            rateLimiter.waitIfNeeded();
+            messageService.sendChangeEvent("repo-changes", RepoChangeEvent.builder().repoId(7L).build());
+        });
+
+        // Then
+        RecordedEvent wait = only(events, "RateLimitWait");
+        assertEquals("LOCK", wait.getString("reason"));
+        assertEquals(4999, wait.getInt("remaining"));
+        RecordedEvent send = only(events, "ChangeEventSend");
+        assertEquals(7L, send.getLong("repoId"));
+        assertEquals("repo-changes", send.getString("topic"));
+        assertEquals(2, send.getInt("partition"));
+        assertEquals(41L, send.getLong("offset"));
+        assertTrue(send.getBoolean("acknowledged"));
+    }
+
+    @Test
+    void disabled_ShouldNotRecordAnyEvent() throws IOException {
+        // Given
+        new FlightRecorderConfig(false);
+        GithubRateLimiter rateLimiter = new GithubRateLimiter(new GithubProperties(5000, 3600, 1, null, null),
+                new SimpleMeterRegistry());
+
+        // When
+        List<RecordedEvent> events = record(rateLimiter::waitIfNeeded);
+
+        // Then
+        assertFalse(events.stream().anyMatch(event -> event.getEventType().getName().startsWith("com.toulios")));
+    }
+
+    /**
+     * Runs an action in a recording of every custom event and returns the custom events it recorded.
+     */
+    private List<RecordedEvent> record(ThrowingRunnable action) throws IOException {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            FlightRecorderConfig.EVENTS.forEach(event -> recording.enable(event).withoutThreshold());
+            recording.start();
+            try {
+                action.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.toulios.githubanalyzer."))
+                .toList();
+    }
+
+    private static List<RecordedEvent> all(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.toulios.githubanalyzer." + name))
+                .toList();
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = all(events, name);
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+
+    private static ObservedRepo repo(Long id, String name) {
+        ObservedRepo repo = new ObservedRepo();
+        repo.setId(id);
+        repo.setOwner("owner");
+        repo.setName(name);
+        repo.setStatus(ObservedRepoStatus.ACTIVE);
+        return repo;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,68 @@
+package com.toulios.githubanalyzer.config;
+
+import com.toulios.githubanalyzer.service.ReplicaStalenessGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final ReplicaStalenessGuard stalenessGuard = mock(ReplicaStalenessGuard.class);
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(database("primary"), database("replica"), stalenessGuard));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaUsable_ShouldReadReplica() {
+        // Given
+        when(stalenessGuard.isReplicaUsable()).thenReturn(true);
+
+        // When & Then
+        assertEquals("replica", readOnlyTransaction.execute(status -> databaseName()));
+        assertEquals("primary", readWriteTransaction.execute(status -> databaseName()));
+        assertEquals("primary", databaseName());
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaLags_ShouldReadPrimary() {
+        // Given
+        when(stalenessGuard.isReplicaUsable()).thenReturn(false);
+
+        // When & Then
+        assertEquals("primary", readOnlyTransaction.execute(status -> databaseName()));
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM database_name", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS database_name (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM database_name");
+        jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,177 @@
+package com.toulios.githubanalyzer.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.service.AdaptiveConcurrencyLimiter;
+import com.toulios.githubanalyzer.service.ClientRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiLimitFilterTest {
+
+    @Mock
+    private ClientRateLimiter clientRateLimiter;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ApiLimitFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ApiLimitFilter(clientRateLimiter, concurrencyLimiter, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry, "X-API-Key", Set.of("secret"));
+        request = new MockHttpServletRequest("GET", "/api/v1/observed-repos");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void doFilter_WhenAdmitted_ShouldReleaseWithLatency() throws Exception {
+        // Given
+        request.addHeader("X-API-Key", "secret");
+        when(clientRateLimiter.tryAcquire("key:secret")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verify(concurrencyLimiter).release(anyLong());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenApiKeyIsUnknown_ShouldLimitByAddress() throws Exception {
+        // Given
+        request.addHeader("X-API-Key", "rotated-1");
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(clientRateLimiter).tryAcquire("ip:10.0.0.1");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilter_WhenClientExceedsRate_ShouldRejectWithRetryAfter() throws Exception {
+        // Given
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ofMillis(1500));
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"status\":429"));
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(concurrencyLimiter, never()).tryAcquire();
+        assertEquals(1, meterRegistry.counter("api.limit.rejected", "limit", "client").count());
+    }
+
+    @Test
+    void doFilter_WhenConcurrencyLimitReached_ShouldShedRequest() throws Exception {
+        // Given
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(false);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(429, response.getStatus());
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(concurrencyLimiter, never()).release();
+        verify(concurrencyLimiter, never()).release(anyLong());
+        assertEquals(1, meterRegistry.counter("api.limit.rejected", "limit", "concurrency").count());
+    }
+
+    @Test
+    void doFilter_WhenChainFails_ShouldReleaseWithoutLatency() throws Exception {
+        // Given
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        doThrow(new IllegalStateException("boom")).when(filterChain).doFilter(request, response);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, response, filterChain));
+        verify(concurrencyLimiter).release();
+        verify(concurrencyLimiter, never()).release(anyLong());
+    }
+
+    @Test
+    void doFilter_WhenRequestContinuesAsynchronously_ShouldReleaseOnlyOnceItCompletes() throws Exception {
+        // Given
+        request.setRequestURI("/api/v1/observed-repos/export");
+        request.setAsyncSupported(true);
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        doAnswer(invocation -> request.startAsync()).when(filterChain).doFilter(request, response);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+        verify(concurrencyLimiter, never()).release();
+        request.getAsyncContext().complete();
+
+        // Then
+        verify(concurrencyLimiter).release();
+        verify(concurrencyLimiter, never()).release(anyLong());
+    }
+
+    @Test
+    void doFilter_WhenChangeStreamStarts_ShouldReleaseWhenHandlerReturns() throws Exception {
+        // Given
+        request.setRequestURI("/api/v1/observed-repos/changes");
+        request.setAsyncSupported(true);
+        when(clientRateLimiter.tryAcquire("ip:10.0.0.1")).thenReturn(Duration.ZERO);
+        when(concurrencyLimiter.tryAcquire()).thenReturn(true);
+        doAnswer(invocation -> request.startAsync()).when(filterChain).doFilter(request, response);
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(concurrencyLimiter).release();
+        request.getAsyncContext().complete();
+        verify(concurrencyLimiter).release();
+    }
+
+    @Test
+    void doFilter_OutsideApi_ShouldNotLimit() throws Exception {
+        // Given
+        request.setRequestURI("/actuator/prometheus");
+
+        // When
+        filter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(clientRateLimiter, concurrencyLimiter);
+    }
+}
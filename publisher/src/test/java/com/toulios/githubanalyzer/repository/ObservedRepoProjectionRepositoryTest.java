@@ -0,0 +1,195 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.config.JpaAuditingConfig;
+import com.toulios.githubanalyzer.dto.request.CursorSortField;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoCursor;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoKey;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
+import com.toulios.githubanalyzer.util.ObservedRepoMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import(JpaAuditingConfig.class)
+class ObservedRepoProjectionRepositoryTest {
+
+    private static final int REPOS = 50;
+
+    @Autowired
+    private ObservedRepoRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= REPOS; i++) {
+            ObservedRepo repo = new ObservedRepo();
+            repo.setOwner(i % 2 == 0 ? "even_owner" : "odd%owner");
+            repo.setName("repo-" + i);
+            repo.setStars(i);
+            repo.setLicence(i % 5 == 0 ? null : "MIT License");
+            repo.setStatus(i % 10 == 0 ? ObservedRepoStatus.INVALID : ObservedRepoStatus.ACTIVE);
+            repository.save(repo);
+        }
+        repository.flush();
+        // five repositories share every updatedAt value, so the keyset has to break ties by id
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (ObservedRepo repo : repository.findAll()) {
+            entityManager.createNativeQuery("UPDATE observed_repo SET updated_at = ?1 WHERE id = ?2")
+                    .setParameter(1, base.plusMinutes(repo.getId() % 10))
+                    .setParameter(2, repo.getId())
+                    .executeUpdate();
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void findResponseById_ShouldMatchTheEntityMapping() {
+        // Given
+        ObservedRepo entity = repository.findAll(Sort.by("id")).get(4);
+        entityManager.clear();
+
+        // When
+        ObservedRepoResponse response = repository.findResponseById(entity.getId()).orElseThrow();
+
+        // Then
+        assertEquals(ObservedRepoMapper.toResponse(entity), response);
+        assertTrue(repository.findResponseById(-1L).isEmpty());
+    }
+
+    @Test
+    void findResponses_ShouldFilterPageAndCountWithoutManagingEntities() {
+        // Given
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().owner("ODD%").status(ObservedRepoStatus.ACTIVE).build();
+
+        // When
+        Page<ObservedRepoResponse> page = repository.findResponses(ObservedRepoSpecification.withFilter(filter),
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "stars")));
+
+        // Then
+        assertEquals(25, page.getTotalElements());
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(29, page.getContent().get(0).getStars());
+        assertTrue(page.getContent().stream().allMatch(repo -> repo.getOwner().equals("odd%owner")));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void seek_ShouldWalkEveryRowOnceInBothDirections() {
+        for (boolean descending : new boolean[]{false, true}) {
+            // Given
+            ObservedRepoCursor cursor = new ObservedRepoCursor(null, null, null, null,
+                    CursorSortField.UPDATED_AT, descending, 7, null, null, false);
+            Comparator<ObservedRepoResponse> order = Comparator.comparing(ObservedRepoResponse::getUpdatedAt)
+                    .thenComparing(ObservedRepoResponse::getId);
+            List<ObservedRepoResponse> expected = repository.findResponses(
+                    ObservedRepoSpecification.withFilter(cursor.filter()), PageRequest.of(0, REPOS)).getContent()
+                    .stream().sorted(descending ? order.reversed() : order).toList();
+
+            // When
+            List<ObservedRepoResponse> forward = new ArrayList<>();
+            List<ObservedRepoResponse> page = readPage(cursor);
+            while (!page.isEmpty()) {
+                forward.addAll(page);
+                ObservedRepoResponse last = page.get(page.size() - 1);
+                page = readPage(cursor.at(CursorSortField.UPDATED_AT.valueOf(last), last.getId(), false));
+            }
+            ObservedRepoResponse last = forward.get(forward.size() - 1);
+            List<ObservedRepoResponse> before = readPage(
+                    cursor.at(CursorSortField.UPDATED_AT.valueOf(last), last.getId(), true));
+
+            // Then
+            assertEquals(expected, forward);
+            List<ObservedRepoResponse> reversed = new ArrayList<>(before);
+            Collections.reverse(reversed);
+            assertEquals(expected.subList(REPOS - 8, REPOS - 1), reversed);
+        }
+    }
+
+    @Test
+    void hasIdInOrOwnerAndNameIn_ShouldMatchExactKeysWithOneQuery() {
+        // Given
+        List<Long> ids = repository.findAll(Sort.by("id")).stream().map(ObservedRepo::getId).limit(2).toList();
+        entityManager.clear();
+
+        // When
+        List<ObservedRepoResponse> responses = repository.findResponses(
+                ObservedRepoSpecification.hasIdIn(List.of(ids.get(0), -1L))
+                        .or(ObservedRepoSpecification.hasOwnerAndNameIn(List.of(
+                                new ObservedRepoKey("even_owner", "repo-4"),
+                                new ObservedRepoKey("even_owner", "repo-5"),
+                                new ObservedRepoKey("even", "repo-6")))),
+                Sort.by("id"));
+
+        // Then
+        assertEquals(List.of("repo-1", "repo-4"), responses.stream().map(ObservedRepoResponse::getName).toList());
+        assertTrue(repository.findResponses(ObservedRepoSpecification.hasIdIn(List.of())
+                .or(ObservedRepoSpecification.hasOwnerAndNameIn(List.of())), Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    void countGroups_ShouldCountAndSumStarsPerOwnerLicenceAndStatus() {
+        // When
+        List<ObservedRepoGroupCount> groups = repository.countGroups();
+
+        // Then
+        ObservedRepoGroupCount evenActiveMit = groups.stream()
+                .filter(group -> group.getOwner().equals("even_owner") && "MIT License".equals(group.getLicence())
+                        && group.getStatus() == ObservedRepoStatus.ACTIVE)
+                .findFirst().orElseThrow();
+        // even numbers up to 50 that are not multiples of 10
+        assertEquals(20, evenActiveMit.getRepos());
+        assertEquals(500, evenActiveMit.getStars());
+        assertEquals(REPOS, groups.stream().mapToLong(ObservedRepoGroupCount::getRepos).sum());
+    }
+
+    @Test
+    void streamAll_ShouldStreamMatchingRepositoriesOrderedById() {
+        // Given
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().licence("mit").build();
+
+        // When
+        List<Long> ids;
+        try (Stream<ObservedRepoResponse> stream = repository.streamAll(ObservedRepoSpecification.withFilter(filter), 8)) {
+            ids = stream.map(ObservedRepoResponse::getId).toList();
+        }
+
+        // Then
+        assertEquals(40, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    private List<ObservedRepoResponse> readPage(ObservedRepoCursor cursor) {
+        Sort.Direction direction = cursor.descending() == cursor.backward() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return repository.findResponses(
+                ObservedRepoSpecification.withFilter(cursor.filter()).and(ObservedRepoSpecification.seek(cursor)),
+                Sort.by(direction, cursor.sort().getProperty(), "id"),
+                cursor.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.config.JpaAuditingConfig;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.specification.ObservedRepoSpecification;
+import com.toulios.githubanalyzer.util.ObservedRepoMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the entity and projection read paths of the listing on an in-memory database.
+ * Only runs with {@code mvn test -Pbenchmark}.
+ */
+@Slf4j
+@Tag("benchmark")
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+@Import(JpaAuditingConfig.class)
+class ObservedRepoReadPathBenchmarkTest {
+
+    private static final int REPOS = 20_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 1_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private ObservedRepoRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Specification<ObservedRepo> spec = ObservedRepoSpecification.withFilter(
+            ObservedRepoFilter.builder().status(ObservedRepoStatus.ACTIVE).build());
+
+    private final Pageable pageable = PageRequest.of(10, 50, Sort.by(Sort.Direction.DESC, "stars"));
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= REPOS; i++) {
+            ObservedRepo repo = new ObservedRepo();
+            repo.setOwner("owner-" + (i % 500));
+            repo.setName("repo-" + i);
+            repo.setUrl("https://github.com/owner-" + (i % 500) + "/repo-" + i);
+            repo.setStars(i);
+            repo.setOpenIssues(i % 37);
+            repo.setLicence("MIT License");
+            repo.setStatus(ObservedRepoStatus.ACTIVE);
+            entityManager.persist(repo);
+            if (i % 1_000 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void compareEntityAndProjectionListing() {
+        // Given
+        Supplier<Page<ObservedRepoResponse>> entityPath =
+                () -> repository.findAll(spec, pageable).map(ObservedRepoMapper::toResponse);
+        Supplier<Page<ObservedRepoResponse>> projectionPath = () -> repository.findResponses(spec, pageable);
+        assertEquals(entityPath.get().getContent(), projectionPath.get().getContent());
+
+        // When
+        Result entity = measure(entityPath);
+        Result projection = measure(projectionPath);
+
+        // Then
+        log.warn("Listing page of {} from {} repositories, {} iterations", pageable.getPageSize(), REPOS, MEASURED_ITERATIONS);
+        log.warn("  entity:     {} ops/s, {} bytes/op", entity.opsPerSecond(), entity.bytesPerOp());
+        log.warn("  projection: {} ops/s, {} bytes/op", projection.opsPerSecond(), projection.bytesPerOp());
+    }
+
+    /**
+     * Runs the read path, clearing the persistence context after every call as a request-scoped session would.
+     */
+    private Result measure(Supplier<Page<ObservedRepoResponse>> readPath) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            readPath.get();
+            entityManager.clear();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            readPath.get();
+            entityManager.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(MEASURED_ITERATIONS * 1_000_000_000L / elapsed, allocated / MEASURED_ITERATIONS);
+    }
+
+    private record Result(long opsPerSecond, long bytesPerOp) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.toulios.githubanalyzer.repository;
+
+import com.toulios.githubanalyzer.model.RepoStarSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class RepoStarSnapshotRepositoryTest {
+
+    private static final Instant CUTOFF = Instant.parse("2024-03-21T10:00:00Z");
+
+    @Autowired
+    private RepoStarSnapshotRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository.saveAll(List.of(
+                snapshot(1L, 100, CUTOFF.minusSeconds(7200)),
+                snapshot(1L, 110, CUTOFF.minusSeconds(3600)),
+                snapshot(1L, 130, CUTOFF.plusSeconds(3600)),
+                snapshot(2L, 50, CUTOFF.minusSeconds(3600)),
+                snapshot(3L, 10, CUTOFF.plusSeconds(60))
+        ));
+        repository.flush();
+    }
+
+    @Test
+    void findLatestRecordedBefore_ShouldReturnTheStarsOfEveryRepositoryAtTheTime() {
+        // When
+        List<RepoStarSnapshot> baselines = repository.findLatestRecordedBefore(CUTOFF);
+
+        // Then
+        List<RepoStarSnapshot> sorted = baselines.stream().sorted(Comparator.comparing(RepoStarSnapshot::getRepoId)).toList();
+        assertEquals(2, sorted.size());
+        assertEquals(110, sorted.get(0).getStars());
+        assertEquals(50, sorted.get(1).getStars());
+    }
+
+    @Test
+    void deleteSupersededBefore_ShouldKeepTheLatestSnapshotOfEveryRepositoryBeforeTheCutoff() {
+        // When
+        int deleted = repository.deleteSupersededBefore(CUTOFF);
+
+        // Then
+        assertEquals(1, deleted);
+        List<Integer> remaining = repository.findAll().stream().map(RepoStarSnapshot::getStars).sorted().toList();
+        assertEquals(List.of(10, 50, 110, 130), remaining);
+    }
+
+    private static RepoStarSnapshot snapshot(Long repoId, int stars, Instant recordedAt) {
+        return new RepoStarSnapshot(null, repoId, stars, recordedAt);
+    }
+}
@@ -0,0 +1,65 @@
+package com.toulios.githubanalyzer.repository.specification;
+
+import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedRepoSpecificationTest {
+
+    @Mock
+    private Root<ObservedRepo> root;
+
+    @Mock
+    private CriteriaQuery<?> query;
+
+    @Mock
+    private CriteriaBuilder cb;
+
+    @Mock
+    private Path<String> ownerPath;
+
+    @Mock
+    private Expression<String> lowerOwner;
+
+    @Test
+    void withFilter_ShouldMatchLowercasedSubstringOfIndexedExpression() {
+        // Given
+        when(root.<String>get("owner")).thenReturn(ownerPath);
+        when(cb.lower(ownerPath)).thenReturn(lowerOwner);
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().owner("OctoCat").build();
+
+        // When
+        ObservedRepoSpecification.withFilter(filter).toPredicate(root, query, cb);
+
+        // Then
+        verify(cb).like(lowerOwner, "%octocat%", '\\');
+    }
+
+    @Test
+    void withFilter_ShouldMatchLikeWildcardsLiterally() {
+        // Given
+        when(root.<String>get("owner")).thenReturn(ownerPath);
+        when(cb.lower(ownerPath)).thenReturn(lowerOwner);
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().owner("100%_real\\").build();
+
+        // When
+        ObservedRepoSpecification.withFilter(filter).toPredicate(root, query, cb);
+
+        // Then
+        verify(cb).like(eq(lowerOwner), eq("%100\\%\\_real\\\\%"), eq('\\'));
+        verify(cb, never()).like(any(Expression.class), eq("%100%_real\\%"), anyChar());
+    }
+}
@@ -0,0 +1,148 @@
+package com.toulios.githubanalyzer.seed;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObservedRepoSeederTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:seeder;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__Create_observed_repo_table.sql")));
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V2__Create_repo_star_snapshot_table.sql")));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void seed_ShouldInsertTheGeneratedRepositoriesInChunks() throws SQLException, IOException {
+        // Given
+        ObservedRepoSeeder.Options options = ObservedRepoSeeder.Options.parse(
+                "--rows=2550", "--seed=7", "--chunk-size=1000", "--rows-per-statement=100");
+
+        // When
+        long seeded = new ObservedRepoSeeder(connection, options).seed();
+
+        // Then
+        assertEquals(2550, seeded);
+        assertEquals(2550, query("SELECT COUNT(*) FROM observed_repo"));
+        assertEquals(2550, query("SELECT COUNT(DISTINCT repo_owner || '/' || repo_name) FROM observed_repo"));
+        assertEquals(0, query("SELECT COUNT(*) FROM observed_repo WHERE url IS NULL OR created_at IS NULL"));
+    }
+
+    @Test
+    void seed_ShouldLoadTheRepositoriesOfACsvExport() throws SQLException, IOException {
+        // Given
+        Path export = tempDir.resolve("export.csv");
+        Files.writeString(export, ExportCsvReader.HEADER + "\n"
+                + "7,owner,repo,10,2,https://github.com/owner/repo,MIT,ACTIVE,2015-03-21T10:15:30,2024-03-21T10:15:30\n"
+                + "8,owner,\"odd, \"\"name\"\"\",,,,,DELETED,2015-03-21T10:15:30,\n");
+        ObservedRepoSeeder.Options options = ObservedRepoSeeder.Options.parse("--input=" + export);
+
+        // When
+        long seeded = new ObservedRepoSeeder(connection, options).seed();
+
+        // Then
+        assertEquals(2, seeded);
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "SELECT repo_name, stars, licence, repo_status, updated_at FROM observed_repo ORDER BY id")) {
+            assertTrue(rows.next());
+            assertEquals("repo", rows.getString(1));
+            assertEquals(10, rows.getInt(2));
+            assertEquals("MIT", rows.getString(3));
+            assertTrue(rows.next());
+            assertEquals("odd, \"name\"", rows.getString(1));
+            assertNull(rows.getObject(2));
+            assertNull(rows.getString(3));
+            assertEquals("DELETED", rows.getString(4));
+            assertNull(rows.getObject(5));
+        }
+    }
+
+    @Test
+    void seed_WithTruncate_ShouldReplaceTheExistingRepositories() throws SQLException, IOException {
+        // Given
+        new ObservedRepoSeeder(connection, ObservedRepoSeeder.Options.parse("--rows=50")).seed();
+
+        // When
+        new ObservedRepoSeeder(connection, ObservedRepoSeeder.Options.parse("--rows=20", "--truncate")).seed();
+
+        // Then
+        assertEquals(20, query("SELECT COUNT(*) FROM observed_repo"));
+    }
+
+    @Test
+    void seed_WithCopyOutsidePostgres_ShouldFail() {
+        // Given
+        ObservedRepoSeeder.Options options = ObservedRepoSeeder.Options.parse("--rows=10", "--method=copy");
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new ObservedRepoSeeder(connection, options).seed());
+    }
+
+    @Test
+    void parse_WithInvalidArguments_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> ObservedRepoSeeder.Options.parse("--rows=0"));
+        assertThrows(IllegalArgumentException.class, () -> ObservedRepoSeeder.Options.parse("--rows=many"));
+        assertThrows(IllegalArgumentException.class, () -> ObservedRepoSeeder.Options.parse("--unknown=1"));
+    }
+
+    @Test
+    void append_ShouldEscapeTheRowForCopy() {
+        // Given
+        SeedRow row = new SeedRow("owner", "tab\there\\", 5, null, null, null, ObservedRepoStatus.ACTIVE,
+                LocalDateTime.of(2015, 3, 21, 10, 15, 30), null);
+        StringBuilder out = new StringBuilder();
+
+        // When
+        PostgresCopyWriter.append(row, out);
+
+        // Then
+        assertEquals("owner\ttab\\there\\\\\t5\t\\N\t\\N\t\\N\tACTIVE\t2015-03-21 10:15:30.0\t\\N\n", out.toString());
+    }
+
+    @Test
+    void exportCsvReader_WithAnotherHeader_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new ExportCsvReader(new StringReader("id,name\n1,repo\n")));
+    }
+
+    private long query(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
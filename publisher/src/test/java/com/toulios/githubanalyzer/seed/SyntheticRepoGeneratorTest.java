@@ -0,0 +1,88 @@
+package com.toulios.githubanalyzer.seed;
+
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticRepoGeneratorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 21, 10, 15, 30);
+
+    @Test
+    void next_ShouldGenerateTheSameRepositoriesForTheSameSeed() {
+        // When
+        List<SeedRow> first = generate(1000, 7);
+        List<SeedRow> second = generate(1000, 7);
+        List<SeedRow> other = generate(1000, 8);
+
+        // Then
+        assertEquals(first, second);
+        assertFalse(first.equals(other));
+    }
+
+    @Test
+    void next_ShouldGenerateUniqueValidRepositories() {
+        // When
+        List<SeedRow> rows = generate(20_000, 42);
+
+        // Then
+        assertEquals(20_000, rows.size());
+        Set<String> names = new HashSet<>();
+        for (SeedRow row : rows) {
+            assertTrue(names.add(row.name()), row.name());
+            assertEquals("https://github.com/" + row.owner() + "/" + row.name(), row.url());
+            assertTrue(row.stars() >= 0);
+            assertTrue(row.openIssues() >= 0);
+            assertFalse(row.createdAt().isAfter(row.updatedAt()));
+            assertFalse(row.updatedAt().isAfter(NOW));
+        }
+    }
+
+    @Test
+    void next_ShouldSkewOwnersStarsAndLicencesLikeGithub() {
+        // When
+        List<SeedRow> rows = generate(100_000, 42);
+
+        // Then
+        Map<String, Integer> reposByOwner = count(rows.stream().map(SeedRow::owner).toList());
+        int topOwnerRepos = reposByOwner.values().stream().max(Integer::compare).orElseThrow();
+        assertTrue(topOwnerRepos > 50 * rows.size() / reposByOwner.size(), "top owner has " + topOwnerRepos);
+
+        List<Integer> stars = new ArrayList<>(rows.stream().map(SeedRow::stars).toList());
+        stars.sort(Comparator.naturalOrder());
+        assertTrue(stars.get(stars.size() / 2) <= 3, "median stars " + stars.get(stars.size() / 2));
+        assertTrue(stars.get(stars.size() - 1) >= 10_000, "max stars " + stars.get(stars.size() - 1));
+
+        Map<String, Integer> reposByLicence = count(rows.stream().map(row -> String.valueOf(row.licence())).toList());
+        assertEquals(0.45, reposByLicence.get("MIT") / (double) rows.size(), 0.02);
+        assertEquals(0.20, reposByLicence.get("null") / (double) rows.size(), 0.02);
+        assertEquals(0.15, reposByLicence.get("Apache-2.0") / (double) rows.size(), 0.02);
+
+        long active = rows.stream().filter(row -> row.status() == ObservedRepoStatus.ACTIVE).count();
+        assertEquals(0.95, active / (double) rows.size(), 0.01);
+    }
+
+    private static List<SeedRow> generate(long rows, long seed) {
+        List<SeedRow> generated = new ArrayList<>();
+        new SyntheticRepoGenerator(rows, seed, NOW).forEachRemaining(generated::add);
+        return generated;
+    }
+
+    private static Map<String, Integer> count(List<String> values) {
+        Map<String, Integer> counts = new HashMap<>();
+        values.forEach(value -> counts.merge(value, 1, Integer::sum));
+        return counts;
+    }
+}
@@ -0,0 +1,76 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new SimpleMeterRegistry(), true,
+            10, 2, 20, Duration.ofSeconds(1), 2, 2.0, 0.5, clock::get);
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimit() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // When & Then
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WhenLatencyRises_ShouldLowerLimitAndRecoverWhenItFalls() {
+        // Given a window at 10ms that sets the baseline and uses the limit
+        runWindow(10, 10 * MILLIS);
+        assertEquals(11, limiter.getLimit());
+
+        // When the latency rises beyond twice the baseline
+        runWindow(10, 50 * MILLIS);
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+
+        // When the latency returns to the baseline
+        runWindow(5, 10 * MILLIS);
+
+        // Then
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void release_WhenWindowUsesLittleOfLimit_ShouldKeepLimit() {
+        // When
+        runWindow(2, 10 * MILLIS);
+        runWindow(2, 10 * MILLIS);
+
+        // Then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    /**
+     * Runs the given number of concurrent requests with the same latency, then closes the window with one more.
+     */
+    private void runWindow(int requests, long latencyNanos) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        for (int i = 0; i < requests; i++) {
+            limiter.release(latencyNanos);
+        }
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(latencyNanos);
+    }
+}
@@ -0,0 +1,83 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private final ClientRateLimiter limiter = new ClientRateLimiter(new SimpleMeterRegistry(), true, 10, 3,
+            Duration.ofMinutes(1), 2, clock::get);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRefillAtRate() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("ip:10.0.0.1").isZero());
+        }
+
+        // When
+        Duration retryAfter = limiter.tryAcquire("ip:10.0.0.1");
+
+        // Then
+        assertEquals(Duration.ofMillis(100), retryAfter);
+        assertTrue(limiter.tryAcquire("ip:10.0.0.2").isZero());
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1").isZero());
+        assertFalse(limiter.tryAcquire("ip:10.0.0.1").isZero());
+    }
+
+    @Test
+    void evictIdleClients_ShouldOnlyEvictClientsIdleLongerThanTimeout() {
+        // Given
+        limiter.tryAcquire("key:idle");
+        clock.addAndGet(Duration.ofSeconds(50).toNanos());
+        limiter.tryAcquire("key:active");
+        clock.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        // When
+        limiter.evictIdleClients();
+
+        // Then
+        assertEquals(1, limiter.getClientCount());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("key:idle").isZero());
+        }
+    }
+
+    @Test
+    void tryAcquire_WhenMaxClientsTracked_ShouldShareOverflowBucket() {
+        // Given
+        limiter.tryAcquire("ip:10.0.0.1");
+        limiter.tryAcquire("ip:10.0.0.2");
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire("key:rotated-" + i).isZero());
+        }
+        Duration retryAfter = limiter.tryAcquire("key:rotated-3");
+
+        // Then
+        assertFalse(retryAfter.isZero());
+        assertEquals(2, limiter.getClientCount());
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1").isZero());
+    }
+
+    @Test
+    void tryAcquire_WhenDisabled_ShouldNotTrackClients() {
+        // Given
+        ClientRateLimiter disabled = new ClientRateLimiter(new SimpleMeterRegistry(), false, 1, 1,
+                Duration.ofMinutes(1), 2, clock::get);
+
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            assertTrue(disabled.tryAcquire("ip:10.0.0.1").isZero());
+        }
+        assertEquals(0, disabled.getClientCount());
+    }
+}
@@ -0,0 +1,130 @@
+package com.toulios.githubanalyzer.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the repository endpoint of the GitHub API, answering {@code GET /repos/{owner}/{name}} after a
+ * fixed latency.
+ * <p>
+ * Every repository exists. Its stars are derived from its name and the current generation, so advancing the
+ * generation changes the stars of {@code changePercent} percent of the repositories. The rate limit headers never
+ * let the client wait.
+ */
+class FakeGithubServer {
+
+    private static final String RESPONSE = """
+            {"name":"%2$s","full_name":"%1$s/%2$s","html_url":"https://github.com/%1$s/%2$s",\
+            "owner":{"login":"%1$s","id":1,"type":"Organization"},"stargazers_count":%3$d,"open_issues_count":%4$d,\
+            "license":{"key":"mit","name":"MIT License","spdx_id":"MIT"},"language":"Java",\
+            "created_at":"2015-03-21T10:15:30Z","updated_at":"2024-03-21T10:15:30Z"}""";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyNanos;
+    private final int changePercent;
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder requests = new LongAdder();
+
+    static {
+        // without it, small responses wait for the delayed acknowledgement of the client
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private FakeGithubServer(Duration latency, int changePercent) throws IOException {
+        this.latencyNanos = latency.toNanos();
+        this.changePercent = changePercent;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fake-github");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/repos/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a server on a free local port.
+     *
+     * @param latency how long every request takes
+     * @param changePercent the percentage of repositories whose stars change with every generation
+     * @return the started server
+     */
+    static FakeGithubServer start(Duration latency, int changePercent) throws IOException {
+        FakeGithubServer fake = new FakeGithubServer(latency, changePercent);
+        fake.server.start();
+        return fake;
+    }
+
+    String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Advances the generation, so the next refresh cycle sees changed repositories.
+     */
+    void nextGeneration() {
+        generation.incrementAndGet();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            if (path.length != 4) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            simulateLatency();
+            String owner = path[2];
+            String name = path[3];
+            int seed = name.hashCode() & Integer.MAX_VALUE;
+            int stars = seed % 100_000 + (seed % 100 < changePercent ? (int) generation.get() : 0);
+            byte[] body = String.format(RESPONSE, owner, name, stars, seed % 50).getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(Integer.MAX_VALUE));
+            exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(Integer.MAX_VALUE));
+            exchange.getResponseHeaders().set("X-RateLimit-Reset",
+                    String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            requests.increment();
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
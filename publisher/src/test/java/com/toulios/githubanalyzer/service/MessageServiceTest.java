@@ -3,14 +3,20 @@ package com.toulios.githubanalyzer.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.openapitools.jackson.nullable.JsonNullableModule;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 
+import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +30,7 @@ class MessageServiceTest {
 
     private MessageService messageService;
     private ObjectMapper objectMapper;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
@@ -32,7 +39,9 @@ class MessageServiceTest {
         objectMapper.registerModule(new JsonNullableModule());
         objectMapper.registerModule(new JavaTimeModule());
 
-        messageService = new MessageService(objectMapper, kafkaTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+
+        messageService = new MessageService(objectMapper, kafkaTemplate, meterRegistry);
     }
 
     @Test
@@ -43,10 +52,29 @@ class MessageServiceTest {
         when(kafkaTemplate.send(any(), any(), any())).thenReturn(future);
 
         // Act
-        messageService.sendChangeEvent(TOPIC, REPO_ID, CHANGES);
+        messageService.sendChangeEvent(TOPIC, RepoChangeEvent.builder().repoId(REPO_ID).changes(CHANGES).build());
 
         // Assert
         verify(kafkaTemplate).send(eq(TOPIC), eq(REPO_ID.toString()), anyString());
+        assertEquals(1, meterRegistry.get("repo.change.event.send").tag("result", "success").timer().count());
+    }
+
+    @Test
+    void sendChangeEvent_ShouldSerializeStageTimestampsAsInstants() throws JsonProcessingException {
+        // Arrange
+        when(kafkaTemplate.send(any(), any(), any())).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        Instant fetchedAt = Instant.parse("2024-03-21T10:15:30.123456Z");
+
+        // Act
+        messageService.sendChangeEvent(TOPIC, RepoChangeEvent.builder().repoId(REPO_ID).fetchedAt(fetchedAt).build());
+
+        // Assert
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq(TOPIC), eq(REPO_ID.toString()), payload.capture());
+        RepoChangeEvent sent = objectMapper.readValue(payload.getValue(), RepoChangeEvent.class);
+        assertEquals(fetchedAt, sent.getFetchedAt());
+        assertTrue(payload.getValue().contains("\"fetchedAt\":\"2024-03-21T10:15:30.123456Z\""));
+        assertNotNull(sent.getSentAt());
     }
 
     @Test
@@ -57,9 +85,11 @@ class MessageServiceTest {
         when(kafkaTemplate.send(any(), any(), any())).thenReturn(future);
 
         // Act
-        messageService.sendChangeEvent(TOPIC, REPO_ID, CHANGES);
+        messageService.sendChangeEvent(TOPIC, RepoChangeEvent.builder().repoId(REPO_ID).changes(CHANGES).build());
 
         // Assert
         verify(kafkaTemplate).send(eq(TOPIC), eq(REPO_ID.toString()), anyString());
+        assertEquals(1, meterRegistry.get("repo.change.event.send").tag("result", "failure").timer().count());
+        assertEquals(0, meterRegistry.get("repo.change.event.send").tag("result", "success").timer().count());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.toulios.githubanalyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = ObservedRepoCacheInvalidationListenerTest.Config.class, properties = {
+    "app.kafka.topics.repo-changes=repo-changes",
+    "app.kafka.topics.repo-changes-partitions=2",
+    "app.cache.observed-repos.cross-instance-invalidation=true"
+})
+@EmbeddedKafka(partitions = 2, topics = "repo-changes", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ObservedRepoCacheInvalidationListenerTest {
+
+    @MockBean
+    private ObservedRepoCache observedRepoCache;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void onChange_ShouldOnlyEvictChangesPublishedAfterStartupWithoutAConsumerGroup() throws Exception {
+        // Given
+        registry.stop();
+        kafkaTemplate.send("repo-changes", 0, "1", "{\"repoId\":1}").get();
+        registry.start();
+        registry.getListenerContainers().forEach(container -> ContainerTestUtils.waitForAssignment(container, 2));
+
+        // When
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            kafkaTemplate.send("repo-changes", 1, "2", "{\"repoId\":2}").get();
+            verify(observedRepoCache, timeout(500).atLeastOnce()).evict(2L);
+        });
+        kafkaTemplate.send("repo-changes", 0, "3", "{\"repoId\":3}").get();
+
+        // Then
+        verify(observedRepoCache, timeout(10_000)).evict(3L);
+        verify(observedRepoCache, never()).evict(1L);
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()))) {
+            assertTrue(admin.listConsumerGroups().all().get().isEmpty());
+        }
+    }
+
+    @Configuration
+    @EnableKafka
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @Import(ObservedRepoCacheInvalidationListener.class)
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ObservedRepoCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservedRepoCache cache;
+    private final ReplicaStalenessGuard stalenessGuard = mock(ReplicaStalenessGuard.class);
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ObservedRepoCache(meterRegistry, stalenessGuard, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndRecordHitsAndMisses() {
+        // When
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        // Then
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "observedRepos").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "observedRepos").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void get_WhenRepoDoesNotExist_ShouldNotCacheIt() {
+        // When
+        Optional<ObservedRepoResponse> first = cache.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.get(1L, this::load);
+
+        // Then
+        assertTrue(first.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_WhileLoading_ShouldNotWaitForTheLoadNorCacheItsResponse() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<ObservedRepoResponse>> slowLookup = CompletableFuture.supplyAsync(() ->
+                cache.get(1L, id -> {
+                    loading.countDown();
+                    awaitUninterruptibly(release);
+                    return load(id);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.evict(1L));
+        release.countDown();
+        Optional<ObservedRepoResponse> slowResponse = slowLookup.get(5, TimeUnit.SECONDS);
+        cache.get(1L, this::load);
+
+        // Then
+        assertTrue(slowResponse.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenRepoWasRecentlyWritten_ShouldNotCacheIt() {
+        // Given
+        when(stalenessGuard.isRecentlyWritten(List.of(1L))).thenReturn(true);
+
+        // When
+        Optional<ObservedRepoResponse> first = cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenLoadFails_ShouldNotCacheTheFailure() {
+        // When
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        Optional<ObservedRepoResponse> response = cache.get(1L, this::load);
+
+        // Then
+        assertTrue(response.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_InsideTransaction_ShouldInvalidateOnlyAfterCompletion() {
+        // Given
+        cache.get(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            cache.evict(1L);
+            cache.get(1L, this::load);
+            int loadsBeforeCommit = loads.get();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            cache.get(1L, this::load);
+
+            // Then
+            assertEquals(1, loadsBeforeCommit);
+            assertEquals(2, loads.get());
+            verify(stalenessGuard).recordWrite(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<ObservedRepoResponse> load(Long id) {
+        loads.incrementAndGet();
+        ObservedRepoResponse response = new ObservedRepoResponse();
+        response.setId(id);
+        return Optional.of(response);
+    }
+}
@@ -1,31 +1,48 @@
 package com.toulios.githubanalyzer.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.toulios.githubanalyzer.dto.request.CursorSortField;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoBatchRequest;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoCursor;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoKey;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoRequest;
 import com.toulios.githubanalyzer.dto.request.ObservedRepoUpdateRequest;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoBatchResponse;
 import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
 import com.toulios.githubanalyzer.dto.response.PaginatedResponse;
+import com.toulios.githubanalyzer.exception.InvalidCursorException;
 import com.toulios.githubanalyzer.exception.RepoCreationException;
 import com.toulios.githubanalyzer.exception.RepoNotFoundException;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import com.toulios.githubanalyzer.model.ObservedRepoStatus;
 import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.util.CursorCodec;
+import com.toulios.githubanalyzer.util.ObservedRepoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.openapitools.jackson.nullable.JsonNullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +60,21 @@ class ObservedRepoCrudServiceTest {
     @Mock
     private ObservedRepoHelper observedRepoHelper;
 
+    @Spy
+    private ObservedRepoCache observedRepoCache = new ObservedRepoCache(new SimpleMeterRegistry(), mock(ReplicaStalenessGuard.class), 100, Duration.ofMinutes(1));
+
+    @Mock
+    private ObservedRepoLookupBatcher lookupBatcher;
+
+    @Mock
+    private ObservedRepoStatsTracker statsTracker;
+
+    @Mock
+    private ReplicaStalenessGuard stalenessGuard;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ObservedRepoCrudService service;
 
@@ -99,7 +131,7 @@ class ObservedRepoCrudServiceTest {
 
     @Test
     void getById_WhenRepoExists_ShouldReturnRepo() {
-        when(repository.findById(1L)).thenReturn(Optional.of(testRepo));
+        when(lookupBatcher.load(1L)).thenReturn(Optional.of(ObservedRepoMapper.toResponse(testRepo)));
 
         ObservedRepoResponse response = service.getById(1L);
 
@@ -109,11 +141,113 @@ class ObservedRepoCrudServiceTest {
 
     @Test
     void getById_WhenRepoNotFound_ShouldThrowException() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        when(lookupBatcher.load(1L)).thenReturn(Optional.empty());
 
         assertThrows(RepoNotFoundException.class, () -> service.getById(1L));
     }
 
+    @Test
+    void getById_WhenCalledTwice_ShouldLoadFromDatabaseOnce() {
+        // Given
+        when(lookupBatcher.load(1L)).thenReturn(Optional.of(ObservedRepoMapper.toResponse(testRepo)));
+
+        // When
+        service.getById(1L);
+        ObservedRepoResponse response = service.getById(1L);
+
+        // Then
+        assertEquals(testRepo.getName(), response.getName());
+        verify(lookupBatcher, times(1)).load(1L);
+    }
+
+    @Test
+    void getById_AfterUpdate_ShouldReturnUpdatedRepo() {
+        // Given
+        when(repository.findById(1L)).thenReturn(Optional.of(testRepo));
+        when(lookupBatcher.load(1L)).thenAnswer(invocation -> Optional.of(ObservedRepoMapper.toResponse(testRepo)));
+        when(repository.save(any(ObservedRepo.class))).thenReturn(testRepo);
+        service.getById(1L);
+        ObservedRepoUpdateRequest updateRequest = new ObservedRepoUpdateRequest();
+        updateRequest.setStars(JsonNullable.of(200));
+
+        // When
+        service.update(1L, updateRequest);
+        ObservedRepoResponse response = service.getById(1L);
+
+        // Then
+        assertEquals(200, response.getStars());
+        verify(observedRepoCache).evict(1L);
+    }
+
+    @Test
+    void getBatch_ShouldReadUncachedIdsAndPairsWithOneQueryInRequestOrder() {
+        // Given
+        ObservedRepoResponse cached = response(1L, "owner", "cached");
+        ObservedRepoResponse byId = response(2L, "owner", "by-id");
+        ObservedRepoResponse byKey = response(3L, "other", "by-key");
+        observedRepoCache.get(1L, id -> Optional.of(cached));
+        when(repository.findResponses(any(Specification.class), any(Sort.class))).thenReturn(List.of(byId, byKey));
+        ObservedRepoBatchRequest request = new ObservedRepoBatchRequest();
+        request.setIds(List.of(2L, 1L, 9L, 2L));
+        request.setRepos(List.of(new ObservedRepoKey("other", "by-key"), new ObservedRepoKey("owner", "by-id"),
+                new ObservedRepoKey("nobody", "nothing")));
+
+        // When
+        ObservedRepoBatchResponse response = service.getBatch(request);
+
+        // Then
+        assertEquals(List.of(byId, cached, byKey), response.getResults());
+        assertEquals(List.of(9L), response.getMissingIds());
+        assertEquals(List.of(new ObservedRepoKey("nobody", "nothing")), response.getMissingRepos());
+        verify(repository, times(1)).findResponses(any(Specification.class), any(Sort.class));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void getBatch_WhenUncachedIdWasRecentlyWritten_ShouldReadFromPrimary() {
+        // Given
+        when(stalenessGuard.isRecentlyWritten(Set.of(2L))).thenReturn(true);
+        when(repository.findResponses(any(Specification.class), any(Sort.class)))
+                .thenReturn(List.of(response(2L, "owner", "written")));
+        ObservedRepoBatchRequest request = new ObservedRepoBatchRequest();
+        request.setIds(List.of(2L));
+
+        // When
+        ObservedRepoBatchResponse response = service.getBatch(request);
+
+        // Then
+        assertEquals(List.of(2L), response.getResults().stream().map(ObservedRepoResponse::getId).toList());
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void getBatch_WhenEveryIdIsCached_ShouldNotQuery() {
+        // Given
+        ObservedRepoResponse cached = response(1L, "owner", "cached");
+        observedRepoCache.get(1L, id -> Optional.of(cached));
+        ObservedRepoBatchRequest request = new ObservedRepoBatchRequest();
+        request.setIds(List.of(1L));
+
+        // When
+        ObservedRepoBatchResponse response = service.getBatch(request);
+
+        // Then
+        assertEquals(List.of(cached), response.getResults());
+        verifyNoInteractions(repository);
+    }
+
+    private ObservedRepoResponse response(Long id, String owner, String name) {
+        ObservedRepoResponse response = new ObservedRepoResponse();
+        response.setId(id);
+        response.setOwner(owner);
+        response.setName(name);
+        return response;
+    }
+
     @Test
     void listAll_ShouldReturnPaginatedResponse() {
         // Create a filter with non-null values
@@ -123,8 +257,8 @@ class ObservedRepoCrudServiceTest {
         filter.setStatus(ObservedRepoStatus.ACTIVE);  // Set a non-null status
         filter.setOwner("test-owner");  // Optionally set other filter fields
 
-        Page<ObservedRepo> page = new PageImpl<>(Collections.singletonList(testRepo));
-        when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        Page<ObservedRepoResponse> page = new PageImpl<>(Collections.singletonList(ObservedRepoMapper.toResponse(testRepo)));
+        when(repository.findResponses(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
         Pageable pageable = PageRequest.of(0, 10);
 
@@ -132,7 +266,7 @@ class ObservedRepoCrudServiceTest {
 
         assertNotNull(response);
         assertEquals(1, response.getResults().size());
-        verify(repository).findAll(any(Specification.class), eq(pageable));
+        verify(repository).findResponses(any(Specification.class), eq(pageable));
     }
 
     // Add a new test for null filter values
@@ -142,8 +276,8 @@ class ObservedRepoCrudServiceTest {
         ObservedRepoFilter filter = ObservedRepoFilter.builder().build();
         // Don't set any filter values - leave them null
 
-        Page<ObservedRepo> page = new PageImpl<>(Collections.singletonList(testRepo));
-        when(repository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+        Page<ObservedRepoResponse> page = new PageImpl<>(Collections.singletonList(ObservedRepoMapper.toResponse(testRepo)));
+        when(repository.findResponses(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
         Pageable pageable = PageRequest.of(0, 10);
 
@@ -151,7 +285,64 @@ class ObservedRepoCrudServiceTest {
 
         assertNotNull(response);
         assertEquals(1, response.getResults().size());
-        verify(repository).findAll(any(Specification.class), eq(pageable));
+        verify(repository).findResponses(any(Specification.class), eq(pageable));
+    }
+
+    @Test
+    void listAllByCursor_ShouldSeekWithoutCountingAndLinkAdjacentPages() {
+        // Given
+        when(repository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(repo(1L), repo(2L), repo(3L)))
+                .thenReturn(List.of(repo(3L), repo(4L)));
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().owner("test-owner").build();
+
+        // When
+        PaginatedResponse<ObservedRepoResponse> first = service.listAllByCursor(filter, PageRequest.of(0, 2), null);
+        PaginatedResponse<ObservedRepoResponse> second = service.listAllByCursor(
+                ObservedRepoFilter.builder().build(), PageRequest.of(0, 20), first.getNextCursor());
+
+        // Then
+        assertEquals(List.of(1L, 2L), first.getResults().stream().map(ObservedRepoResponse::getId).toList());
+        assertNull(first.getPreviousCursor());
+        assertEquals("/api/v1/observed-repos?cursor=" + first.getNextCursor(), first.getNext());
+        ObservedRepoCursor next = CursorCodec.decode(first.getNextCursor());
+        assertEquals(2L, next.id());
+        assertEquals("test-owner", next.owner());
+        assertEquals(2, next.size());
+
+        assertEquals(List.of(3L, 4L), second.getResults().stream().map(ObservedRepoResponse::getId).toList());
+        assertNull(second.getNextCursor());
+        ObservedRepoCursor previous = CursorCodec.decode(second.getPreviousCursor());
+        assertEquals(3L, previous.id());
+        assertTrue(previous.backward());
+        verify(repository, never()).findResponses(any(Specification.class), any(Pageable.class));
+        verify(repository, times(2)).findResponses(any(Specification.class), eq(Sort.by(Sort.Direction.ASC, "id")), eq(3));
+    }
+
+    @Test
+    void listAllByCursor_WhenReadingBackward_ShouldReturnRowsInListingOrder() {
+        // Given
+        when(repository.findResponses(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(repo(4L), repo(3L), repo(2L)));
+        String cursor = CursorCodec.encode(new ObservedRepoCursor(null, null, null, null,
+                CursorSortField.ID, false, 2, "5", 5L, true));
+
+        // When
+        PaginatedResponse<ObservedRepoResponse> response = service.listAllByCursor(
+                ObservedRepoFilter.builder().build(), PageRequest.of(0, 20), cursor);
+
+        // Then
+        assertEquals(List.of(3L, 4L), response.getResults().stream().map(ObservedRepoResponse::getId).toList());
+        assertEquals(3L, CursorCodec.decode(response.getPreviousCursor()).id());
+        assertEquals(4L, CursorCodec.decode(response.getNextCursor()).id());
+    }
+
+    @Test
+    void listAllByCursor_WhenSortIsNotSupported_ShouldThrowInvalidCursorException() {
+        ObservedRepoFilter filter = ObservedRepoFilter.builder().build();
+
+        assertThrows(InvalidCursorException.class,
+                () -> service.listAllByCursor(filter, PageRequest.of(0, 10, Sort.by("stars")), null));
     }
 
     @Test
@@ -164,6 +355,10 @@ class ObservedRepoCrudServiceTest {
         verify(repository).save(argThat(repo ->
                 repo.getStatus() == ObservedRepoStatus.DELETED
         ));
+        verify(observedRepoCache).evict(1L);
+        verify(observedRepoHelper).handleChanges(
+                argThat(old -> old.getStatus() == ObservedRepoStatus.ACTIVE),
+                argThat(repo -> repo.getStatus() == ObservedRepoStatus.DELETED));
     }
 
     @Test
@@ -182,6 +377,15 @@ class ObservedRepoCrudServiceTest {
         verify(observedRepoHelper).handleChanges(any(), any());
     }
 
+    private ObservedRepoResponse repo(Long id) {
+        ObservedRepoResponse repo = new ObservedRepoResponse();
+        repo.setId(id);
+        repo.setName("repo-" + id);
+        repo.setOwner("test-owner");
+        repo.setStatus(ObservedRepoStatus.ACTIVE);
+        return repo;
+    }
+
     @Test
     void update_WhenRepoNotFound_ShouldThrowException() {
         when(repository.findById(1L)).thenReturn(Optional.empty());
@@ -0,0 +1,95 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.config.JacksonConfig;
+import com.toulios.githubanalyzer.dto.request.ExportFormat;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoFilter;
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedRepoExportServiceTest {
+
+    @Mock
+    private ObservedRepoRepository repository;
+
+    private ObservedRepoExportService service;
+    private AtomicBoolean streamClosed;
+
+    @BeforeEach
+    void setUp() {
+        service = new ObservedRepoExportService(repository, new JacksonConfig().objectMapper());
+        streamClosed = new AtomicBoolean();
+        when(repository.streamAll(any(Specification.class), anyInt())).thenReturn(Stream.of(
+                repo(1L, "octocat", "hello-world", "MIT License"),
+                repo(2L, "acme", "say \"hi\", world", null)
+        ).onClose(() -> streamClosed.set(true)));
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count = service.export(ObservedRepoFilter.builder().build(), ExportFormat.NDJSON, output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"name\":\"hello-world\",\"owner\":\"octocat\""));
+        assertTrue(lines[1].contains("\"name\":\"say \\\"hi\\\", world\""));
+        assertTrue(streamClosed.get());
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndQuoteFieldsWhenNeeded() throws Exception {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count = service.export(ObservedRepoFilter.builder().build(), ExportFormat.CSV, output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals("id,owner,name,stars,open_issues,url,licence,status,created_at,updated_at", lines[0]);
+        assertEquals("1,octocat,hello-world,10,,https://github.com/octocat/hello-world,MIT License,ACTIVE,"
+                + "2024-05-01T12:00,2024-05-01T12:00", lines[1]);
+        assertEquals("2,acme,\"say \"\"hi\"\", world\",10,,https://github.com/acme/x,,ACTIVE,"
+                + "2024-05-01T12:00,2024-05-01T12:00", lines[2]);
+        assertTrue(streamClosed.get());
+    }
+
+    private ObservedRepoResponse repo(Long id, String owner, String name, String licence) {
+        ObservedRepoResponse repo = new ObservedRepoResponse();
+        repo.setId(id);
+        repo.setOwner(owner);
+        repo.setName(name);
+        repo.setStars(10);
+        repo.setUrl("https://github.com/" + owner + "/" + (id == 1L ? name : "x"));
+        repo.setLicense(licence);
+        repo.setStatus(ObservedRepoStatus.ACTIVE);
+        repo.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+        repo.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 0));
+        return repo;
+    }
+}
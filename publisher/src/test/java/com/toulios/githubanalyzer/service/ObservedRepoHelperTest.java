@@ -0,0 +1,84 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedRepoHelperTest {
+
+    @Mock
+    private MessageService messageService;
+
+    @Mock
+    private RepoChangeBroadcaster changeBroadcaster;
+
+    @InjectMocks
+    private ObservedRepoHelper helper;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(helper, "repoChangesTopic", "repo-changes");
+    }
+
+    @Test
+    void handleChanges_InsideTransaction_ShouldSendOnlyAfterCommit() throws Exception {
+        // Given
+        ObservedRepo oldValues = repo(ObservedRepoStatus.ACTIVE);
+        ObservedRepo newValues = repo(ObservedRepoStatus.DELETED);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            helper.handleChanges(oldValues, newValues);
+            verify(messageService, never()).sendChangeEvent(any(), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            verify(messageService).sendChangeEvent(eq("repo-changes"), any(RepoChangeEvent.class));
+            verify(changeBroadcaster).publish(any(RepoChangeEvent.class));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void handleChanges_WhenTransactionRollsBack_ShouldNotSend() throws Exception {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            helper.handleChanges(repo(ObservedRepoStatus.ACTIVE), repo(ObservedRepoStatus.DELETED));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verify(messageService, never()).sendChangeEvent(any(), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private ObservedRepo repo(ObservedRepoStatus status) {
+        ObservedRepo repo = new ObservedRepo();
+        repo.setId(1L);
+        repo.setOwner("octocat");
+        repo.setName("hello-world");
+        repo.setStars(10);
+        repo.setStatus(status);
+        return repo;
+    }
+}
@@ -0,0 +1,141 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedRepoLookupBatcherTest {
+
+    @Mock
+    private ObservedRepoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReplicaStalenessGuard stalenessGuard;
+
+    private ObservedRepoLookupBatcher batcher;
+    private final ExecutorService callers = Executors.newFixedThreadPool(20);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void load_WhenLookupsAreConcurrent_ShouldShareOneQuery() throws Exception {
+        // Given
+        batcher = new ObservedRepoLookupBatcher(repository, transactionManager, stalenessGuard, new SimpleMeterRegistry(),
+                true, Duration.ofMillis(200), 100, 1);
+        when(repository.findResponses(any(Specification.class), any(Sort.class)))
+                .thenReturn(List.of(response(1L), response(2L), response(3L)));
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<CompletableFuture<Optional<ObservedRepoResponse>>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            long repoId = id;
+            lookups.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return batcher.load(repoId);
+            }, callers));
+        }
+        start.countDown();
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1L, lookups.get(i).get(5, TimeUnit.SECONDS).orElseThrow().getId());
+        }
+        assertTrue(lookups.get(3).get(5, TimeUnit.SECONDS).isEmpty());
+        verify(repository, times(1)).findResponses(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void load_WhenQueryFails_ShouldFailEveryLookupOfTheBatch() {
+        // Given
+        batcher = new ObservedRepoLookupBatcher(repository, transactionManager, stalenessGuard, new SimpleMeterRegistry(),
+                true, Duration.ofMillis(1), 100, 1);
+        when(repository.findResponses(any(Specification.class), any(Sort.class)))
+                .thenThrow(new IllegalStateException("DB Error"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> batcher.load(1L));
+    }
+
+    @Test
+    void load_WhenDisabled_ShouldQueryById() {
+        // Given
+        batcher = new ObservedRepoLookupBatcher(repository, transactionManager, stalenessGuard, new SimpleMeterRegistry(),
+                false, Duration.ofMillis(1), 100, 1);
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(response(1L)));
+
+        // When
+        Optional<ObservedRepoResponse> response = batcher.load(1L);
+
+        // Then
+        assertEquals(1L, response.orElseThrow().getId());
+        verify(repository, never()).findResponses(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void load_WhenRecentlyWritten_ShouldReadOutsideReadOnlyTransaction() {
+        // Given
+        batcher = new ObservedRepoLookupBatcher(repository, transactionManager, stalenessGuard, new SimpleMeterRegistry(),
+                false, Duration.ofMillis(1), 100, 1);
+        when(stalenessGuard.isRecentlyWritten(List.of(1L))).thenReturn(true);
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(response(1L)));
+
+        // When
+        batcher.load(1L);
+        batcher.load(2L);
+
+        // Then
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        assertFalse(definitions.getAllValues().get(0).isReadOnly());
+        assertTrue(definitions.getAllValues().get(1).isReadOnly());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ObservedRepoResponse response(Long id) {
+        ObservedRepoResponse response = new ObservedRepoResponse();
+        response.setId(id);
+        return response;
+    }
+}
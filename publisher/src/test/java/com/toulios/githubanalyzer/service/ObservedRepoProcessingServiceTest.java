@@ -6,12 +6,14 @@ import com.toulios.githubanalyzer.dto.OwnerDto;
 import com.toulios.githubanalyzer.model.ObservedRepo;
 import com.toulios.githubanalyzer.model.ObservedRepoStatus;
 import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -24,6 +26,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -39,7 +42,17 @@ class ObservedRepoProcessingServiceTest {
     @Mock
     private ObservedRepoHelper observedRepoHelper;
 
-    @InjectMocks
+    @Mock
+    private TrendingRepoTracker trendingRepoTracker;
+
+    @Mock
+    private ObservedRepoCache observedRepoCache;
+
+    @Mock
+    private ObservedRepoStatsTracker statsTracker;
+
+    private MeterRegistry meterRegistry;
+
     private ObservedRepoProcessingService service;
 
     @Captor
@@ -55,6 +68,10 @@ class ObservedRepoProcessingServiceTest {
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ObservedRepoProcessingService(githubApiClient, observedRepoRepository, observedRepoHelper,
+                trendingRepoTracker, observedRepoCache, statsTracker, meterRegistry);
+
         testRepo1 = new ObservedRepo();
         testRepo1.setId(1L);
         testRepo1.setOwner("owner1");
@@ -142,6 +159,12 @@ class ObservedRepoProcessingServiceTest {
         List<ObservedRepo> savedRepos = reposCaptor.getValue();
         assertEquals(1, savedRepos.size());
         assertEquals(ObservedRepoStatus.INVALID, savedRepos.get(0).getStatus());
+        verify(observedRepoCache).evict(1L);
+        verify(statsTracker).recordStatusChange(testRepo1, ObservedRepoStatus.ACTIVE);
+        ArgumentCaptor<ObservedRepo> oldValues = ArgumentCaptor.forClass(ObservedRepo.class);
+        verify(observedRepoHelper).handleChanges(oldValues.capture(), eq(testRepo1), any(), any());
+        assertEquals(ObservedRepoStatus.ACTIVE, oldValues.getValue().getStatus());
+        assertEquals(ObservedRepoStatus.INVALID, testRepo1.getStatus());
     }
 
     @Test
@@ -159,7 +182,7 @@ class ObservedRepoProcessingServiceTest {
         service.processObservedRepos();
 
         // Assert
-        verify(observedRepoHelper, never()).handleChanges(any(), any());
+        verify(observedRepoHelper, never()).handleChanges(any(), any(), any(), any());
     }
 
     @Test
@@ -183,6 +206,83 @@ class ObservedRepoProcessingServiceTest {
         service.processObservedRepos();
 
         // then
-        verify(observedRepoHelper).handleChanges(any(), any());
+        InOrder inOrder = inOrder(observedRepoRepository, observedRepoHelper);
+        inOrder.verify(observedRepoRepository).saveAll(anyList());
+        inOrder.verify(observedRepoHelper).handleChanges(any(), any(), notNull(), notNull());
+    }
+
+    @Test
+    void processObservedRepos_ShouldOnlyEvictCachedReposWithDetectedChanges() {
+        // given
+        Page<ObservedRepo> page = new PageImpl<>(Arrays.asList(testRepo1, testRepo2));
+        when(observedRepoRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(page)
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+        when(githubApiClient.getRepositoryDetails("owner1", "repo1")).thenReturn(githubRepo1);
+        when(githubApiClient.getRepositoryDetails("owner2", "repo2")).thenReturn(githubRepo2);
+        when(observedRepoHelper.handleChanges(same(testRepo1), any(), any(), any())).thenReturn(true);
+        when(observedRepoHelper.handleChanges(same(testRepo2), any(), any(), any())).thenReturn(false);
+
+        // when
+        service.processObservedRepos();
+
+        // then
+        InOrder inOrder = inOrder(observedRepoRepository, observedRepoCache);
+        inOrder.verify(observedRepoRepository).saveAll(anyList());
+        inOrder.verify(observedRepoCache).evict(1L);
+        verify(observedRepoCache, never()).evict(2L);
+    }
+
+    @Test
+    void processObservedRepos_ShouldCountReposByResultAndTimeTheCycle() {
+        // given
+        ObservedRepo testRepo3 = new ObservedRepo();
+        testRepo3.setId(3L);
+        testRepo3.setOwner("owner3");
+        testRepo3.setName("repo3");
+        testRepo3.setStatus(ObservedRepoStatus.ACTIVE);
+        Page<ObservedRepo> page = new PageImpl<>(Arrays.asList(testRepo1, testRepo2, testRepo3));
+        when(observedRepoRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(page)
+                .thenReturn(new PageImpl<>(Collections.emptyList()));
+        when(githubApiClient.getRepositoryDetails("owner1", "repo1")).thenReturn(githubRepo1);
+        when(githubApiClient.getRepositoryDetails("owner2", "repo2")).thenReturn(null);
+        when(githubApiClient.getRepositoryDetails("owner3", "repo3")).thenThrow(new RuntimeException("API Error"));
+        when(observedRepoHelper.handleChanges(same(testRepo1), any(), any(), any())).thenReturn(true);
+
+        // when
+        service.processObservedRepos();
+
+        // then
+        assertEquals(3, repos("processed"));
+        assertEquals(1, repos("changed"));
+        assertEquals(1, repos("invalid"));
+        assertEquals(1, repos("failed"));
+        assertEquals(1, meterRegistry.get("observed.repo.refresh").tag("outcome", "success").timer().count());
+        assertEquals(2, meterRegistry.get("observed.repo.refresh.stage").tag("stage", "load").timer().count());
+        assertEquals(1, meterRegistry.get("observed.repo.refresh.stage").tag("stage", "fetch").timer().count());
+        assertEquals(1, meterRegistry.get("observed.repo.refresh.stage").tag("stage", "save").timer().count());
+        assertEquals(1, meterRegistry.get("observed.repo.refresh.stage").tag("stage", "publish").timer().count());
+        assertEquals(0, meterRegistry.get("observed.repo.refresh.active").longTaskTimer().activeTasks());
+    }
+
+    @Test
+    void processObservedRepos_WhenSavingFails_ShouldTimeTheCycleAsFailed() {
+        // given
+        when(observedRepoRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testRepo1)));
+        when(githubApiClient.getRepositoryDetails("owner1", "repo1")).thenReturn(githubRepo1);
+        when(observedRepoRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database Error"));
+
+        // when
+        assertThrows(RuntimeException.class, () -> service.processObservedRepos());
+
+        // then
+        assertEquals(1, meterRegistry.get("observed.repo.refresh").tag("outcome", "failure").timer().count());
+        assertEquals(0, meterRegistry.get("observed.repo.refresh.active").longTaskTimer().activeTasks());
+    }
+
+    private double repos(String result) {
+        return meterRegistry.get("observed.repo.refresh.repos").tag("result", result).counter().count();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,339 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.seed.ObservedRepoSeeder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs full refresh cycles of {@link ObservedRepoProcessingService#processObservedRepos()} against synthetic
+ * repositories, a local fake GitHub and an embedded Kafka broker, and reports where the time of a cycle goes.
+ * <p>
+ * The repositories live in PostgreSQL, by default the {@code postgres} service of docker-compose, with the schema of
+ * the Flyway migrations, so the cycles run the production queries against the production indexes. For every
+ * catalogue size, the table is seeded by {@link ObservedRepoSeeder} with synthetic repositories, warm-up cycles are run
+ * and the measured cycles are reported with their duration, GitHub calls, database writes and change events per
+ * second, prepared statements per refreshed repository, the share of the cycle spent in every stage of the refresh
+ * metrics and peak heap. The report is logged and written to {@code target/load-report.md}. The harness truncates the
+ * repository tables, so it must not be pointed at a database whose data matters.
+ * <p>
+ * Only runs with {@code mvn test -Pload}. Configured with system properties:
+ * <ul>
+ *     <li>{@code load.jdbc-url}, {@code load.jdbc-username} and {@code load.jdbc-password}: the database, default
+ *     {@code jdbc:postgresql://localhost:5432/githubanalyzer} as {@code postgres}/{@code postgres}</li>
+ *     <li>{@code load.repos}: comma separated catalogue sizes, default {@code 10000}, of which about 95% are active
+ *     and refreshed</li>
+ *     <li>{@code load.cycles} and {@code load.warmup-cycles}: cycles per size, default 3 and 1</li>
+ *     <li>{@code load.github-latency}: latency of every GitHub call, default {@code 0ms}</li>
+ *     <li>{@code load.change-percent}: percentage of repositories changing in every cycle, default 10</li>
+ *     <li>{@code load.min-repos-per-second}, {@code load.max-statements-per-repo} and {@code load.max-peak-heap-mb}:
+ *     regression thresholds every measured cycle must meet, unchecked by default</li>
+ * </ul>
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "github.api.token=load-test",
+    "logging.level.com.toulios.githubanalyzer=WARN",
+    "logging.level.com.toulios.githubanalyzer.service.ObservedRepoRefreshLoadTest=INFO",
+    "logging.level.org.apache.kafka=WARN",
+    "logging.level.kafka=WARN",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ObservedRepoRefreshLoadTest {
+
+    private static final Path REPORT = Path.of("target", "load-report.md");
+    private static final List<String> STAGES = List.of("load", "fetch", "save", "publish");
+
+    private static final List<Integer> SIZES = Arrays.stream(System.getProperty("load.repos", "10000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+    private static final int CYCLES = Integer.getInteger("load.cycles", 3);
+    private static final int WARMUP_CYCLES = Integer.getInteger("load.warmup-cycles", 1);
+    private static final Duration GITHUB_LATENCY =
+            DurationStyle.detectAndParse(System.getProperty("load.github-latency", "0ms"));
+    private static final int CHANGE_PERCENT = Integer.getInteger("load.change-percent", 10);
+    private static final String JDBC_URL =
+            System.getProperty("load.jdbc-url", "jdbc:postgresql://localhost:5432/githubanalyzer");
+    private static final String JDBC_USERNAME = System.getProperty("load.jdbc-username", "postgres");
+    private static final String JDBC_PASSWORD = System.getProperty("load.jdbc-password", "postgres");
+
+    private static final FakeGithubServer GITHUB = startGithub();
+
+    /** Keeps the scheduled refresh from running alongside the measured cycles. */
+    @MockBean
+    private ObservedRepoImportScheduler importScheduler;
+
+    @Autowired
+    private ObservedRepoProcessingService processingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Value("${app.kafka.topics.repo-changes}")
+    private String repoChangesTopic;
+
+    @DynamicPropertySource
+    static void harnessProperties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", GITHUB::getBaseUrl);
+        registry.add("spring.datasource.url", () -> JDBC_URL);
+        registry.add("spring.datasource.username", () -> JDBC_USERNAME);
+        registry.add("spring.datasource.password", () -> JDBC_PASSWORD);
+    }
+
+    @AfterAll
+    static void stopGithub() {
+        GITHUB.stop();
+    }
+
+    @Test
+    void refreshCycles() throws Exception {
+        // Given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CycleResult> results = new ArrayList<>();
+
+        try (Consumer<String, String> consumer = eventConsumer()) {
+            List<TopicPartition> partitions = consumer.partitionsFor(repoChangesTopic).stream()
+                    .map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+                    .toList();
+
+            for (int size : SIZES) {
+                int activeRepos = seed(size);
+                for (int cycle = 1 - WARMUP_CYCLES; cycle <= CYCLES; cycle++) {
+                    // When
+                    CycleResult result = runCycle(activeRepos, cycle, statistics, consumer, partitions);
+                    if (cycle > 0) {
+                        results.add(result);
+                    }
+                }
+            }
+        }
+
+        // Then
+        String report = report(results);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report);
+        log.info("Refresh cycle load report (GitHub latency {}, {}% changed per cycle):\n{}",
+                GITHUB_LATENCY, CHANGE_PERCENT, report);
+
+        assertAll(results.stream().map(result -> () -> assertEquals(result.repos(), result.githubCalls(),
+                "every repository is fetched once per cycle")));
+        assertThresholds(results);
+    }
+
+    /**
+     * Replaces the catalogue with the given number of synthetic repositories, seeded by {@link ObservedRepoSeeder}.
+     *
+     * @return the number of active repositories, which are the ones a cycle refreshes
+     */
+    private int seed(int size) throws Exception {
+        ObservedRepoSeeder.main(new String[]{"--rows=" + size, "--truncate", "--url=" + JDBC_URL,
+                "--username=" + JDBC_USERNAME, "--password=" + JDBC_PASSWORD});
+        Integer activeRepos = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM observed_repo WHERE repo_status = 'ACTIVE'", Integer.class);
+        log.info("Seeded {} repositories, {} of them active", size, activeRepos);
+        return activeRepos;
+    }
+
+    private CycleResult runCycle(int activeRepos, int cycle, Statistics statistics, Consumer<String, String> consumer,
+                                 List<TopicPartition> partitions) {
+        GITHUB.nextGeneration();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        statistics.clear();
+        long githubCalls = GITHUB.getRequests();
+        long[] stageNanos = STAGES.stream().mapToLong(this::stageNanos).toArray();
+        long events = endOffset(consumer, partitions);
+
+        long start = System.nanoTime();
+        processingService.processObservedRepos();
+        kafkaTemplate.flush();
+        long durationNanos = System.nanoTime() - start;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new CycleResult(activeRepos, cycle, durationNanos,
+                GITHUB.getRequests() - githubCalls,
+                IntStream.range(0, STAGES.size()).mapToLong(i -> stageNanos(STAGES.get(i)) - stageNanos[i]).toArray(),
+                statistics.getEntityInsertCount() + statistics.getEntityUpdateCount()
+                        + statistics.getEntityDeleteCount(),
+                statistics.getPrepareStatementCount(),
+                endOffset(consumer, partitions) - events,
+                peakHeap);
+    }
+
+    /**
+     * Returns the total time spent in the given stage of the refresh, from the refresh metrics.
+     */
+    private long stageNanos(String stage) {
+        return (long) meterRegistry.get("observed.repo.refresh.stage").tag("stage", stage).timer()
+                .totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    private Consumer<String, String> eventConsumer() {
+        Map<String, Object> properties =
+                KafkaTestUtils.consumerProps(embeddedKafka.getBrokersAsString(), "load-harness", "false");
+        return new KafkaConsumer<>(properties, new StringDeserializer(), new StringDeserializer());
+    }
+
+    /**
+     * Returns the number of change events on the topic.
+     */
+    private static long endOffset(Consumer<String, String> consumer, List<TopicPartition> partitions) {
+        return consumer.endOffsets(partitions).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static void assertThresholds(List<CycleResult> results) {
+        Double minReposPerSecond = doubleProperty("load.min-repos-per-second");
+        Double maxStatementsPerRepo = doubleProperty("load.max-statements-per-repo");
+        Double maxPeakHeapMb = doubleProperty("load.max-peak-heap-mb");
+        assertAll(results.stream().flatMap(result -> {
+            String cycle = result.repos() + " repositories, cycle " + result.cycle();
+            List<Executable> checks = new ArrayList<>();
+            if (minReposPerSecond != null) {
+                checks.add(() -> assertTrue(result.perSecond(result.repos()) >= minReposPerSecond,
+                        cycle + ": " + format(result.perSecond(result.repos())) + " repositories/s"));
+            }
+            if (maxStatementsPerRepo != null) {
+                checks.add(() -> assertTrue(result.statementsPerRepo() <= maxStatementsPerRepo,
+                        cycle + ": " + format(result.statementsPerRepo()) + " statements per repository"));
+            }
+            if (maxPeakHeapMb != null) {
+                checks.add(() -> assertTrue(result.peakHeapMb() <= maxPeakHeapMb,
+                        cycle + ": peak heap " + format(result.peakHeapMb()) + " MB"));
+            }
+            return checks.stream();
+        }));
+    }
+
+    private static Double doubleProperty(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? null : Double.valueOf(value);
+    }
+
+    /**
+     * Formats the measured cycles as a Markdown table.
+     */
+    private static String report(List<CycleResult> results) {
+        StringBuilder report = new StringBuilder()
+                .append("| Repos | Cycle | Duration (s) | GitHub calls/s | DB writes/s | Events/s | Statements/repo"
+                        + " | Load (%) | Fetch (%) | Save (%) | Publish (%) | Other (%) | Peak heap (MB) |\n")
+                .append("|-------|-------|--------------|----------------|-------------|----------|----------------"
+                        + "|----------|-----------|----------|-------------|-----------|----------------|\n");
+        for (CycleResult result : results) {
+            long[] stages = result.stageNanos();
+            report.append(String.format(Locale.ROOT,
+                    "| %d | %d | %.2f | %.0f | %.0f | %.0f | %.2f | %.1f | %.1f | %.1f | %.1f | %.1f | %.0f |%n",
+                    result.repos(), result.cycle(), result.durationNanos() / 1e9,
+                    result.perSecond(result.githubCalls()), result.perSecond(result.dbWrites()),
+                    result.perSecond(result.events()), result.statementsPerRepo(),
+                    result.share(stages[0]), result.share(stages[1]), result.share(stages[2]),
+                    result.share(stages[3]), result.share(result.durationNanos() - LongStream.of(stages).sum()),
+                    result.peakHeapMb()));
+        }
+        return report.toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static FakeGithubServer startGithub() {
+        try {
+            return FakeGithubServer.start(GITHUB_LATENCY, CHANGE_PERCENT);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the fake GitHub server", e);
+        }
+    }
+
+    /**
+     * Measurements of one refresh cycle.
+     *
+     * @param repos active repositories, refreshed by the cycle
+     * @param stageNanos time spent in every stage of the refresh, in the order of {@link #STAGES}
+     * @param dbWrites entities inserted, updated or deleted
+     * @param statements JDBC statements prepared
+     * @param events change events published to Kafka
+     * @param peakHeapBytes sum of the peak usage of the heap memory pools
+     */
+    private record CycleResult(int repos, int cycle, long durationNanos, long githubCalls, long[] stageNanos,
+                               long dbWrites, long statements, long events, long peakHeapBytes) {
+
+        double perSecond(long count) {
+            return count * 1e9 / durationNanos;
+        }
+
+        double share(long nanos) {
+            return 100.0 * nanos / durationNanos;
+        }
+
+        double statementsPerRepo() {
+            return (double) statements / repos;
+        }
+
+        double peakHeapMb() {
+            return peakHeapBytes / (1024.0 * 1024.0);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.request.StatsDimension;
+import com.toulios.githubanalyzer.dto.response.RepoGroupStatsResponse;
+import com.toulios.githubanalyzer.dto.response.RepoStatsResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.repository.ObservedRepoGroupCount;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ObservedRepoStatsTrackerTest {
+
+    @Mock
+    private ObservedRepoRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservedRepoStatsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ObservedRepoStatsTracker(repository, transactionManager, meterRegistry);
+    }
+
+    @Test
+    void record_ShouldMoveContributionsBetweenGroups() {
+        // Given
+        ObservedRepo first = repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 10);
+        ObservedRepo second = repo("octocat", null, ObservedRepoStatus.ACTIVE, 5);
+        tracker.record(null, first);
+        tracker.record(null, second);
+
+        // When
+        ObservedRepo starred = repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 25);
+        tracker.record(first, starred);
+        tracker.record(second, repo("octocat", null, ObservedRepoStatus.DELETED, 5));
+
+        // Then
+        RepoStatsResponse byLicence = tracker.getStats(StatsDimension.LICENCE, ObservedRepoStatus.ACTIVE, 10);
+        assertEquals(List.of(group("MIT License", 1, 25)), byLicence.getGroups());
+        assertEquals(1, byLicence.getTotalRepos());
+
+        RepoStatsResponse byStatus = tracker.getStats(StatsDimension.STATUS, null, 10);
+        assertEquals(List.of(group("ACTIVE", 1, 25), group("DELETED", 1, 5)), byStatus.getGroups());
+        assertEquals(30, byStatus.getTotalStars());
+
+        RepoStatsResponse byOwner = tracker.getStats(StatsDimension.OWNER, null, 10);
+        assertEquals(List.of(group("octocat", 2, 30)), byOwner.getGroups());
+    }
+
+    @Test
+    void recordStatusChange_ShouldMoveRepositoryToTheNewStatus() {
+        // Given
+        ObservedRepo repo = repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 10);
+        tracker.record(null, repo);
+
+        // When
+        repo.setStatus(ObservedRepoStatus.INVALID);
+        tracker.recordStatusChange(repo, ObservedRepoStatus.ACTIVE);
+
+        // Then
+        assertEquals(List.of(group("INVALID", 1, 10)), tracker.getStats(StatsDimension.STATUS, null, 10).getGroups());
+    }
+
+    @Test
+    void reconcile_ShouldReplaceCountersAndCountCorrectedGroups() {
+        // Given
+        tracker.record(null, repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 10));
+        when(repository.countGroups()).thenReturn(List.of(
+                row("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 3, 40),
+                row("torvalds", null, ObservedRepoStatus.ACTIVE, 1, 100)));
+
+        // When
+        tracker.reconcile();
+
+        // Then
+        RepoStatsResponse byOwner = tracker.getStats(StatsDimension.OWNER, ObservedRepoStatus.ACTIVE, 1);
+        assertEquals(List.of(group("octocat", 3, 40)), byOwner.getGroups());
+        assertEquals(2, byOwner.getTotalGroups());
+        assertEquals(140, byOwner.getTotalStars());
+        assertNotNull(byOwner.getReconciledAt());
+        // octocat and torvalds per owner, MIT License and no licence per licence, ACTIVE per status
+        assertEquals(5, meterRegistry.counter("observed.repo.stats.corrections").count());
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void reconcile_WhenChangeRecordedDuringQuery_ShouldDiscardResultAndQueryAgain() {
+        // Given
+        ObservedRepo repo = repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 10);
+        tracker.record(null, repo);
+        when(repository.countGroups())
+                .thenAnswer(invocation -> {
+                    // committed before the query read the table, so already part of its result
+                    tracker.record(null, repo("torvalds", null, ObservedRepoStatus.ACTIVE, 100));
+                    return List.of(
+                            row("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 1, 10),
+                            row("torvalds", null, ObservedRepoStatus.ACTIVE, 1, 100));
+                })
+                .thenReturn(List.of(
+                        row("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 1, 10),
+                        row("torvalds", null, ObservedRepoStatus.ACTIVE, 1, 100)));
+
+        // When
+        tracker.reconcile();
+
+        // Then
+        verify(repository, times(2)).countGroups();
+        RepoStatsResponse byOwner = tracker.getStats(StatsDimension.OWNER, null, 10);
+        assertEquals(List.of(group("octocat", 1, 10), group("torvalds", 1, 100)), byOwner.getGroups());
+        assertNotNull(byOwner.getReconciledAt());
+        assertEquals(0, meterRegistry.counter("observed.repo.stats.corrections").count());
+    }
+
+    @Test
+    void reconcile_WhenChangesRecordedDuringEveryQuery_ShouldKeepCounters() {
+        // Given
+        tracker.record(null, repo("octocat", "MIT License", ObservedRepoStatus.ACTIVE, 10));
+        when(repository.countGroups()).thenAnswer(invocation -> {
+            tracker.record(null, repo("torvalds", null, ObservedRepoStatus.ACTIVE, 1));
+            return List.of();
+        });
+
+        // When
+        tracker.reconcile();
+
+        // Then
+        verify(repository, times(3)).countGroups();
+        RepoStatsResponse byOwner = tracker.getStats(StatsDimension.OWNER, null, 10);
+        assertEquals(List.of(group("torvalds", 3, 3), group("octocat", 1, 10)), byOwner.getGroups());
+        assertNull(byOwner.getReconciledAt());
+    }
+
+    private ObservedRepo repo(String owner, String licence, ObservedRepoStatus status, int stars) {
+        ObservedRepo repo = new ObservedRepo();
+        repo.setOwner(owner);
+        repo.setLicence(licence);
+        repo.setStatus(status);
+        repo.setStars(stars);
+        return repo;
+    }
+
+    private RepoGroupStatsResponse group(String value, long repos, long stars) {
+        return RepoGroupStatsResponse.builder().value(value).repos(repos).stars(stars).build();
+    }
+
+    private ObservedRepoGroupCount row(String owner, String licence, ObservedRepoStatus status, long repos, long stars) {
+        return new ObservedRepoGroupCount() {
+            public String getOwner() { return owner; }
+            public String getLicence() { return licence; }
+            public ObservedRepoStatus getStatus() { return status; }
+            public long getRepos() { return repos; }
+            public long getStars() { return stars; }
+        };
+    }
+}
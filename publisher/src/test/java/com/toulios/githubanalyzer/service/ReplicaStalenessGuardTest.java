@@ -0,0 +1,71 @@
+package com.toulios.githubanalyzer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaStalenessGuardTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica-lag");
+
+    @Test
+    void checkReplicaLag_ShouldUseReplicaOnlyWithinMaxLag() {
+        // Given
+        ReplicaStalenessGuard caughtUp = guard("SELECT 0.5");
+        ReplicaStalenessGuard lagging = guard("SELECT 3");
+        ReplicaStalenessGuard unreachable = guard("SELECT lag FROM missing_table");
+
+        // When
+        caughtUp.checkReplicaLag();
+        lagging.checkReplicaLag();
+        unreachable.checkReplicaLag();
+
+        // Then
+        assertTrue(caughtUp.isReplicaUsable());
+        assertFalse(lagging.isReplicaUsable());
+        assertFalse(unreachable.isReplicaUsable());
+    }
+
+    @Test
+    void isRecentlyWritten_ShouldExpireAfterMaxLagAndLagCheckInterval() {
+        // Given
+        ReplicaStalenessGuard guard = guard("SELECT 0");
+        guard.recordWrite(1L);
+
+        // When & Then
+        assertTrue(guard.isRecentlyWritten(List.of(2L, 1L)));
+        assertFalse(guard.isRecentlyWritten(List.of(2L)));
+        clock.addAndGet(Duration.ofMillis(5500).toNanos());
+        guard.checkReplicaLag();
+        assertTrue(guard.isRecentlyWritten(List.of(1L)));
+        clock.addAndGet(Duration.ofMillis(501).toNanos());
+        assertFalse(guard.isRecentlyWritten(List.of(1L)));
+    }
+
+    @Test
+    void guard_WithoutReplica_ShouldNeverUseReplica() {
+        // Given
+        ReplicaStalenessGuard guard = new ReplicaStalenessGuard(null, new SimpleMeterRegistry(), Duration.ofSeconds(1),
+                Duration.ofSeconds(5), null, clock::get);
+
+        // When
+        guard.recordWrite(1L);
+        guard.checkReplicaLag();
+
+        // Then
+        assertFalse(guard.isReplicaUsable());
+        assertFalse(guard.isRecentlyWritten(List.of(1L)));
+    }
+
+    private ReplicaStalenessGuard guard(String lagQuery) {
+        return new ReplicaStalenessGuard(replica, new SimpleMeterRegistry(), Duration.ofSeconds(1),
+                Duration.ofSeconds(5), lagQuery, clock::get);
+    }
+}
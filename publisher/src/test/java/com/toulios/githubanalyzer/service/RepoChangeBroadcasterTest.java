@@ -0,0 +1,131 @@
+package com.toulios.githubanalyzer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.toulios.githubanalyzer.config.WebConfig;
+import com.toulios.githubanalyzer.controller.v1.ObservedRepoController;
+import com.toulios.githubanalyzer.dto.request.RepoChangeSubscription;
+import com.toulios.githubanalyzer.dto.request.SseOverflowPolicy;
+import com.toulios.githubanalyzer.event.RepoChangeEvent;
+import com.toulios.githubanalyzer.exception.TooManySubscribersException;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class RepoChangeBroadcasterTest {
+
+    private static final String CHANGES_PATH = "/api/v1/observed-repos/changes";
+
+    private final ExecutorService senders = Executors.newSingleThreadExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RepoChangeBroadcaster broadcaster;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new RepoChangeBroadcaster(new ObjectMapper().findAndRegisterModules(), meterRegistry, 2, 3,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), SseOverflowPolicy.DROP_OLDEST, senders);
+        FormattingConversionService conversionService = new DefaultFormattingConversionService();
+        new WebConfig().addFormatters(conversionService);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ObservedRepoController(null, null, null, null, broadcaster))
+                .setConversionService(conversionService)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publish_ShouldStreamMatchingChangesOnly() throws Exception {
+        // Given
+        MockHttpServletResponse octocat = subscribe("?owner=OCTOCAT&status=ACTIVE");
+        MockHttpServletResponse byId = subscribe("?ids=2,3");
+
+        // When
+        broadcaster.publish(event(1L, "octocat", ObservedRepoStatus.ACTIVE));
+        broadcaster.publish(event(2L, "octocat", ObservedRepoStatus.DELETED));
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertTrue(octocat.getContentAsString().startsWith("id:1\nevent:change\ndata:{\"repoId\":1,"));
+            assertTrue(byId.getContentAsString().startsWith("id:2\nevent:change\ndata:{\"repoId\":2,"));
+        });
+        assertFalse(octocat.getContentAsString().contains("\"repoId\":2"));
+        assertFalse(byId.getContentAsString().contains("\"repoId\":1"));
+    }
+
+    @Test
+    void publish_WhenSubscriberFallsBehind_ShouldDropOldestOrDisconnect() throws Exception {
+        // Given
+        MockHttpServletResponse dropping = subscribe("");
+        subscribe("?overflow=disconnect");
+        CountDownLatch blocked = new CountDownLatch(1);
+        senders.execute(() -> awaitQuietly(blocked));
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            broadcaster.publish(event(id, "octocat", ObservedRepoStatus.ACTIVE));
+        }
+        blocked.countDown();
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertTrue(dropping.getContentAsString().contains("id:5")));
+        String content = dropping.getContentAsString();
+        assertTrue(content.startsWith("event:dropped\ndata:3\n\nid:4\nevent:change"));
+        assertEquals(1, broadcaster.getSubscriberCount());
+        assertEquals(3, meterRegistry.counter("repo.change.stream.dropped").count());
+        assertEquals(1, meterRegistry.counter("repo.change.stream.disconnected").count());
+    }
+
+    @Test
+    void subscribe_WhenAtCapacity_ShouldRejectSubscriber() throws Exception {
+        // Given
+        subscribe("");
+        subscribe("");
+        subscribe("");
+
+        // When & Then
+        assertThrows(TooManySubscribersException.class,
+                () -> broadcaster.subscribe(RepoChangeSubscription.builder().build(), null));
+    }
+
+    private MockHttpServletResponse subscribe(String query) throws Exception {
+        return mockMvc.perform(get(CHANGES_PATH + query)).andReturn().getResponse();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RepoChangeEvent event(Long id, String owner, ObservedRepoStatus status) {
+        return RepoChangeEvent.builder()
+                .repoId(id)
+                .owner(owner)
+                .status(status)
+                .changes("\n - Stars: 1 → 2")
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.toulios.githubanalyzer.service;
+
+import com.toulios.githubanalyzer.dto.response.TrendingRepoResponse;
+import com.toulios.githubanalyzer.model.ObservedRepo;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import com.toulios.githubanalyzer.model.RepoStarSnapshot;
+import com.toulios.githubanalyzer.model.TrendingWindow;
+import com.toulios.githubanalyzer.repository.ObservedRepoRepository;
+import com.toulios.githubanalyzer.repository.RepoStarSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingRepoTrackerTest {
+
+    @Mock
+    private RepoStarSnapshotRepository snapshotRepository;
+
+    @Mock
+    private ObservedRepoRepository observedRepoRepository;
+
+    @InjectMocks
+    private TrendingRepoTracker tracker;
+
+    @Test
+    void recordAll_ShouldRankRepositoriesByStarsGainedPerWindow() {
+        Instant now = Instant.now();
+
+        tracker.recordAll(Arrays.asList(repo(1L, 100), repo(2L, 100)), now.minus(Duration.ofHours(3)));
+        tracker.recordAll(Arrays.asList(repo(1L, 150), repo(2L, 110)), now.minus(Duration.ofMinutes(90)));
+        tracker.recordAll(Arrays.asList(repo(1L, 155), repo(2L, 140)), now);
+
+        List<TrendingRepoResponse> lastHour = tracker.getTrending(TrendingWindow.ONE_HOUR, 10);
+        assertEquals(2, lastHour.size());
+        assertEquals(2L, lastHour.get(0).getId());
+        assertEquals(30, lastHour.get(0).getStarsGained());
+        assertEquals(1L, lastHour.get(1).getId());
+        assertEquals(5, lastHour.get(1).getStarsGained());
+
+        List<TrendingRepoResponse> lastDay = tracker.getTrending(TrendingWindow.ONE_DAY, 10);
+        assertEquals(1L, lastDay.get(0).getId());
+        assertEquals(55, lastDay.get(0).getStarsGained());
+        assertEquals(140, lastDay.get(1).getStars());
+    }
+
+    @Test
+    void recordAll_ShouldOnlyPersistSnapshotsWhenStarsChange() {
+        Instant now = Instant.now();
+
+        tracker.recordAll(Collections.singletonList(repo(1L, 100)), now.minusSeconds(60));
+        tracker.recordAll(Collections.singletonList(repo(1L, 100)), now);
+
+        verify(snapshotRepository, times(1)).saveAll(anyList());
+        assertTrue(tracker.getTrending(TrendingWindow.ONE_HOUR, 10).isEmpty());
+    }
+
+    @Test
+    void recordAll_WhenRepoBecomesInvalid_ShouldRemoveItFromRankings() {
+        Instant now = Instant.now();
+        tracker.recordAll(Collections.singletonList(repo(1L, 100)), now.minusSeconds(60));
+        tracker.recordAll(Collections.singletonList(repo(1L, 120)), now);
+
+        ObservedRepo invalid = repo(1L, 120);
+        invalid.setStatus(ObservedRepoStatus.INVALID);
+        tracker.recordAll(Collections.singletonList(invalid), now);
+
+        assertTrue(tracker.getTrending(TrendingWindow.ONE_HOUR, 10).isEmpty());
+    }
+
+    @Test
+    void getTrending_ShouldRespectLimit() {
+        Instant now = Instant.now();
+        tracker.recordAll(Arrays.asList(repo(1L, 1), repo(2L, 1), repo(3L, 1)), now.minusSeconds(60));
+        tracker.recordAll(Arrays.asList(repo(1L, 10), repo(2L, 20), repo(3L, 30)), now);
+
+        List<TrendingRepoResponse> trending = tracker.getTrending(TrendingWindow.ONE_HOUR, 2);
+
+        assertEquals(2, trending.size());
+        assertEquals(3L, trending.get(0).getId());
+    }
+
+    @Test
+    void rebuild_ShouldRestoreRankingsFromSnapshots() {
+        Instant now = Instant.now();
+        when(snapshotRepository.findByRecordedAtGreaterThanEqualOrderByRecordedAtAsc(any())).thenReturn(Arrays.asList(
+                new RepoStarSnapshot(1L, 1L, 100, now.minus(Duration.ofHours(2))),
+                new RepoStarSnapshot(2L, 1L, 140, now.minus(Duration.ofMinutes(10)))
+        ));
+        when(observedRepoRepository.findAllById(any())).thenReturn(Collections.singletonList(repo(1L, 140)));
+
+        tracker.rebuild();
+
+        List<TrendingRepoResponse> lastDay = tracker.getTrending(TrendingWindow.ONE_DAY, 10);
+        assertEquals(1, lastDay.size());
+        assertEquals(40, lastDay.get(0).getStarsGained());
+        assertEquals("owner1", lastDay.get(0).getOwner());
+    }
+
+    @Test
+    void rebuild_ShouldUseTheLatestSnapshotBeforeTheWeekAsBaseline() {
+        Instant now = Instant.now();
+        when(snapshotRepository.findLatestRecordedBefore(any())).thenReturn(Arrays.asList(
+                new RepoStarSnapshot(1L, 1L, 100, now.minus(Duration.ofDays(10))),
+                new RepoStarSnapshot(2L, 2L, 50, now.minus(Duration.ofDays(30)))
+        ));
+        when(snapshotRepository.findByRecordedAtGreaterThanEqualOrderByRecordedAtAsc(any())).thenReturn(
+                Collections.singletonList(new RepoStarSnapshot(3L, 1L, 130, now.minus(Duration.ofDays(2)))));
+        when(observedRepoRepository.findAllById(any())).thenReturn(Arrays.asList(repo(1L, 130), repo(2L, 50)));
+
+        tracker.rebuild();
+        tracker.recordAll(Collections.singletonList(repo(2L, 50)), now);
+
+        List<TrendingRepoResponse> lastWeek = tracker.getTrending(TrendingWindow.SEVEN_DAYS, 10);
+        assertEquals(1, lastWeek.size());
+        assertEquals(30, lastWeek.get(0).getStarsGained());
+        assertTrue(tracker.getTrending(TrendingWindow.ONE_DAY, 10).isEmpty());
+        verify(snapshotRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void purgeExpired_ShouldOnlyDropRepositoriesMissedByTheLastCompletedCycles() {
+        Instant now = Instant.now();
+        tracker.recordAll(Arrays.asList(repo(1L, 1), repo(2L, 1)), now.minus(Duration.ofHours(5)));
+        tracker.recordAll(Arrays.asList(repo(1L, 10), repo(2L, 20)), now.minus(Duration.ofHours(4)));
+
+        tracker.cycleCompleted(now.minus(Duration.ofHours(6)));
+        tracker.purgeExpired();
+        assertEquals(2, tracker.getTrending(TrendingWindow.ONE_DAY, 10).size());
+
+        tracker.cycleCompleted(now.minus(Duration.ofHours(3)));
+        tracker.recordAll(Collections.singletonList(repo(1L, 10)), now.minus(Duration.ofHours(2)));
+        tracker.cycleCompleted(now.minus(Duration.ofHours(2)));
+        tracker.purgeExpired();
+
+        List<TrendingRepoResponse> lastDay = tracker.getTrending(TrendingWindow.ONE_DAY, 10);
+        assertEquals(1, lastDay.size());
+        assertEquals(1L, lastDay.get(0).getId());
+        verify(snapshotRepository, times(2)).deleteSupersededBefore(any());
+    }
+
+    private ObservedRepo repo(Long id, int stars) {
+        ObservedRepo repo = new ObservedRepo();
+        repo.setId(id);
+        repo.setOwner("owner" + id);
+        repo.setName("repo" + id);
+        repo.setStars(stars);
+        repo.setStatus(ObservedRepoStatus.ACTIVE);
+        return repo;
+    }
+}
@@ -0,0 +1,38 @@
+package com.toulios.githubanalyzer.util;
+
+import com.toulios.githubanalyzer.dto.request.CursorSortField;
+import com.toulios.githubanalyzer.dto.request.ObservedRepoCursor;
+import com.toulios.githubanalyzer.exception.InvalidCursorException;
+import com.toulios.githubanalyzer.model.ObservedRepoStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void decode_ShouldReturnEncodedCursor() {
+        // Given
+        ObservedRepoCursor cursor = new ObservedRepoCursor("owner & co", null, ObservedRepoStatus.ACTIVE, "MIT",
+                CursorSortField.UPDATED_AT, true, 50, "2024-05-01T12:00:00.123456789", 42L, false);
+
+        // When
+        String encoded = CursorCodec.encode(cursor);
+
+        // Then
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, CursorCodec.decode(encoded));
+    }
+
+    @Test
+    void decode_WhenCursorIsMalformed_ShouldThrowInvalidCursorException() {
+        String tampered = Base64.getUrlEncoder().encodeToString(
+                "{\"sort\":\"CREATED_AT\",\"size\":20,\"value\":\"yesterday\",\"id\":1}".getBytes());
+
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("e30"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(tampered));
+    }
+}
@@ -0,0 +1,66 @@
+package com.toulios.githubanalyzer.util;
+
+import com.toulios.githubanalyzer.dto.response.ObservedRepoResponse;
+import com.toulios.githubanalyzer.dto.response.PaginatedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagUtilsTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+
+    @Test
+    void of_ShouldOnlyChangeWithIdOrUpdatedAt() {
+        // Given
+        ObservedRepoResponse response = response(1L, UPDATED_AT);
+        ObservedRepoResponse sameVersion = response(1L, UPDATED_AT);
+        sameVersion.setStars(100);
+
+        // When
+        String tag = ETagUtils.of(response);
+
+        // Then
+        assertTrue(tag.matches("W/\"[0-9a-f]{32}\""));
+        assertEquals(tag, ETagUtils.of(sameVersion));
+        assertNotEquals(tag, ETagUtils.of(response(1L, UPDATED_AT.plusNanos(1_000))));
+        assertNotEquals(tag, ETagUtils.of(response(2L, UPDATED_AT)));
+    }
+
+    @Test
+    void of_ShouldChangeWithRowsAndLinksOfPage() {
+        // Given
+        PaginatedResponse<ObservedRepoResponse> page = PaginatedResponse.<ObservedRepoResponse>builder()
+                .next("/api/v1/observed-repos?page=1&size=2")
+                .results(List.of(response(1L, UPDATED_AT), response(2L, UPDATED_AT)))
+                .build();
+        PaginatedResponse<ObservedRepoResponse> lastPage = PaginatedResponse.<ObservedRepoResponse>builder()
+                .results(page.getResults())
+                .build();
+        PaginatedResponse<ObservedRepoResponse> updatedPage = PaginatedResponse.<ObservedRepoResponse>builder()
+                .next(page.getNext())
+                .results(List.of(response(1L, UPDATED_AT), response(2L, UPDATED_AT.plusSeconds(1))))
+                .build();
+
+        // When
+        String tag = ETagUtils.of(page);
+
+        // Then
+        assertEquals(tag, ETagUtils.of(PaginatedResponse.<ObservedRepoResponse>builder()
+                .next(page.getNext())
+                .results(List.of(response(1L, UPDATED_AT), response(2L, UPDATED_AT)))
+                .build()));
+        assertNotEquals(tag, ETagUtils.of(lastPage));
+        assertNotEquals(tag, ETagUtils.of(updatedPage));
+    }
+
+    private ObservedRepoResponse response(Long id, LocalDateTime updatedAt) {
+        ObservedRepoResponse response = new ObservedRepoResponse();
+        response.setId(id);
+        response.setUpdatedAt(updatedAt);
+        return response;
+    }
+}
@@ -0,0 +1,62 @@
+-- Benchmark of the substring filters of GET /api/v1/observed-repos with and without the trigram indexes of V4.
+--
+-- Run against a migrated scratch database, e.g. the docker compose Postgres:
+--   psql -h localhost -U postgres -d githubanalyzer -v rows=2000000 -f substring-search.sql
+--
+-- The seeded rows are removed at the end. Every query is run twice with EXPLAIN (ANALYZE, BUFFERS): once with
+-- the planner allowed to use the trigram indexes and once with bitmap scans disabled, which is the plan the
+-- queries had before V4 (a sequential scan).
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+  \set rows 1000000
+\endif
+
+BEGIN;
+
+INSERT INTO observed_repo (repo_name, repo_owner, repo_status, licence, url, stars, open_issues, created_at, updated_at)
+SELECT 'project-' || md5(i::text),
+       'owner-' || (i % 50000),
+       CASE WHEN i % 10 = 0 THEN 'INVALID' ELSE 'ACTIVE' END,
+       (ARRAY['MIT License', 'Apache License 2.0', 'GNU General Public License v3.0', 'BSD 3-Clause'])[1 + i % 4],
+       'https://api.github.com/repos/owner-' || (i % 50000) || '/project-' || i,
+       (random() * 100000)::int,
+       (random() * 500)::int,
+       now() - (i || ' seconds')::interval,
+       now() - (i || ' seconds')::interval
+FROM generate_series(1, :rows) AS i;
+
+ANALYZE observed_repo;
+
+\echo '== owner contains "owner-4242" (first page of 20) =='
+\echo '-- with trigram index'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM observed_repo WHERE lower(repo_owner) LIKE '%owner-4242%' ESCAPE '\' ORDER BY id LIMIT 21;
+SET LOCAL enable_bitmapscan = off;
+\echo '-- sequential scan (before V4)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM observed_repo WHERE lower(repo_owner) LIKE '%owner-4242%' ESCAPE '\' ORDER BY id LIMIT 21;
+RESET enable_bitmapscan;
+
+\echo '== name contains "a1b2c" and status ACTIVE, with the offset page count =='
+\echo '-- with trigram index'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM observed_repo WHERE lower(repo_name) LIKE '%a1b2c%' ESCAPE '\' AND repo_status = 'ACTIVE';
+SET LOCAL enable_bitmapscan = off;
+\echo '-- sequential scan (before V4)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM observed_repo WHERE lower(repo_name) LIKE '%a1b2c%' ESCAPE '\' AND repo_status = 'ACTIVE';
+RESET enable_bitmapscan;
+
+\echo '== licence contains "apache" (selective values gain the least) =='
+\echo '-- with trigram index'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM observed_repo WHERE lower(licence) LIKE '%apache%' ESCAPE '\' ORDER BY id LIMIT 21;
+SET LOCAL enable_bitmapscan = off;
+\echo '-- sequential scan (before V4)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM observed_repo WHERE lower(licence) LIKE '%apache%' ESCAPE '\' ORDER BY id LIMIT 21;
+RESET enable_bitmapscan;
+
+ROLLBACK;